@@ -0,0 +1,242 @@
+package com.artemisia_corp.artemisia.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Ejecutores asincronos de la aplicacion.
+ * Declarar cualquier Executor desactiva el que Spring Boot configura por defecto, por lo que
+ * aqui se vuelve a registrar "applicationTaskExecutor" para los @Async sin calificador.
+ * <p>
+ * Con {@code spring.threads.virtual.enabled=true} Tomcat atiende cada peticion en un hilo virtual y los
+ * @Async sin calificador tambien. Los ejecutores con nombre siguen siendo pools acotados porque su tamano
+ * es el limite de concurrencia que buscan; los de logs, vistas y preferencias usan hilos virtuales en ese
+ * modo sin perder el limite ni la cola.
+ * <p>
+ * Spring Boot publica executor.active/queued/pool.size de cada pool y {@link ExecutorRejectionMetrics}
+ * anade executor.rejected.
+ */
+@Configuration
+public class AsyncExecutorConfig {
+
+    public enum RejectionPolicy {
+        CALLER_RUNS, ABORT, DISCARD, DISCARD_OLDEST;
+
+        RejectedExecutionHandler handler() {
+            return switch (this) {
+                case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+                case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+                case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+                case DISCARD_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+            };
+        }
+    }
+
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @Primary
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Un hilo virtual por tarea. El builder de Spring Boot ya viene con hilos virtuales y el limite de
+     * spring.task.execution.simple.concurrency-limit; al alcanzarlo quien encola espera.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @Primary
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualThreadTaskExecutor(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.threadNamePrefix("async-vt-").build();
+    }
+
+    /**
+     * Procesa las notificaciones de pago recibidas. La cola es acotada: si se llena, la notificacion
+     * queda PENDING en la bandeja y la recoge el barrido de reintentos.
+     */
+    @Bean(name = "paymentWebhookExecutor")
+    public ThreadPoolTaskExecutor paymentWebhookExecutor(
+            ThreadPoolTaskExecutorBuilder builder,
+            @Value("${artemisia.payment-webhook.workers:4}") int workers,
+            @Value("${artemisia.payment-webhook.queue-capacity:500}") int queueCapacity) {
+        return builder
+                .corePoolSize(workers)
+                .maxPoolSize(workers)
+                .queueCapacity(queueCapacity)
+                .threadNamePrefix("payment-webhook-")
+                .build();
+    }
+
+    /**
+     * Consultas de estado de cobro del conciliador de pagos: pool fijo para acotar las llamadas
+     * simultaneas a Stereum.
+     */
+    @Bean(name = "paymentReconciliationExecutor")
+    public ThreadPoolTaskExecutor paymentReconciliationExecutor(
+            ThreadPoolTaskExecutorBuilder builder,
+            @Value("${artemisia.payment-reconciliation.parallelism:8}") int parallelism) {
+        return builder
+                .corePoolSize(parallelism)
+                .maxPoolSize(parallelism)
+                .threadNamePrefix("payment-reconciliation-")
+                .build();
+    }
+
+    /**
+     * Envio de eventos de subastas a los suscriptores SSE. Si la cola se llena, el suscriptor
+     * afectado se desconecta en lugar de bloquear a quien publica.
+     */
+    @Bean(name = "auctionEventExecutor")
+    public ThreadPoolTaskExecutor auctionEventExecutor(
+            ThreadPoolTaskExecutorBuilder builder,
+            @Value("${artemisia.auction.events.workers:4}") int workers,
+            @Value("${artemisia.auction.events.queue-capacity:20000}") int queueCapacity) {
+        return builder
+                .corePoolSize(workers)
+                .maxPoolSize(workers)
+                .queueCapacity(queueCapacity)
+                .threadNamePrefix("auction-events-")
+                .build();
+    }
+
+    /**
+     * Finalizacion de subastas vencidas. Cada subasta usa su propia transaccion corta, asi que una
+     * rafaga de vencimientos se reparte entre pocos hilos en lugar de una transaccion larga.
+     */
+    @Bean(name = "auctionExpiryExecutor")
+    public ThreadPoolTaskExecutor auctionExpiryExecutor(
+            ThreadPoolTaskExecutorBuilder builder,
+            @Value("${artemisia.auction.expiry.workers:4}") int workers,
+            @Value("${artemisia.auction.expiry.queue-capacity:10000}") int queueCapacity) {
+        return builder
+                .corePoolSize(workers)
+                .maxPoolSize(workers)
+                .queueCapacity(queueCapacity)
+                .threadNamePrefix("auction-expiry-")
+                .build();
+    }
+
+    /**
+     * Secciones de los paneles de administracion y vendedor. Cada hilo ocupa una conexion mientras
+     * corre su consulta, asi que el tamano debe quedar por debajo del pool de conexiones.
+     */
+    @Bean(name = "dashboardQueryExecutor")
+    public ThreadPoolTaskExecutor dashboardQueryExecutor(
+            ThreadPoolTaskExecutorBuilder builder,
+            @Value("${artemisia.dashboard.workers:4}") int workers,
+            @Value("${artemisia.dashboard.queue-capacity:200}") int queueCapacity) {
+        return builder
+                .corePoolSize(workers)
+                .maxPoolSize(workers)
+                .queueCapacity(queueCapacity)
+                .threadNamePrefix("dashboard-query-")
+                .build();
+    }
+
+    /**
+     * Subidas de imagenes a Cloudinary. Pocos hilos para acotar el ancho de banda y los archivos
+     * temporales abiertos; con la cola llena la subida corre en el hilo que la pide, a veces dentro del
+     * callback de fin de una transaccion, por eso ImageServiceImpl escribe su resultado con REQUIRES_NEW.
+     */
+    @Bean(name = "imageUploadExecutor")
+    public ThreadPoolTaskExecutor imageUploadExecutor(
+            ThreadPoolTaskExecutorBuilder builder,
+            @Value("${artemisia.images.upload-workers:2}") int workers,
+            @Value("${artemisia.images.upload-queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = builder
+                .corePoolSize(workers)
+                .maxPoolSize(workers)
+                .queueCapacity(queueCapacity)
+                .threadNamePrefix("image-upload-")
+                .build();
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Generacion de miniaturas y derivados con ImageIO. Es trabajo de CPU y memoria, asi que el pool
+     * queda por debajo de los nucleos disponibles; con la cola llena lo hace el hilo de subida.
+     */
+    @Bean(name = "imageRenditionExecutor")
+    public ThreadPoolTaskExecutor imageRenditionExecutor(
+            ThreadPoolTaskExecutorBuilder builder,
+            @Value("${artemisia.images.renditions.workers:2}") int workers,
+            @Value("${artemisia.images.renditions.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = builder
+                .corePoolSize(workers)
+                .maxPoolSize(workers)
+                .queueCapacity(queueCapacity)
+                .threadNamePrefix("image-rendition-")
+                .build();
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Logs de auditoria (LogsService). Por defecto, con la cola llena escribe el hilo que registra: una
+     * rafaga de logs frena a quien la produce en lugar de perder registros o quitar hilos a otras tareas.
+     */
+    @Bean(name = "auditLogExecutor")
+    public ThreadPoolTaskExecutor auditLogExecutor(
+            ThreadPoolTaskExecutorBuilder builder,
+            @Value("${artemisia.async.audit-log.pool-size:2}") int poolSize,
+            @Value("${artemisia.async.audit-log.queue-capacity:5000}") int queueCapacity,
+            @Value("${artemisia.async.audit-log.rejection-policy:caller-runs}") RejectionPolicy rejectionPolicy,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return workloadExecutor(builder, "audit-log-", poolSize, queueCapacity, rejectionPolicy, virtualThreads);
+    }
+
+    /**
+     * Registro de vistas de productos. Es analitica: con la cola llena la vista se descarta.
+     */
+    @Bean(name = "productViewExecutor")
+    public ThreadPoolTaskExecutor productViewExecutor(
+            ThreadPoolTaskExecutorBuilder builder,
+            @Value("${artemisia.async.product-views.pool-size:2}") int poolSize,
+            @Value("${artemisia.async.product-views.queue-capacity:2000}") int queueCapacity,
+            @Value("${artemisia.async.product-views.rejection-policy:discard}") RejectionPolicy rejectionPolicy,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return workloadExecutor(builder, "product-view-", poolSize, queueCapacity, rejectionPolicy, virtualThreads);
+    }
+
+    /**
+     * Avisos de actualizacion de preferencias al recomendador. Cada aviso pide un reentrenamiento, asi
+     * que con la cola llena se descarta el mas viejo y se conserva el ultimo.
+     */
+    @Bean(name = "recommendationExecutor")
+    public ThreadPoolTaskExecutor recommendationExecutor(
+            ThreadPoolTaskExecutorBuilder builder,
+            @Value("${artemisia.async.recommendations.pool-size:1}") int poolSize,
+            @Value("${artemisia.async.recommendations.queue-capacity:100}") int queueCapacity,
+            @Value("${artemisia.async.recommendations.rejection-policy:discard-oldest}") RejectionPolicy rejectionPolicy,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return workloadExecutor(builder, "recommendation-", poolSize, queueCapacity, rejectionPolicy, virtualThreads);
+    }
+
+    private static ThreadPoolTaskExecutor workloadExecutor(ThreadPoolTaskExecutorBuilder builder, String threadNamePrefix,
+                                                           int poolSize, int queueCapacity,
+                                                           RejectionPolicy rejectionPolicy, boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = builder
+                .corePoolSize(poolSize)
+                .maxPoolSize(poolSize)
+                .queueCapacity(queueCapacity)
+                .threadNamePrefix(threadNamePrefix)
+                .build();
+        executor.setRejectedExecutionHandler(rejectionPolicy.handler());
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name(threadNamePrefix + "vt-", 1).factory());
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,65 @@
+package com.artemisia_corp.artemisia.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Cuenta las tareas rechazadas de cada ThreadPoolTaskExecutor en executor.rejected, con la misma etiqueta
+ * name que usa Spring Boot para executor.active y executor.queued. La politica de rechazo configurada se
+ * sigue aplicando; solo se envuelve.
+ */
+@Component
+public class ExecutorRejectionMetrics implements BeanPostProcessor {
+    private static final String TASK_EXECUTOR_SUFFIX = "taskExecutor";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ExecutorRejectionMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ThreadPoolTaskExecutor executor) {
+            Counter rejected = Counter.builder("executor.rejected")
+                    .description("Tasks rejected because the pool and its queue were full")
+                    .tag("name", executorName(beanName))
+                    .register(meterRegistry.getObject());
+            ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+            pool.setRejectedExecutionHandler(new CountingHandler(pool.getRejectedExecutionHandler(), rejected));
+        }
+        return bean;
+    }
+
+    // Mismo criterio que TaskExecutorMetricsAutoConfiguration: "applicationTaskExecutor" -> "application"
+    static String executorName(String beanName) {
+        if (beanName.length() > TASK_EXECUTOR_SUFFIX.length()
+                && beanName.toLowerCase().endsWith(TASK_EXECUTOR_SUFFIX.toLowerCase())) {
+            return beanName.substring(0, beanName.length() - TASK_EXECUTOR_SUFFIX.length());
+        }
+        return beanName;
+    }
+
+    private static class CountingHandler implements RejectedExecutionHandler {
+        private final RejectedExecutionHandler delegate;
+        private final Counter rejected;
+
+        CountingHandler(RejectedExecutionHandler delegate, Counter rejected) {
+            this.delegate = delegate;
+            this.rejected = rejected;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            rejected.increment();
+            delegate.rejectedExecution(task, executor);
+        }
+    }
+}
@@ -43,6 +43,8 @@ public class WebSecurityConfiguration implements WebMvcConfigurer, Serializable
                                         .requestMatchers(HttpMethod.POST, "/api/users").permitAll()
                                         .requestMatchers(HttpMethod.POST, "/api/addresses").permitAll()
                                         .requestMatchers(HttpMethod.POST, "/api/notas-venta/inbound").permitAll()
+                                        // Los navegadores piden las imagenes con <img>, sin cabecera Authorization
+                                        .requestMatchers(HttpMethod.GET, "/api/images/*/renditions/*").permitAll()
                                         .requestMatchers(
                                                 "/swagger-ui/**",
                                                 "/v3/api-docs/**",
@@ -2,11 +2,13 @@ package com.artemisia_corp.artemisia.controller;
 
 import com.artemisia_corp.artemisia.entity.dto.admin_dashboard.*;
 import com.artemisia_corp.artemisia.entity.dto.nota_venta.NotaVentaResponseDto;
+import com.artemisia_corp.artemisia.entity.enums.SalesBreakdown;
+import com.artemisia_corp.artemisia.entity.enums.TimeBucket;
 import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
-import com.artemisia_corp.artemisia.repository.NotaVentaRepository;
-import com.artemisia_corp.artemisia.repository.ProductRepository;
 import com.artemisia_corp.artemisia.repository.UserRepository;
+import com.artemisia_corp.artemisia.service.DashboardOverviewService;
 import com.artemisia_corp.artemisia.service.NotaVentaService;
+import com.artemisia_corp.artemisia.service.SalesRollupService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
@@ -32,9 +34,16 @@ import java.util.Map;
 @Tag(name = "Admin Dashboard", description = "Endpoints for admin dashboard analytics")
 public class AdminDashboardController {
     private UserRepository userRepository;
-    private NotaVentaRepository notaVentaRepository;
     private NotaVentaService notaVentaService;
-    private ProductRepository productRepository;
+    private SalesRollupService salesRollupService;
+    private DashboardOverviewService dashboardOverviewService;
+
+    @Operation(summary = "Get dashboard overview",
+            description = "Returns every dashboard section in one call; sections are queried concurrently and timed")
+    @GetMapping("/overview")
+    public ResponseEntity<AdminDashboardOverviewDto> getOverview(@RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(dashboardOverviewService.getAdminOverview(limit));
+    }
 
     @Operation(summary = "Get new users report", description = "Returns count of new users in a date range")
     @GetMapping("/new_users")
@@ -69,10 +78,7 @@ public class AdminDashboardController {
     @Operation(summary = "Get sales summary", description = "Returns total sales count and revenue")
     @GetMapping("/sales_summary")
     public ResponseEntity<SalesSummaryDto> getSalesSummary() {
-        Double totalRevenue = notaVentaRepository.sumTotalGlobalByEstadoVenta(VentaEstado.PAYED);
-        Long totalSales = notaVentaRepository.countByEstadoVenta(VentaEstado.PAYED);
-
-        return ResponseEntity.ok(new SalesSummaryDto(totalSales, totalRevenue));
+        return ResponseEntity.ok(salesRollupService.getSalesSummary());
     }
 
     @Operation(summary = "Get top categories", description = "Returns most popular product categories")
@@ -80,7 +86,7 @@ public class AdminDashboardController {
     public ResponseEntity<List<CategorySalesDto>> getTopCategories(
             @RequestParam(defaultValue = "5") int limit) {
 
-        List<CategorySalesDto> topCategories = productRepository.findTopCategoriesBySales(limit);
+        List<CategorySalesDto> topCategories = salesRollupService.getTopCategories(limit);
         return ResponseEntity.ok(topCategories);
     }
 
@@ -89,24 +95,38 @@ public class AdminDashboardController {
     public ResponseEntity<List<TechniqueSalesDto>> getTopTechniques(
             @RequestParam(defaultValue = "5") int limit) {
 
-        List<TechniqueSalesDto> topTechniques = productRepository.findTopTechniquesBySales(limit);
+        List<TechniqueSalesDto> topTechniques = salesRollupService.getTopTechniques(limit);
         return ResponseEntity.ok(topTechniques);
     }
 
     @Operation(summary = "Get seller performance", description = "Returns sales performance by seller")
     @GetMapping("/seller_performance")
     public ResponseEntity<List<SellerPerformanceDto>> getSellerPerformance() {
-        List<SellerPerformanceDto> performance = notaVentaRepository.findSellerPerformance();
+        List<SellerPerformanceDto> performance = salesRollupService.getSellerPerformance();
         return ResponseEntity.ok(performance);
     }
 
     @Operation(summary = "Get order status summary", description = "Returns count of orders by status")
     @GetMapping("/order_status_summary")
     public ResponseEntity<Map<VentaEstado, Long>> getOrderStatusSummary() {
-        Map<VentaEstado, Long> statusCounts = notaVentaRepository.countByEstadoVentaGroupByEstadoVenta();
+        Map<VentaEstado, Long> statusCounts = salesRollupService.getOrderStatusSummary();
         return ResponseEntity.ok(statusCounts);
     }
 
+    @Operation(summary = "Get sales time series",
+            description = "Returns revenue and counts per day, week or month, optionally broken down by category, " +
+                    "technique or seller. Defaults to the last 30 days of paid, shipped and delivered sales")
+    @GetMapping("/sales_timeseries")
+    public ResponseEntity<SalesTimeSeriesDto> getSalesTimeSeries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") TimeBucket granularity,
+            @RequestParam(defaultValue = "NONE") SalesBreakdown breakdown,
+            @RequestParam(required = false) List<VentaEstado> estados) {
+
+        return ResponseEntity.ok(salesRollupService.getSalesTimeSeries(from, to, granularity, breakdown, estados));
+    }
+
     @Operation(summary = "Get pending shipments", description = "Returns orders that need to be shipped")
     @GetMapping("/pending_shipments")
     public ResponseEntity<Page<NotaVentaResponseDto>> getPendingShipments(
@@ -116,4 +136,10 @@ public class AdminDashboardController {
         Pageable pageable = PageRequest.of(page, size);
         return ResponseEntity.ok(notaVentaService.getNotasVentaByEstado(VentaEstado.PAYED, pageable));
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Rebuild sales rollups", description = "Recomputes the daily sales aggregates from the sale notes")
+    @PostMapping("/rollups/backfill")
+    public ResponseEntity<RollupBackfillResultDto> rebuildRollups() {
+        return ResponseEntity.ok(salesRollupService.rebuild());
+    }
+}
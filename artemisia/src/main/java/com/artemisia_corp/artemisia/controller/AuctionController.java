@@ -9,6 +9,8 @@ import com.artemisia_corp.artemisia.entity.dto.auction.AuctionResponseDto;
 import com.artemisia_corp.artemisia.entity.dto.nota_venta.NotaVentaResponseDto;
 import com.artemisia_corp.artemisia.entity.enums.AuctionStatus;
 import com.artemisia_corp.artemisia.service.AuctionService;
+import com.artemisia_corp.artemisia.service.ResourceVersionService;
+import com.artemisia_corp.artemisia.utils.HttpCacheUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -22,8 +24,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Slf4j
 @RestController
@@ -33,6 +38,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuctionController {
     private final AuctionService auctionService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final ResourceVersionService resourceVersionService;
 
     @Operation(summary = "Get all auctions", description = "Returns paginated list of all auctions")
     @ApiResponses(value = {
@@ -80,15 +86,18 @@ public class AuctionController {
         return ResponseEntity.ok(auctionService.getAuctionsByStatus(status, pageable));
     }
 
-    @Operation(summary = "Get auction by ID", description = "Returns a single auction by its ID")
+    @Operation(summary = "Get auction by ID", description = "Returns a single auction by its ID. Supports " +
+            "If-None-Match; the ETag changes with every accepted bid")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Auction found",
                     content = @Content(schema = @Schema(implementation = AuctionResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified", content = @Content),
             @ApiResponse(responseCode = "404", description = "Auction not found", content = @Content)
     })
     @GetMapping("/{id}")
-    public ResponseEntity<AuctionResponseDto> getAuctionById(@PathVariable Long id) {
-        return ResponseEntity.ok(auctionService.getAuctionById(id));
+    public ResponseEntity<AuctionResponseDto> getAuctionById(@PathVariable Long id, WebRequest request) {
+        return HttpCacheUtils.conditionalGet(request, resourceVersionService.getAuctionVersion(id),
+                () -> auctionService.getAuctionById(id));
     }
 
     @Operation(summary = "Get auctions created by a seller", description = "Returns paginated list of auctions created by a given seller")
@@ -184,6 +193,16 @@ public class AuctionController {
         return ResponseEntity.ok(auctionService.placeBid(bidDto));
     }
 
+    @Operation(summary = "Stream auction events", description = "Server-Sent Events stream with the current state, new high bids and the close event of an auction")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "404", description = "Auction not found", content = @Content)
+    })
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAuctionEvents(@PathVariable Long id) {
+        return auctionService.streamAuctionEvents(id);
+    }
+
     @Operation(summary = "Get bids for an auction", description = "Returns paginated list of bids for an auction, ordered from highest to lowest")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Bids retrieved successfully",
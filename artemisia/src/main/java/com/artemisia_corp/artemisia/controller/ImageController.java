@@ -1,16 +1,30 @@
 package com.artemisia_corp.artemisia.controller;
 
+import com.artemisia_corp.artemisia.entity.dto.image.ImageFileDto;
+import com.artemisia_corp.artemisia.entity.dto.image.ImageResponseDto;
 import com.artemisia_corp.artemisia.entity.dto.image.ImageUploadDto;
 import com.artemisia_corp.artemisia.service.ImageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/images")
@@ -20,15 +34,101 @@ import org.springframework.web.bind.annotation.*;
 public class ImageController {
     private final ImageService imageService;
 
-    @Operation(summary = "Upload an image", description = "Uploads a new image")
+    @Operation(summary = "Upload an image", description = "Uploads a new image as multipart/form-data. The image is " +
+            "stored as PENDING and sent to Cloudinary in the background; poll GET /api/images/{id} for its status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Image accepted for upload",
+                    content = @Content(schema = @Schema(implementation = ImageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
+    })
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImageResponseDto> uploadImageFile(@RequestParam Long productId,
+                                                            @RequestPart("file") MultipartFile file) {
+        return ResponseEntity.accepted().body(imageService.uploadImage(productId, file));
+    }
+
+    @Operation(summary = "Upload a Base64 image", description = "Uploads a new image sent as Base64 in a JSON body")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Image accepted for upload",
+                    content = @Content(schema = @Schema(implementation = ImageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
+    })
+    @PostMapping(value = "/upload", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImageResponseDto> uploadImage(@RequestBody ImageUploadDto dto) {
+        return ResponseEntity.accepted().body(imageService.uploadImage(dto));
+    }
+
+    @Operation(summary = "Get an image", description = "Returns an image with its upload status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Image retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = ImageResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Image not found", content = @Content)
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<ImageResponseDto> getImage(@PathVariable Long id) {
+        return ResponseEntity.ok(imageService.getImage(id));
+    }
+
+    @Operation(summary = "Get a product gallery", description = "Returns the uploaded images of a product in gallery order")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Image uploaded successfully", content = @Content),
+            @ApiResponse(responseCode = "200", description = "Gallery retrieved successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
     })
-    @PostMapping("/upload")
-    public ResponseEntity<Void> uploadImage(@RequestBody ImageUploadDto dto) {
-        imageService.uploadImage(dto);
-        return ResponseEntity.ok().build();
+    @GetMapping("/product/{productId}")
+    public ResponseEntity<List<ImageResponseDto>> getProductImages(@PathVariable Long productId) {
+        return ResponseEntity.ok(imageService.getProductImages(productId));
+    }
+
+    @Operation(summary = "Reorder a product gallery", description = "Sets the gallery order of a product. The body " +
+            "must list every image ID of the product exactly once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Gallery reordered successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid image order", content = @Content)
+    })
+    @PutMapping("/product/{productId}/order")
+    public ResponseEntity<List<ImageResponseDto>> reorderImages(@PathVariable Long productId,
+                                                                @RequestBody List<Long> imageIds) {
+        return ResponseEntity.ok(imageService.reorderImages(productId, imageIds));
+    }
+
+    @Operation(summary = "Set the primary image", description = "Makes an uploaded image the primary image of its " +
+            "product; listings show the primary image")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Primary image updated",
+                    content = @Content(schema = @Schema(implementation = ImageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Image is not uploaded yet", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Image not found", content = @Content)
+    })
+    @PutMapping("/{id}/primary")
+    public ResponseEntity<ImageResponseDto> setPrimaryImage(@PathVariable Long id) {
+        return ResponseEntity.ok(imageService.setPrimaryImage(id));
+    }
+
+    @Operation(summary = "Get an image file", description = "Serves the thumbnail, medium or original file of an image " +
+            "from local disk with ETag validation, or redirects to Cloudinary when the file is not stored locally")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Image file", content = @Content),
+            @ApiResponse(responseCode = "302", description = "Redirect to the Cloudinary URL", content = @Content),
+            @ApiResponse(responseCode = "304", description = "Not modified", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Image not found", content = @Content)
+    })
+    @GetMapping("/{id}/renditions/{rendition}")
+    public ResponseEntity<Resource> getImageFile(@PathVariable Long id, @PathVariable String rendition, WebRequest request) {
+        ImageFileDto file = imageService.getImageFile(id, rendition);
+        if (file.getRedirectUrl() != null) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(file.getRedirectUrl())).build();
+        }
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofDays(1)).cachePublic();
+        if (request.checkNotModified(file.getEtag(), file.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(file.getEtag()).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(file.getContentType()))
+                .contentLength(file.getLength())
+                .eTag(file.getEtag())
+                .lastModified(file.getLastModified())
+                .cacheControl(cacheControl)
+                .body(new FileSystemResource(file.getPath()));
     }
 
     @Operation(summary = "Delete an image", description = "Deletes an image by ID (Admin only)")
@@ -1,5 +1,6 @@
 package com.artemisia_corp.artemisia.controller;
 
+import com.artemisia_corp.artemisia.entity.dto.logs.LogsPageDto;
 import com.artemisia_corp.artemisia.entity.dto.logs.LogsResponseDto;
 import com.artemisia_corp.artemisia.service.LogsService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,21 +10,32 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Date;
 import java.util.List;
 
 @Controller
-@AllArgsConstructor
 @RequestMapping("/api/logs")
 @Tag(name = "Logs", description = "Endpoints for logs")
 public class LogsController {
-    private LogsService logsService;
+    private final LogsService logsService;
+    private final int compatLimit;
 
-    @Operation(summary = "Get all logs", description = "Get all system logs")
+    public LogsController(LogsService logsService,
+                          @Value("${artemisia.logs.compat-limit:1000}") int compatLimit) {
+        this.logsService = logsService;
+        this.compatLimit = compatLimit;
+    }
+
+    @Operation(summary = "Get recent logs", description = "Get the most recent system logs, newest first. Limited to a fixed maximum; use /page or /stream to read further back")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Logs retrieved successfully",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = LogsResponseDto.class)))),
@@ -31,6 +43,35 @@ public class LogsController {
     })
     @GetMapping
     public ResponseEntity<List<LogsResponseDto>> getAllLogs() {
-        return ResponseEntity.ok(logsService.getAllLogs());
+        return ResponseEntity.ok(logsService.getRecentLogs(compatLimit));
+    }
+
+    @Operation(summary = "Get a page of logs", description = "Keyset-paginated logs filtered by level and date range, newest first. Pass the returned nextCursor to get the following page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Logs retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = LogsPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content)
+    })
+    @GetMapping("/page")
+    public ResponseEntity<LogsPageDto> getLogsPage(
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(logsService.getLogs(level, from, to, cursor, size));
+    }
+
+    @Operation(summary = "Stream logs", description = "Streams every log matching the filters as NDJSON, newest first")
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamLogs(
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to) {
+        StreamingResponseBody body = out -> logsService.streamLogs(level, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"logs.ndjson\"")
+                .body(body);
     }
 }
@@ -7,6 +7,9 @@ import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
 import com.artemisia_corp.artemisia.exception.OperationException;
 import com.artemisia_corp.artemisia.integracion.impl.dtos.StereumPagaResponseDto;
 import com.artemisia_corp.artemisia.service.NotaVentaService;
+import com.artemisia_corp.artemisia.service.PaymentReconciliationService;
+import com.artemisia_corp.artemisia.service.PaymentWebhookService;
+import com.artemisia_corp.artemisia.service.SalesExportService;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,13 +27,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 
 import static org.springframework.http.ResponseEntity.ok;
 
@@ -41,6 +48,9 @@ import static org.springframework.http.ResponseEntity.ok;
 @Tag(name = "Sales Note Management", description = "Endpoints for managing sales notes")
 public class NotaVentaController {
     private final NotaVentaService notaVentaService;
+    private final PaymentWebhookService paymentWebhookService;
+    private final PaymentReconciliationService paymentReconciliationService;
+    private final SalesExportService salesExportService;
     private final JwtTokenProvider jwtTokenProvider;
     @Value("${stereum-pay.api-key}")
     private String apiKey;
@@ -277,6 +287,50 @@ public class NotaVentaController {
         return ResponseEntity.ok(nv);
     }
 
+    @Operation(summary = "Export sales notes",
+            description = "Streams sales notes with their details as CSV (one line per detail) or NDJSON (one sale per line)")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportNotasVenta(
+            @RequestParam(defaultValue = SalesExportService.CSV) String format,
+            @RequestParam(required = false) VentaEstado estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        boolean ndjson = SalesExportService.NDJSON.equalsIgnoreCase(format);
+        if (!ndjson && !SalesExportService.CSV.equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        String extension = ndjson ? SalesExportService.NDJSON : SalesExportService.CSV;
+        MediaType mediaType = ndjson ? MediaType.parseMediaType("application/x-ndjson")
+                : new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+        StreamingResponseBody body = out -> salesExportService.export(extension, estado, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notas-venta." + extension + "\"")
+                .body(body);
+    }
+
+    @Operation(summary = "Get payment reconciliation stats", description = "Returns throughput and lag metrics of the payment reconciliation job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stats retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = ReconciliationStatsDto.class)))
+    })
+    @GetMapping("/reconciliation/stats")
+    public ResponseEntity<ReconciliationStatsDto> getReconciliationStats() {
+        return ResponseEntity.ok(paymentReconciliationService.getStats());
+    }
+
+    @Operation(summary = "Run payment reconciliation", description = "Runs the payment reconciliation job immediately")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reconciliation executed",
+                    content = @Content(schema = @Schema(implementation = ReconciliationStatsDto.class)))
+    })
+    @PostMapping("/reconciliation/run")
+    public ResponseEntity<ReconciliationStatsDto> runReconciliation() {
+        paymentReconciliationService.reconcilePendingTransactions();
+        return ResponseEntity.ok(paymentReconciliationService.getStats());
+    }
+
     @PostMapping(value = "/inbound", produces = MediaType.APPLICATION_JSON_VALUE, consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_JSON_UTF8_VALUE})
     public ResponseEntity<String> outbound(
             @RequestHeader("x-signature") String signature,
@@ -326,24 +380,15 @@ public class NotaVentaController {
             throw new OperationException("No corresponde a este método la notificación");
         }
 
-        try {
-            if (transaction.getId() == null) {
-                log.error("Transaction ID is null in the received notification");
-                return ResponseEntity.badRequest().body("No se encontró el id de la transacción");
-            }
-
-            log.info("Processing transaction notification for ID: {}", transaction.getId());
-            notaVentaService.obtenerRespuestaTransaccion(transaction);
-
-            return ok().build();
-        } catch (OperationException e) {
-            log.error("OperationException while processing Circle notification for transaction {}. Cause: {}",
-                    transaction != null ? transaction.getId() : "null", e.getMessage(), e);
-            throw new OperationException("Se generó un error al recibir notificación de circle");
-        } catch (Exception e) {
-            log.error("Unexpected error while processing Circle confirmation for transaction {}",
-                    transaction != null ? transaction.getId() : "null", e);
-            throw new OperationException("Se generó un error al recibir la confirmación de circle");
+        if (transaction.getTransaction() == null || transaction.getTransaction().getId() == null) {
+            log.error("Transaction ID is null in the received notification");
+            return ResponseEntity.badRequest().body("No se encontró el id de la transacción");
         }
+
+        // Se persiste en la bandeja de entrada y se responde de inmediato; el procesamiento es asincrono
+        log.info("Queueing transaction notification {} for transaction ID: {}",
+                transaction.getId(), transaction.getTransaction().getId());
+        paymentWebhookService.receive(transaction, body);
+        return ok().build();
     }
 }
@@ -9,7 +9,9 @@ import com.artemisia_corp.artemisia.exception.OperationException;
 import com.artemisia_corp.artemisia.service.ProductService;
 import com.artemisia_corp.artemisia.service.ProductViewService;
 import com.artemisia_corp.artemisia.service.RecommendationService;
+import com.artemisia_corp.artemisia.service.ResourceVersionService;
 import com.artemisia_corp.artemisia.utils.DateUtils;
+import com.artemisia_corp.artemisia.utils.HttpCacheUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -28,6 +30,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Date;
@@ -43,11 +46,14 @@ public class ProductController {
     private final ProductViewService productViewService;
     private final JwtTokenProvider jwtTokenProvider;
     private final RecommendationService recommendationService;
+    private final ResourceVersionService resourceVersionService;
 
-    @Operation(summary = "Get all products", description = "Returns paginated list of all products")
+    @Operation(summary = "Get all products", description = "Returns paginated list of all products. Supports " +
+            "If-None-Match/If-Modified-Since")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Products retrieved successfully",
-                    content = @Content(schema = @Schema(implementation = Page.class)))
+                    content = @Content(schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified", content = @Content)
     })
     @GetMapping
     public ResponseEntity<Page<ProductResponseDto>> getAllProducts(
@@ -55,22 +61,29 @@ public class ProductController {
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "10") Integer size,
             @RequestParam(value = "sortBy", defaultValue = "id") String sortBy,
-            @RequestParam(value = "sortDir", defaultValue = "ASC") Sort.Direction sortDir) {
+            @RequestParam(value = "sortDir", defaultValue = "ASC") Sort.Direction sortDir,
+            WebRequest request) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDir, sortBy));
-        return ResponseEntity.ok(productService.getAllProducts(pageable, jwtTokenProvider.getUserIdFromToken(token)));
+        Long userId = jwtTokenProvider.getUserIdFromToken(token);
+        return HttpCacheUtils.conditionalGet(request, resourceVersionService.getAllProductsVersion(pageable, userId),
+                () -> productService.getAllProducts(pageable, userId));
     }
 
-    @Operation(summary = "Get product by ID", description = "Returns a single product by its ID")
+    @Operation(summary = "Get product by ID", description = "Returns a single product by its ID. Supports " +
+            "If-None-Match/If-Modified-Since")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Product found",
                     content = @Content(schema = @Schema(implementation = ProductResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified", content = @Content),
             @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)
     })
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponseDto> getProductById(
             @PathVariable Long id,
-            @RequestHeader(value = "Authorization", required = false) String token) {
-        return ResponseEntity.ok(productService.getProductById(id));
+            @RequestHeader(value = "Authorization", required = false) String token,
+            WebRequest request) {
+        return HttpCacheUtils.conditionalGet(request, resourceVersionService.getProductVersion(id),
+                () -> productService.getProductById(id));
     }
 
     @Operation(summary = "Manually track product view", description = "Explicitly track a product view (useful for frontend tracking)")
@@ -137,7 +150,8 @@ public class ProductController {
     @Operation(summary = "Get available products", description = "Returns paginated list of available products (in stock)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Products retrieved successfully",
-                    content = @Content(schema = @Schema(implementation = Page.class)))
+                    content = @Content(schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified", content = @Content)
     })
     @GetMapping("/available")
     public ResponseEntity<Page<ProductResponseDto>> getAvailableProducts(
@@ -145,9 +159,12 @@ public class ProductController {
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "10") Integer size,
             @RequestParam(value = "sortBy", defaultValue = "id") String sortBy,
-            @RequestParam(value = "sortDir", defaultValue = "ASC") Sort.Direction sortDir) {
+            @RequestParam(value = "sortDir", defaultValue = "ASC") Sort.Direction sortDir,
+            WebRequest request) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDir, sortBy));
-        return ResponseEntity.ok(productService.getAvailableProducts(pageable, jwtTokenProvider.getUserIdFromToken(token)));
+        Long userId = jwtTokenProvider.getUserIdFromToken(token);
+        return HttpCacheUtils.conditionalGet(request, resourceVersionService.getAvailableProductsVersion(pageable, userId),
+                () -> productService.getAvailableProducts(pageable, userId));
     }
 
     @Operation(summary = "Get products by seller", description = "Returns paginated list of products for a specific seller")
@@ -218,9 +235,11 @@ public class ProductController {
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "10") Integer size,
             @RequestParam(value = "sortBy", defaultValue = "id") String sortBy,
-            @RequestParam(value = "sortDir", defaultValue = "ASC") Sort.Direction sortDir) {
+            @RequestParam(value = "sortDir", defaultValue = "ASC") Sort.Direction sortDir,
+            WebRequest request) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDir, sortBy));
-        return ResponseEntity.ok(productService.getByCategory(categoryId, pageable));
+        return HttpCacheUtils.conditionalGet(request, resourceVersionService.getCategoryVersion(categoryId, pageable),
+                () -> productService.getByCategory(categoryId, pageable));
     }
 
     @Operation(summary = "Get products by technique", description = "Returns paginated list of products filtered by technique ID")
@@ -230,9 +249,11 @@ public class ProductController {
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "10") Integer size,
             @RequestParam(value = "sortBy", defaultValue = "id") String sortBy,
-            @RequestParam(value = "sortDir", defaultValue = "ASC") Sort.Direction sortDir) {
+            @RequestParam(value = "sortDir", defaultValue = "ASC") Sort.Direction sortDir,
+            WebRequest request) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDir, sortBy));
-        return ResponseEntity.ok(productService.getByTechnique(techniqueId, pageable));
+        return HttpCacheUtils.conditionalGet(request, resourceVersionService.getTechniqueVersion(techniqueId, pageable),
+                () -> productService.getByTechnique(techniqueId, pageable));
     }
 
     @GetMapping("/seller/{sellerId}/without-deleted")
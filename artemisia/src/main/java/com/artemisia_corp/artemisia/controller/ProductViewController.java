@@ -2,6 +2,8 @@ package com.artemisia_corp.artemisia.controller;
 
 import com.artemisia_corp.artemisia.config.JwtTokenProvider;
 import com.artemisia_corp.artemisia.entity.dto.product.ProductResponseDto;
+import com.artemisia_corp.artemisia.entity.dto.product.ProductViewCleanupStatusDto;
+import com.artemisia_corp.artemisia.service.ProductViewCleanupService;
 import com.artemisia_corp.artemisia.service.ProductViewService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -21,6 +23,7 @@ import java.util.Map;
 public class ProductViewController {
 
     private final ProductViewService productViewService;
+    private final ProductViewCleanupService productViewCleanupService;
     private JwtTokenProvider jwtTokenProvider;
 
     @Operation(summary = "Track a product view")
@@ -105,10 +108,25 @@ public class ProductViewController {
         return ResponseEntity.ok(hasViewed);
     }
 
-    @Operation(summary = "Clean up old views (Admin only)")
+    @Operation(summary = "Clean up old views (Admin only)",
+            description = "Starts a background job that deletes views older than daysToKeep in small chunks. " +
+                    "With resume=true a cancelled or failed job continues from its last processed id")
     @DeleteMapping("/cleanup")
-    public ResponseEntity<Void> cleanupOldViews(@RequestParam(defaultValue = "90") int daysToKeep) {
-        productViewService.cleanupOldViews(daysToKeep);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<ProductViewCleanupStatusDto> cleanupOldViews(
+            @RequestParam(defaultValue = "90") int daysToKeep,
+            @RequestParam(defaultValue = "true") boolean resume) {
+        return ResponseEntity.accepted().body(productViewCleanupService.start(daysToKeep, resume));
+    }
+
+    @Operation(summary = "Get cleanup job progress (Admin only)")
+    @GetMapping("/cleanup/status")
+    public ResponseEntity<ProductViewCleanupStatusDto> getCleanupStatus() {
+        return ResponseEntity.ok(productViewCleanupService.getStatus());
+    }
+
+    @Operation(summary = "Cancel the running cleanup job (Admin only)")
+    @PostMapping("/cleanup/cancel")
+    public ResponseEntity<ProductViewCleanupStatusDto> cancelCleanup() {
+        return ResponseEntity.ok(productViewCleanupService.cancel());
     }
 }
@@ -6,10 +6,10 @@ import com.artemisia_corp.artemisia.entity.dto.nota_venta.NotaVentaResponseDto;
 import com.artemisia_corp.artemisia.entity.dto.order_detail.OrderDetailResponseDto;
 import com.artemisia_corp.artemisia.entity.dto.seller_dashboard.*;
 import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
-import com.artemisia_corp.artemisia.repository.NotaVentaRepository;
-import com.artemisia_corp.artemisia.repository.OrderDetailRepository;
+import com.artemisia_corp.artemisia.service.DashboardOverviewService;
 import com.artemisia_corp.artemisia.service.NotaVentaService;
 import com.artemisia_corp.artemisia.service.OrderDetailService;
+import com.artemisia_corp.artemisia.service.SellerDashboardService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,10 +29,10 @@ import java.util.Map;
 public class SellerDashboardController {
 
     @Autowired
-    private NotaVentaRepository notaVentaRepository;
+    private SellerDashboardService sellerDashboardService;
 
     @Autowired
-    private OrderDetailRepository orderDetailRepository;
+    private DashboardOverviewService dashboardOverviewService;
 
     @Autowired
     private OrderDetailService orderDetailService;
@@ -40,20 +40,32 @@ public class SellerDashboardController {
     @Autowired
     private NotaVentaService notaVentaService;
 
+    @Operation(summary = "Get seller dashboard",
+            description = "Returns every dashboard section for the seller in one call, with the snapshot refresh time")
+    @GetMapping
+    public ResponseEntity<SellerDashboardDto> getSellerDashboard(
+            @RequestParam(required = false) Long sellerId,
+            @RequestParam(defaultValue = "5") int limit) {
+
+        return ResponseEntity.ok(sellerDashboardService.getDashboard(sellerId, limit));
+    }
+
+    @Operation(summary = "Get seller dashboard overview",
+            description = "Returns the dashboard, pending shipments and recent orders in one call, queried concurrently")
+    @GetMapping("/overview")
+    public ResponseEntity<SellerDashboardOverviewDto> getSellerOverview(
+            @RequestParam(required = false) Long sellerId,
+            @RequestParam(defaultValue = "5") int limit) {
+
+        return ResponseEntity.ok(dashboardOverviewService.getSellerOverview(sellerId, limit));
+    }
+
     @Operation(summary = "Get seller sales summary", description = "Returns sales summary for the authenticated seller")
     @GetMapping("/sales_summary")
     public ResponseEntity<SellerSalesSummaryDto> getSellerSalesSummary(
             @RequestParam(required = false) Long sellerId) {
 
-        Double totalRevenue = orderDetailRepository.sumTotalBySeller(sellerId);
-        Long totalSales = orderDetailRepository.countBySeller(sellerId);
-
-        // Contar órdenes pagadas que contienen productos del vendedor
-        Long pendingShipments = notaVentaRepository.countBySellerAndEstado(
-                sellerId,
-                VentaEstado.PAYED);
-
-        return ResponseEntity.ok(new SellerSalesSummaryDto(totalSales, totalRevenue, pendingShipments));
+        return ResponseEntity.ok(sellerDashboardService.getDashboard(sellerId).getSalesSummary());
     }
 
     @Operation(summary = "Get seller's order status summary",
@@ -62,8 +74,7 @@ public class SellerDashboardController {
     public ResponseEntity<Map<VentaEstado, Long>> getSellerOrderStatusSummary(
             @RequestParam(required = false) Long sellerId) {
 
-        Map<VentaEstado, Long> statusCounts = notaVentaRepository.countOrdersBySellerAndStatus(sellerId);
-        return ResponseEntity.ok(statusCounts);
+        return ResponseEntity.ok(sellerDashboardService.getDashboard(sellerId).getOrderStatusSummary());
     }
 
     @Operation(summary = "Get seller's top products", description = "Returns best selling products for the seller")
@@ -72,8 +83,7 @@ public class SellerDashboardController {
             @RequestParam(required = false) Long sellerId,
             @RequestParam(defaultValue = "5") int limit) {
 
-        List<ProductSalesDto> topProducts = orderDetailRepository.findTopProductsBySeller(sellerId, limit);
-        return ResponseEntity.ok(topProducts);
+        return ResponseEntity.ok(sellerDashboardService.getDashboard(sellerId, limit).getTopProducts());
     }
 
     @Operation(summary = "Get seller's categories performance", description = "Returns sales by category for the seller")
@@ -81,8 +91,7 @@ public class SellerDashboardController {
     public ResponseEntity<List<CategorySalesDto>> getSellerCategoriesPerformance(
             @RequestParam(required = false) Long sellerId) {
 
-        List<CategorySalesDto> categories = orderDetailRepository.findSalesByCategoryForSeller(sellerId);
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok(sellerDashboardService.getDashboard(sellerId).getCategoriesPerformance());
     }
 
     @Operation(summary = "Get seller's techniques performance", description = "Returns sales by technique for the seller")
@@ -90,8 +99,7 @@ public class SellerDashboardController {
     public ResponseEntity<List<TechniqueSalesDto>> getSellerTechniquesPerformance(
             @RequestParam(required = false) Long sellerId) {
 
-        List<TechniqueSalesDto> techniques = orderDetailRepository.findSalesByTechniqueForSeller(sellerId);
-        return ResponseEntity.ok(techniques);
+        return ResponseEntity.ok(sellerDashboardService.getDashboard(sellerId).getTechniquesPerformance());
     }
 
     @Operation(summary = "Get seller's pending shipments",
@@ -129,4 +137,4 @@ public class SellerDashboardController {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdDate"));
         return ResponseEntity.ok(orderDetailService.getOrderDetailsBySeller(sellerId, pageable));
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
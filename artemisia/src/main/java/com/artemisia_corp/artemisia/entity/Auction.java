@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Entity
-@Table(name = "auction")
+@Table(name = "auction",
+        indexes = {
+                @Index(name = "idx_auction_status_end_date", columnList = "status, end_date")
+        })
 public class Auction extends AuditableEntity {
 
     @Comment("Identificador de la subasta")
@@ -37,6 +40,11 @@ public class Auction extends AuditableEntity {
     @JoinColumn(name = "winner_id", nullable = true)
     private User winner;
 
+    @Comment("Participante con la puja más alta mientras la subasta está activa")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "highest_bidder_id", nullable = true)
+    private User highestBidder;
+
     @Comment("Nota de venta generada al finalizar la subasta con ganador")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "nota_venta_id", nullable = true)
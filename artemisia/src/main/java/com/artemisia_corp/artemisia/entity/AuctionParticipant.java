@@ -15,7 +15,10 @@ import java.time.LocalDateTime;
 @Setter
 @Entity
 @Table(name = "auction_participant",
-        uniqueConstraints = @UniqueConstraint(name = "uk_auction_participant", columnNames = {"auction_id", "participant_id"}))
+        uniqueConstraints = @UniqueConstraint(name = "uk_auction_participant", columnNames = {"auction_id", "participant_id"}),
+        indexes = {
+                @Index(name = "idx_auction_participant_auction_bid", columnList = "auction_id, bid_amount")
+        })
 public class AuctionParticipant extends AuditableEntity {
 
     @Comment("Identificador de la participación en la subasta")
@@ -39,6 +42,10 @@ public class AuctionParticipant extends AuditableEntity {
     @Column(name = "bid_amount", nullable = false)
     private Double bidAmount;
 
+    @Comment("Monto máximo hasta el que el sistema puja automáticamente por el participante")
+    @Column(name = "max_bid")
+    private Double maxBid;
+
     @Comment("Fecha y hora de la última puja realizada")
     @Column(name = "bid_date", nullable = false)
     private LocalDateTime bidDate;
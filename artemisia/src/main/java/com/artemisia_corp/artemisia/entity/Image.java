@@ -1,8 +1,10 @@
 
 package com.artemisia_corp.artemisia.entity;
 
+import com.artemisia_corp.artemisia.entity.enums.ImageStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.Comment;
 
 @AllArgsConstructor
@@ -11,7 +13,9 @@ import org.hibernate.annotations.Comment;
 @Getter
 @Setter
 @Entity
-@Table(name = "images")
+@Table(name = "images", indexes = {
+        @Index(name = "idx_images_product_position", columnList = "product, position, id")
+})
 public class Image {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,6 +25,7 @@ public class Image {
     @Column(nullable = false)
     private String fileName;
 
+    // Mientras la subida esta pendiente la URL y el public ID quedan vacios
     @Comment("URL segura de Cloudinary")
     @Column(nullable = false, length = 500)
     private String cloudinaryUrl;
@@ -33,4 +38,33 @@ public class Image {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product", nullable = false)
     private Product product;
-}
\ No newline at end of file
+
+    @Comment("Estado de la subida a Cloudinary")
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'UPLOADED'")
+    @Column(name = "status", nullable = false, length = 20)
+    private ImageStatus status;
+
+    @Comment("URL del derivado miniatura")
+    @Column(name = "thumbnail_url", length = 500)
+    private String thumbnailUrl;
+
+    @Comment("URL del derivado mediano")
+    @Column(name = "medium_url", length = 500)
+    private String mediumUrl;
+
+    @Comment("Error de la ultima subida fallida")
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Comment("Orden de la imagen en la galeria del producto")
+    @ColumnDefault("0")
+    @Column(name = "position", nullable = false)
+    private Integer position;
+
+    // Sus URLs se copian a product.image_url/thumbnail_url/medium_url para que los listados no consulten images
+    @Comment("Imagen principal del producto")
+    @ColumnDefault("false")
+    @Column(name = "is_primary", nullable = false)
+    private Boolean primaryImage;
+}
\ No newline at end of file
@@ -12,7 +12,11 @@ import java.util.Date;
 @Getter
 @Setter
 @Entity
-@Table(name = "log")
+@Table(name = "log",
+        indexes = {
+                @Index(name = "idx_log_date_level", columnList = "date, level, id"),
+                @Index(name = "idx_log_level_date", columnList = "level, date, id")
+        })
 public class Logs {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "LOG_ID_GENERATOR")
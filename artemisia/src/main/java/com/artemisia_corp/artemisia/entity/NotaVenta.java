@@ -13,7 +13,12 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Entity
-@Table(name = "nota_venta")
+@Table(name = "nota_venta",
+        indexes = {
+                @Index(name = "idx_nota_venta_id_transaccion", columnList = "id_transaccion"),
+                @Index(name = "idx_nota_venta_estado_venta", columnList = "estado_venta, id"),
+                @Index(name = "idx_nota_venta_modified_date", columnList = "modified_date")
+        })
 public class NotaVenta extends AuditableEntity {
     @Comment("Identificador de la nota de venta")
     @Id
@@ -12,7 +12,13 @@ import org.hibernate.annotations.OnDeleteAction;
 @Getter
 @Setter
 @Entity
-@Table(name = "detail")
+@Table(name = "detail",
+        indexes = {
+                @Index(name = "idx_detail_group_id", columnList = "group_id, id"),
+                @Index(name = "idx_detail_product_id", columnList = "product_id"),
+                @Index(name = "idx_detail_seller_id", columnList = "seller_id"),
+                @Index(name = "idx_detail_modified_date", columnList = "modified_date")
+        })
 public class OrderDetail extends AuditableEntity {
     @Comment("Identificador del detalle")
     @Id
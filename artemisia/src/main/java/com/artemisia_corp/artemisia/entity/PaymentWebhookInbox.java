@@ -0,0 +1,63 @@
+package com.artemisia_corp.artemisia.entity;
+
+import com.artemisia_corp.artemisia.entity.enums.WebhookInboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@Entity
+@Table(name = "payment_webhook_inbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_payment_webhook_inbox_transaction", columnNames = {"transaction_id"}),
+        indexes = @Index(name = "idx_payment_webhook_inbox_status", columnList = "status, last_attempt_at"))
+public class PaymentWebhookInbox extends AuditableEntity {
+
+    @Comment("Identificador del registro de la bandeja de entrada")
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PAYMENT_WEBHOOK_INBOX_ID_GENERATOR")
+    @SequenceGenerator(name = "PAYMENT_WEBHOOK_INBOX_ID_GENERATOR", sequenceName = "seq_payment_webhook_inbox_id", allocationSize = 1)
+    private Long id;
+
+    @Comment("Identificador de la transaccion de stereum notificada")
+    @Column(name = "transaction_id", nullable = false, length = 250)
+    private String transactionId;
+
+    @Comment("Identificador de la ultima notificacion recibida")
+    @Column(name = "notification_id", length = 250)
+    private String notificationId;
+
+    @Comment("Cuerpo de la ultima notificacion recibida")
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Comment("Estado del procesamiento de la notificacion")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 30)
+    private WebhookInboxStatus status;
+
+    @Comment("Cantidad de intentos de procesamiento")
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Comment("Ultimo error obtenido al procesar la notificacion")
+    @Column(name = "last_error", length = 2000)
+    private String lastError;
+
+    @Comment("Fecha en la que se recibio la notificacion por primera vez")
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Comment("Fecha del ultimo intento de procesamiento")
+    @Column(name = "last_attempt_at")
+    private LocalDateTime lastAttemptAt;
+
+    @Comment("Fecha en la que la transaccion quedo en un estado final")
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
@@ -58,6 +58,14 @@ public class Product extends AuditableEntity {
     @Comment("Dirección de la imagen")
     private String imageUrl;
 
+    @Column(name = "thumbnail_url", length = 500)
+    @Comment("Miniatura de la imagen principal")
+    private String thumbnailUrl;
+
+    @Column(name = "medium_url", length = 500)
+    @Comment("Derivado mediano de la imagen principal")
+    private String mediumUrl;
+
     @ElementCollection
     @CollectionTable(name = "product_techniques", joinColumns = @JoinColumn(name = "product_id"))
     @Enumerated(EnumType.STRING)
@@ -71,4 +79,4 @@ public class Product extends AuditableEntity {
     @Column(name = "category")
     @Comment("Categorías del producto")
     private Set<PaintingCategory> categories;
-}
\ No newline at end of file
+}
\ No newline at end of file
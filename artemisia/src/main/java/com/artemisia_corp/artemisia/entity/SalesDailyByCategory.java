@@ -0,0 +1,49 @@
+package com.artemisia_corp.artemisia.entity;
+
+import com.artemisia_corp.artemisia.entity.enums.PaintingCategory;
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDate;
+
+/**
+ * Ventas diarias por categoría de obra y estado de la nota de venta.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@Entity
+@Table(name = "sales_daily_by_category",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sales_daily_by_category", columnNames = {"day", "category", "estado_venta"}))
+public class SalesDailyByCategory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SALES_DAILY_BY_CATEGORY_ID_GENERATOR")
+    @SequenceGenerator(name = "SALES_DAILY_BY_CATEGORY_ID_GENERATOR", sequenceName = "seq_sales_daily_by_category_id", allocationSize = 1)
+    private Long id;
+
+    @Comment("Día de la venta (fecha de la nota de venta)")
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Comment("Categoría de la obra vendida")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", nullable = false, length = 50)
+    private PaintingCategory category;
+
+    @Comment("Estado de las notas de venta acumuladas en la fila")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado_venta", nullable = false, length = 30)
+    private VentaEstado estadoVenta;
+
+    @Comment("Cantidad de líneas de detalle vendidas")
+    @Column(name = "sales_count", nullable = false)
+    private Long salesCount;
+
+    @Comment("Total vendido en las líneas de detalle")
+    @Column(name = "revenue", nullable = false)
+    private Double revenue;
+}
@@ -0,0 +1,47 @@
+package com.artemisia_corp.artemisia.entity;
+
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDate;
+
+/**
+ * Ventas diarias por vendedor y estado de la nota de venta.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@Entity
+@Table(name = "sales_daily_by_seller",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sales_daily_by_seller", columnNames = {"day", "seller_id", "estado_venta"}))
+public class SalesDailyBySeller {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SALES_DAILY_BY_SELLER_ID_GENERATOR")
+    @SequenceGenerator(name = "SALES_DAILY_BY_SELLER_ID_GENERATOR", sequenceName = "seq_sales_daily_by_seller_id", allocationSize = 1)
+    private Long id;
+
+    @Comment("Día de la venta (fecha de la nota de venta)")
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Comment("Vendedor de las líneas de detalle")
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Comment("Estado de las notas de venta acumuladas en la fila")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado_venta", nullable = false, length = 30)
+    private VentaEstado estadoVenta;
+
+    @Comment("Cantidad de líneas de detalle vendidas")
+    @Column(name = "sales_count", nullable = false)
+    private Long salesCount;
+
+    @Comment("Total vendido en las líneas de detalle")
+    @Column(name = "revenue", nullable = false)
+    private Double revenue;
+}
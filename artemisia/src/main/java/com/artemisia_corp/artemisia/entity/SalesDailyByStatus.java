@@ -0,0 +1,44 @@
+package com.artemisia_corp.artemisia.entity;
+
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDate;
+
+/**
+ * Notas de venta por día y estado. Los carritos activos (ON_CART) no se acumulan porque
+ * su contenido todavía cambia.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@Entity
+@Table(name = "sales_daily_by_status",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sales_daily_by_status", columnNames = {"day", "estado_venta"}))
+public class SalesDailyByStatus {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SALES_DAILY_BY_STATUS_ID_GENERATOR")
+    @SequenceGenerator(name = "SALES_DAILY_BY_STATUS_ID_GENERATOR", sequenceName = "seq_sales_daily_by_status_id", allocationSize = 1)
+    private Long id;
+
+    @Comment("Día de la venta (fecha de la nota de venta)")
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Comment("Estado de las notas de venta acumuladas en la fila")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado_venta", nullable = false, length = 30)
+    private VentaEstado estadoVenta;
+
+    @Comment("Cantidad de notas de venta")
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Comment("Suma del total global de las notas de venta")
+    @Column(name = "revenue", nullable = false)
+    private Double revenue;
+}
@@ -0,0 +1,25 @@
+package com.artemisia_corp.artemisia.entity.dto.admin_dashboard;
+
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+public class AdminDashboardOverviewDto {
+    private SalesSummaryDto salesSummary;
+    private NewUsersReportDto newUsers;
+    private List<CategorySalesDto> topCategories;
+    private List<TechniqueSalesDto> topTechniques;
+    private List<SellerPerformanceDto> sellerPerformance;
+    private Map<VentaEstado, Long> orderStatusSummary;
+    private Map<String, Long> sectionTimingsMs;
+    private List<String> failedSections;
+    private long totalMs;
+}
@@ -0,0 +1,17 @@
+package com.artemisia_corp.artemisia.entity.dto.admin_dashboard;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+public class RollupBackfillResultDto {
+    private int statusRows;
+    private int categoryRows;
+    private int techniqueRows;
+    private int sellerRows;
+    private long durationMs;
+}
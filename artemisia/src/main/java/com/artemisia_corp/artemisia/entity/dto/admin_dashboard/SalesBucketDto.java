@@ -0,0 +1,19 @@
+package com.artemisia_corp.artemisia.entity.dto.admin_dashboard;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+public class SalesBucketDto {
+    private LocalDate bucketStart;
+    private String key;
+    private String label;
+    private long count;
+    private double revenue;
+}
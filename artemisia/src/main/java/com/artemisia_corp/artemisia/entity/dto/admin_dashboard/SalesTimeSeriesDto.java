@@ -0,0 +1,24 @@
+package com.artemisia_corp.artemisia.entity.dto.admin_dashboard;
+
+import com.artemisia_corp.artemisia.entity.enums.SalesBreakdown;
+import com.artemisia_corp.artemisia.entity.enums.TimeBucket;
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+public class SalesTimeSeriesDto {
+    private LocalDate from;
+    private LocalDate to;
+    private TimeBucket granularity;
+    private SalesBreakdown breakdown;
+    private List<VentaEstado> estados;
+    private List<SalesBucketDto> buckets;
+}
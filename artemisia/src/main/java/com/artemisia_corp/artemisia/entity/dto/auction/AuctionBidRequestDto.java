@@ -11,4 +11,6 @@ public class AuctionBidRequestDto {
     private Long auctionId;
     private Long participantId;
     private Double bidAmount;
+    // Opcional: maximo hasta el que se puja automaticamente
+    private Double maxAmount;
 }
@@ -0,0 +1,17 @@
+package com.artemisia_corp.artemisia.entity.dto.auction;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class AuctionDeadlineDto {
+    private Long auctionId;
+    private LocalDateTime endDate;
+}
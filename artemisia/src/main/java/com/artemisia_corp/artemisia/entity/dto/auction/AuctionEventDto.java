@@ -0,0 +1,27 @@
+package com.artemisia_corp.artemisia.entity.dto.auction;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+public class AuctionEventDto {
+    public static final String SNAPSHOT = "SNAPSHOT";
+    public static final String BID = "BID";
+    public static final String CLOSED = "CLOSED";
+
+    private String type;
+    private Long auctionId;
+    private String status;
+    private Double currentPrice;
+    private Long highestBidderId;
+    private Long winnerId;
+    private LocalDateTime endDate;
+    private Long sequence;
+    private LocalDateTime timestamp;
+}
@@ -17,6 +17,7 @@ public class AuctionResponseDto {
     private String productImage;
     private Long sellerId;
     private String sellerName;
+    private Long highestBidderId;
     private Long winnerId;
     private String winnerName;
     private Long notaVentaId;
@@ -37,6 +38,7 @@ public class AuctionResponseDto {
         this.productImage = productImage != null ? productImage : auction.getProduct().getImageUrl();
         this.sellerId = auction.getSeller().getId();
         this.sellerName = auction.getSeller().getName();
+        this.highestBidderId = auction.getHighestBidder() != null ? auction.getHighestBidder().getId() : null;
         this.winnerId = auction.getWinner() != null ? auction.getWinner().getId() : null;
         this.winnerName = auction.getWinner() != null ? auction.getWinner().getName() : null;
         this.notaVentaId = auction.getNotaVenta() != null ? auction.getNotaVenta().getId() : null;
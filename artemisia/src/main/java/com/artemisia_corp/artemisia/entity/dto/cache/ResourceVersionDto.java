@@ -0,0 +1,30 @@
+package com.artemisia_corp.artemisia.entity.dto.cache;
+
+import lombok.*;
+
+import java.util.Date;
+
+/**
+ * Sello de version de un recurso o de un conjunto de filas, para responder a GETs condicionales sin
+ * cargar las entidades.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class ResourceVersionDto {
+    private Long count;
+    private Long versionSum;
+    private Date lastModified;
+    private String etag;
+    // 0 obliga a revalidar en cada lectura
+    private long maxAgeSeconds;
+
+    // Constructor para las consultas de agregados
+    public ResourceVersionDto(Long count, Long versionSum, Date lastModified) {
+        this.count = count;
+        this.versionSum = versionSum;
+        this.lastModified = lastModified;
+    }
+}
@@ -0,0 +1,22 @@
+package com.artemisia_corp.artemisia.entity.dto.image;
+
+import lombok.*;
+
+import java.nio.file.Path;
+
+/**
+ * Archivo de imagen servido desde disco, o la URL externa a la que redirigir cuando no esta en local.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class ImageFileDto {
+    private Path path;
+    private String contentType;
+    private long length;
+    private long lastModified;
+    private String etag;
+    private String redirectUrl;
+}
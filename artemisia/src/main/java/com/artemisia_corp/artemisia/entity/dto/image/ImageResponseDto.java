@@ -0,0 +1,35 @@
+package com.artemisia_corp.artemisia.entity.dto.image;
+
+import com.artemisia_corp.artemisia.entity.Image;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class ImageResponseDto {
+    private Long id;
+    private Long productId;
+    private String fileName;
+    private String status;
+    private String url;
+    private String thumbnailUrl;
+    private String mediumUrl;
+    private String errorMessage;
+    private Integer position;
+    private Boolean primary;
+
+    public ImageResponseDto(Image image) {
+        this.id = image.getId();
+        this.productId = image.getProduct() != null ? image.getProduct().getId() : null;
+        this.fileName = image.getFileName();
+        this.status = image.getStatus() != null ? image.getStatus().name() : null;
+        this.url = image.getCloudinaryUrl() != null && !image.getCloudinaryUrl().isEmpty() ? image.getCloudinaryUrl() : null;
+        this.thumbnailUrl = image.getThumbnailUrl();
+        this.mediumUrl = image.getMediumUrl();
+        this.errorMessage = image.getErrorMessage();
+        this.position = image.getPosition();
+        this.primary = Boolean.TRUE.equals(image.getPrimaryImage());
+    }
+}
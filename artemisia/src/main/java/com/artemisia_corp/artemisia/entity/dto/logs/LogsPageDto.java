@@ -0,0 +1,15 @@
+package com.artemisia_corp.artemisia.entity.dto.logs;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class LogsPageDto {
+    private List<LogsResponseDto> items;
+    private String nextCursor;
+}
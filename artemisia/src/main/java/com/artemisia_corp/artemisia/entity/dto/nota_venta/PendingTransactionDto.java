@@ -0,0 +1,19 @@
+package com.artemisia_corp.artemisia.entity.dto.nota_venta;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class PendingTransactionDto {
+    private Long notaVentaId;
+    private Long buyerId;
+    private String idTransaccion;
+    private Date modifiedDate;
+}
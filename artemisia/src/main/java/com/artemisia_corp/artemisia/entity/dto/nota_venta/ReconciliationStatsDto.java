@@ -0,0 +1,29 @@
+package com.artemisia_corp.artemisia.entity.dto.nota_venta;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class ReconciliationStatsDto {
+    private boolean running;
+    private long totalRuns;
+    private long totalChecked;
+    private long totalPaid;
+    private long totalCancelled;
+    private long totalUnchanged;
+    private long totalErrors;
+    private LocalDateTime lastRunStartedAt;
+    private long lastRunDurationMs;
+    private long lastRunChecked;
+    private double lastRunThroughputPerSecond;
+    private long lastRunMaxLagSeconds;
+}
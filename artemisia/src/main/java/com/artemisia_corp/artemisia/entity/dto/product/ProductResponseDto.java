@@ -1,6 +1,7 @@
 package com.artemisia_corp.artemisia.entity.dto.product;
 
 import com.artemisia_corp.artemisia.entity.Product;
+import com.artemisia_corp.artemisia.entity.dto.image.ImageResponseDto;
 import com.artemisia_corp.artemisia.entity.enums.PaintingCategory;
 import com.artemisia_corp.artemisia.entity.enums.PaintingTechnique;
 import com.artemisia_corp.artemisia.entity.enums.ProductStatus;
@@ -26,6 +27,11 @@ public class ProductResponseDto {
     private Integer stock;
     private String status;
     private String image;
+    // Derivados para listados y fichas; si la imagen no tiene derivados apuntan a la original
+    private String thumbnailImage;
+    private String mediumImage;
+    // Galeria completa, solo en el detalle del producto
+    private List<ImageResponseDto> images;
     private List<String> categories;
     private List<PaintingCategory> categoryEnums;
     private Long sellerId;
@@ -41,6 +47,8 @@ public class ProductResponseDto {
         this.stock = product.getStock();
         this.status = product.getStatus() != null ? product.getStatus().name() : null;
         this.image = product.getImageUrl();
+        this.thumbnailImage = product.getThumbnailUrl() != null ? product.getThumbnailUrl() : product.getImageUrl();
+        this.mediumImage = product.getMediumUrl() != null ? product.getMediumUrl() : product.getImageUrl();
         this.sellerId = product.getSeller() != null ? product.getSeller().getId() : null;
         this.sellerName = product.getSeller() != null ? product.getSeller().getName() : null;
 
@@ -81,4 +89,4 @@ public class ProductResponseDto {
         this.techniques = List.of();
         this.techniqueEnums = List.of();
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
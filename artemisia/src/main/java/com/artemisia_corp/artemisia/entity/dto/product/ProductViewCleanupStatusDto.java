@@ -0,0 +1,28 @@
+package com.artemisia_corp.artemisia.entity.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class ProductViewCleanupStatusDto {
+    private String state;
+    private boolean running;
+    private boolean cancelRequested;
+    private LocalDateTime cutoff;
+    private long lastProcessedId;
+    private long deleted;
+    private long chunks;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private double rowsPerSecond;
+    private String lastError;
+}
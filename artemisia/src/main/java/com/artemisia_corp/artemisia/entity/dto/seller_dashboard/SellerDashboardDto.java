@@ -0,0 +1,26 @@
+package com.artemisia_corp.artemisia.entity.dto.seller_dashboard;
+
+import com.artemisia_corp.artemisia.entity.dto.admin_dashboard.CategorySalesDto;
+import com.artemisia_corp.artemisia.entity.dto.admin_dashboard.TechniqueSalesDto;
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+public class SellerDashboardDto {
+    private Long sellerId;
+    private SellerSalesSummaryDto salesSummary;
+    private Map<VentaEstado, Long> orderStatusSummary;
+    private List<ProductSalesDto> topProducts;
+    private List<CategorySalesDto> categoriesPerformance;
+    private List<TechniqueSalesDto> techniquesPerformance;
+    private LocalDateTime refreshedAt;
+}
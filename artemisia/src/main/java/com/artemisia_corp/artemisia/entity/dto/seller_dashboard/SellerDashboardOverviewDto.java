@@ -0,0 +1,23 @@
+package com.artemisia_corp.artemisia.entity.dto.seller_dashboard;
+
+import com.artemisia_corp.artemisia.entity.dto.nota_venta.NotaVentaResponseDto;
+import com.artemisia_corp.artemisia.entity.dto.order_detail.OrderDetailResponseDto;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+public class SellerDashboardOverviewDto {
+    private SellerDashboardDto dashboard;
+    private List<NotaVentaResponseDto> pendingShipments;
+    private List<OrderDetailResponseDto> recentOrders;
+    private Map<String, Long> sectionTimingsMs;
+    private List<String> failedSections;
+    private long totalMs;
+}
@@ -0,0 +1,7 @@
+package com.artemisia_corp.artemisia.entity.enums;
+
+public enum TimeBucket {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,8 @@
+package com.artemisia_corp.artemisia.entity.enums;
+
+public enum WebhookInboxStatus {
+    PENDING,
+    PROCESSING,
+    PROCESSED,
+    FAILED
+}
@@ -0,0 +1,18 @@
+package com.artemisia_corp.artemisia.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Se publica cuando cambia el precio de un producto; los carritos abiertos que lo contienen se
+ * recalculan despues de confirmar el cambio.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ProductPriceChangedEvent {
+    private final Long productId;
+    private final Double oldPrice;
+    private final Double newPrice;
+}
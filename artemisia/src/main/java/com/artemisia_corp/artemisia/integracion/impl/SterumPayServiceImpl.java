@@ -33,7 +33,8 @@ import java.util.UUID;
 @Slf4j
 @Service
 public class SterumPayServiceImpl implements SterumPayService {
-    private String jwtToken = null;
+    // volatile: el conciliador de pagos consulta estados desde varios hilos
+    private volatile String jwtToken = null;
 
     @Value("${stereum-pay.url-base}")
     private String urlBase;
@@ -172,6 +173,8 @@ public class SterumPayServiceImpl implements SterumPayService {
 
         boolean isBob = false;
         NotaVentaResponseDto cartDto = notaVentaService.getActiveCartByUserId(conversionDto.getUserId());
+        // Ultimo recalculo antes de fijar los precios en la moneda del pago
+        orderDetailService.repriceOpenCarts(List.of(cartDto.getId()));
         NotaVenta cart = notaVentaRepository.findById(cartDto.getId())
                 .orElseThrow(() -> {
                     log.error("Cart not found with ID: {}", cartDto.getId());
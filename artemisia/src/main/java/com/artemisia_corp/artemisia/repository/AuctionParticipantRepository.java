@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,8 +17,18 @@ public interface AuctionParticipantRepository extends JpaRepository<AuctionParti
 
     Optional<AuctionParticipant> findByAuction_IdAndParticipant_Id(Long auctionId, Long participantId);
 
+    List<AuctionParticipant> findByAuction_IdAndParticipant_IdIn(Long auctionId, Collection<Long> participantIds);
+
+    List<AuctionParticipant> findByAuction_IdAndMaxBidGreaterThanOrderByBidDateAsc(Long auctionId, Double price);
+
+    // Puja mas alta sin consulta de conteo; solo para subastas anteriores a auction.highest_bidder_id
+    Optional<AuctionParticipant> findFirstByAuction_IdOrderByBidAmountDesc(Long auctionId);
+
     Page<AuctionParticipant> findByAuction_Id(Long auctionId, Pageable pageable);
 
-    @Query("SELECT ap FROM AuctionParticipant ap WHERE ap.auction.id = :auctionId ORDER BY ap.bidAmount DESC")
+    // Recorre idx_auction_participant_auction_bid; el participante se trae en la misma consulta
+    @Query(value = "SELECT ap FROM AuctionParticipant ap JOIN FETCH ap.participant " +
+            "WHERE ap.auction.id = :auctionId ORDER BY ap.bidAmount DESC",
+            countQuery = "SELECT COUNT(ap) FROM AuctionParticipant ap WHERE ap.auction.id = :auctionId")
     Page<AuctionParticipant> findByAuctionIdOrderByBidAmountDesc(@Param("auctionId") Long auctionId, Pageable pageable);
 }
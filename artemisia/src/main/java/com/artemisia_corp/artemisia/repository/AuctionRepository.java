@@ -1,15 +1,20 @@
 package com.artemisia_corp.artemisia.repository;
 
 import com.artemisia_corp.artemisia.entity.Auction;
+import com.artemisia_corp.artemisia.entity.User;
+import com.artemisia_corp.artemisia.entity.dto.auction.AuctionDeadlineDto;
+import com.artemisia_corp.artemisia.entity.dto.cache.ResourceVersionDto;
 import com.artemisia_corp.artemisia.entity.enums.AuctionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,9 +27,36 @@ public interface AuctionRepository extends JpaRepository<Auction, Long> {
 
     Page<Auction> findByWinner_Id(Long winnerId, Pageable pageable);
 
-    @Query("SELECT a FROM Auction a WHERE a.status = 'ACTIVE' AND a.endDate <= :now")
-    List<Auction> findExpiredActiveAuctions(@Param("now") LocalDateTime now);
+    @Query("SELECT a.status FROM Auction a WHERE a.id = :id")
+    AuctionStatus findStatusById(@Param("id") Long id);
+
+    @Query("SELECT a.id FROM Auction a WHERE a.status = 'ACTIVE' AND a.endDate <= :now ORDER BY a.endDate")
+    List<Long> findExpiredActiveAuctionIds(@Param("now") LocalDateTime now);
+
+    @Query("SELECT new com.artemisia_corp.artemisia.entity.dto.auction.AuctionDeadlineDto(a.id, a.endDate) " +
+            "FROM Auction a WHERE a.status = 'ACTIVE'")
+    List<AuctionDeadlineDto> findActiveDeadlines();
 
     @Query("SELECT a FROM Auction a WHERE a.product.id = :productId AND a.status = 'ACTIVE'")
     Optional<Auction> findActiveAuctionByProductId(@Param("productId") Long productId);
+
+    // Solo sube el precio: los lotes del motor de pujas pueden llegar fuera de orden tras un reintento
+    @Modifying
+    @Query("UPDATE Auction a SET a.currentPrice = :price, a.highestBidder = :bidder, a.modifiedDate = :now " +
+            "WHERE a.id = :id AND a.status = 'ACTIVE' AND a.currentPrice < :price")
+    int raiseCurrentPrice(@Param("id") Long id, @Param("price") Double price, @Param("bidder") User bidder,
+                          @Param("now") Date now);
+
+    // Cierre suave: la fecha de fin solo avanza
+    @Modifying
+    @Query("UPDATE Auction a SET a.endDate = :endDate, a.modifiedDate = :now " +
+            "WHERE a.id = :id AND a.status = 'ACTIVE' AND a.endDate < :endDate")
+    int extendEndDate(@Param("id") Long id, @Param("endDate") LocalDateTime endDate, @Param("now") Date now);
+
+    // Las subastas vencidas que aun no se cerraron no cuentan: leerlas las cierra
+    @Query("SELECT new com.artemisia_corp.artemisia.entity.dto.cache.ResourceVersionDto(" +
+            "COUNT(a), COALESCE(SUM(a.version + p.version), 0L), MAX(a.modifiedDate)) " +
+            "FROM Auction a JOIN a.product p " +
+            "WHERE a.id = :id AND NOT (a.status = 'ACTIVE' AND a.endDate <= :now)")
+    ResourceVersionDto findVersionById(@Param("id") Long id, @Param("now") LocalDateTime now);
 }
@@ -1,16 +1,42 @@
 package com.artemisia_corp.artemisia.repository;
 
 import com.artemisia_corp.artemisia.entity.Image;
+import com.artemisia_corp.artemisia.entity.enums.ImageStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface ImageRepository extends JpaRepository<Image, Long> {
-    @Query("SELECT i.cloudinaryUrl FROM Image i WHERE i.product.id =:product_id ORDER BY i.id asc limit 1")
-    String findLatestCloudinaryUrlByProductId(@Param("product_id") Long productId);
+    // Galeria de varios productos en una sola consulta, en el orden en que se muestran
+    @Query("SELECT i FROM Image i WHERE i.product.id IN :productIds ORDER BY i.product.id, i.position, i.id")
+    List<Image> findByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT COALESCE(MAX(i.position) + 1, 0) FROM Image i WHERE i.product.id = :productId")
+    int nextPosition(@Param("productId") Long productId);
+
+    // Devuelve 0 si la imagen se elimino mientras se subia
+    @Transactional
+    @Modifying
+    @Query("UPDATE Image i SET i.status = :status, i.cloudinaryUrl = :url, i.publicId = :publicId, " +
+            "i.thumbnailUrl = :thumbnailUrl, i.mediumUrl = :mediumUrl, i.errorMessage = :error WHERE i.id = :id")
+    int updateUploadResult(@Param("id") Long id, @Param("status") ImageStatus status, @Param("url") String url,
+                           @Param("publicId") String publicId, @Param("thumbnailUrl") String thumbnailUrl,
+                           @Param("mediumUrl") String mediumUrl, @Param("error") String error);
 
-    @Query("SELECT i FROM Image i WHERE i.product.id =:product_id ORDER BY i.id asc limit 1")
-    Image findFirstByProductId(@Param("product_id") Long productId);
+    // Productos con imagenes subidas pero sin principal (datos anteriores a la galeria): se marca la primera
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE images SET is_primary = true WHERE id IN (" +
+            "SELECT DISTINCT ON (i.product) i.id FROM images i " +
+            "WHERE i.status = 'UPLOADED' AND NOT EXISTS " +
+            "(SELECT 1 FROM images p WHERE p.product = i.product AND p.is_primary) " +
+            "ORDER BY i.product, i.position, i.id)", nativeQuery = true)
+    int markMissingPrimaryImages();
 }
@@ -3,14 +3,20 @@ package com.artemisia_corp.artemisia.repository;
 import com.artemisia_corp.artemisia.entity.NotaVenta;
 import com.artemisia_corp.artemisia.entity.dto.admin_dashboard.SellerPerformanceDto;
 import com.artemisia_corp.artemisia.entity.dto.nota_venta.NotaVentaResponseDto;
+import com.artemisia_corp.artemisia.entity.dto.nota_venta.PendingTransactionDto;
 import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,6 +39,22 @@ public interface NotaVentaRepository extends JpaRepository<NotaVenta, Long> {
             "FROM NotaVenta nv WHERE nv.estadoVenta=:estado_venta")
     Page<NotaVentaResponseDto> findByEstadoVenta(@Param("estado_venta") VentaEstado estadoVenta, Pageable pageable);
 
+    // Carritos con cobro generado que aun no fueron confirmados, paginados por id (keyset)
+    @Query("SELECT new com.artemisia_corp.artemisia.entity.dto.nota_venta.PendingTransactionDto(" +
+            "nv.id, nv.buyer.id, nv.idTransaccion, nv.modifiedDate) " +
+            "FROM NotaVenta nv " +
+            "WHERE nv.estadoVenta = 'ON_CART' AND nv.idTransaccion IS NOT NULL " +
+            "AND nv.id > :after_id AND nv.modifiedDate < :before " +
+            "ORDER BY nv.id")
+    List<PendingTransactionDto> findPendingTransactions(@Param("after_id") Long afterId,
+                                                        @Param("before") Date before,
+                                                        Pageable pageable);
+
+    // Bloquea las notas que siguen en carrito para que la conciliacion no compita con el webhook
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT nv FROM NotaVenta nv WHERE nv.id IN :ids AND nv.estadoVenta = 'ON_CART' ORDER BY nv.id")
+    List<NotaVenta> lockCartsByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT nv FROM NotaVenta nv " +
             "WHERE nv.buyer.id =:buyer_id AND nv.estadoVenta = 'ON_CART' " +
             "ORDER BY nv.id DESC LIMIT 1")
@@ -83,7 +105,7 @@ public interface NotaVentaRepository extends JpaRepository<NotaVenta, Long> {
     @Query("SELECT nv.estadoVenta, COUNT(nv) FROM NotaVenta nv " +
             "WHERE EXISTS (SELECT od FROM OrderDetail od WHERE od.group = nv AND od.seller.id = :sellerId) " +
             "GROUP BY nv.estadoVenta")
-    Map<VentaEstado, Long> countOrdersBySellerAndStatus(@Param("sellerId") Long sellerId);
+    List<Object[]> countOrdersBySellerAndStatus(@Param("sellerId") Long sellerId);
 
     @Query("SELECT nv FROM NotaVenta nv WHERE nv.buyer.id = :buyerId AND nv.estadoVenta = :estado")
     Page<NotaVenta> findByBuyerIdAndEstadoVenta(
@@ -98,4 +120,12 @@ public interface NotaVentaRepository extends JpaRepository<NotaVenta, Long> {
 
     @Query("SELECT nv FROM NotaVenta nv WHERE nv.buyer.id = :buyerId")
     Page<NotaVenta> findByBuyerId(@Param("buyerId") Long buyerId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE nota_venta nv SET total_global = t.total, modified_date = now(), modified_by = 'ADMIN', " +
+            "version = nv.version + 1 " +
+            "FROM (SELECT d.group_id, SUM(d.total) AS total FROM detail d WHERE d.group_id IN (:ids) GROUP BY d.group_id) t " +
+            "WHERE nv.id = t.group_id AND nv.total_global IS DISTINCT FROM t.total",
+            nativeQuery = true)
+    int refreshTotalGlobal(@Param("ids") Collection<Long> ids);
 }
@@ -8,10 +8,13 @@ import com.artemisia_corp.artemisia.entity.dto.seller_dashboard.ProductSalesDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +27,31 @@ public interface OrderDetailRepository extends JpaRepository<OrderDetail, Long>
     Page<OrderDetailResponseDto> findByGroup_Id(Long groupId, Pageable pageable);
     List<OrderDetailResponseDto> findByGroup_Id(Long groupId);
 
+    // Detalles de varias notas de venta en una sola consulta, sin hidratar entidades
+    @Query("SELECT new com.artemisia_corp.artemisia.entity.dto.order_detail.OrderDetailResponseDto(" +
+            "od.id, od.group.id, od.product.id, od.seller.id, p.name, od.quantity, od.total) " +
+            "FROM OrderDetail od JOIN od.product p " +
+            "WHERE od.group.id IN :groupIds " +
+            "ORDER BY od.group.id, od.id")
+    List<OrderDetailResponseDto> findDtoByGroupIdIn(@Param("groupIds") Collection<Long> groupIds);
+
+    @Query(value = "SELECT DISTINCT d.group_id FROM detail d JOIN nota_venta nv ON nv.id = d.group_id " +
+            "WHERE d.product_id = :productId AND nv.estado_venta = 'ON_CART' " +
+            "AND COALESCE(nv.precios_convertidos, false) = false",
+            nativeQuery = true)
+    List<Long> findOpenCartIdsByProductId(@Param("productId") Long productId);
+
+    // Recalcula al precio actual las lineas de carritos abiertos cuyos precios aun no se convirtieron
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE detail d SET total = p.price * d.quantity, modified_date = now(), modified_by = 'ADMIN', " +
+            "version = d.version + 1 " +
+            "FROM product p, nota_venta nv " +
+            "WHERE p.id = d.product_id AND nv.id = d.group_id AND d.group_id IN (:cartIds) " +
+            "AND nv.estado_venta = 'ON_CART' AND COALESCE(nv.precios_convertidos, false) = false " +
+            "AND d.total IS DISTINCT FROM p.price * d.quantity",
+            nativeQuery = true)
+    int repriceOpenCartLines(@Param("cartIds") Collection<Long> cartIds);
+
     boolean existsByGroupIdAndSellerId(Long groupId, Long sellerId);
 
     Optional<OrderDetail> findByGroupIdAndProductId(Long groupId, Long productId);
@@ -46,6 +74,13 @@ public interface OrderDetailRepository extends JpaRepository<OrderDetail, Long>
             "LIMIT :limit")
     List<ProductSalesDto> findTopProductsBySeller(@Param("sellerId") Long sellerId, @Param("limit") int limit);
 
+    // Vendedores con detalles o notas de venta modificados desde la marca de agua del snapshot del panel
+    @Query(value = "SELECT d.seller_id FROM detail d WHERE d.modified_date > :since " +
+            "UNION SELECT d.seller_id FROM detail d JOIN nota_venta nv ON nv.id = d.group_id " +
+            "WHERE nv.modified_date > :since",
+            nativeQuery = true)
+    List<Long> findSellerIdsChangedSince(@Param("since") Date since);
+
     // Nuevos métodos para dashboard del seller usando enums
     @Query("SELECT new com.artemisia_corp.artemisia.entity.dto.admin_dashboard.CategorySalesDto(" +
             "cat, COUNT(od), SUM(od.total)) " +
@@ -100,4 +135,4 @@ public interface OrderDetailRepository extends JpaRepository<OrderDetail, Long>
 
     @Query("SELECT od FROM OrderDetail od WHERE od.group.id = :groupId")
     Page<OrderDetail> findByGroupId(@Param("groupId") Long groupId, Pageable pageable);
-}
\ No newline at end of file
+}
\ No newline at end of file
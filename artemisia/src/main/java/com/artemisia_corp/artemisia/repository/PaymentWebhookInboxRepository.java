@@ -0,0 +1,52 @@
+package com.artemisia_corp.artemisia.repository;
+
+import com.artemisia_corp.artemisia.entity.PaymentWebhookInbox;
+import com.artemisia_corp.artemisia.entity.enums.WebhookInboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentWebhookInboxRepository extends JpaRepository<PaymentWebhookInbox, Long> {
+
+    Optional<PaymentWebhookInbox> findByTransactionId(String transactionId);
+
+    // Reclama el registro para procesarlo; devuelve 0 si otro hilo o instancia ya lo tomo. Sube la version:
+    // una copia leida antes del reclamo ya no se puede guardar encima
+    @Modifying
+    @Transactional
+    @Query("UPDATE VERSIONED PaymentWebhookInbox i SET i.status = :processing, i.attempts = i.attempts + 1, i.lastAttemptAt = :now " +
+            "WHERE i.id = :id AND (i.status IN :claimable " +
+            "OR (i.status = :processing AND i.lastAttemptAt < :staleBefore))")
+    int claim(@Param("id") Long id,
+              @Param("processing") WebhookInboxStatus processing,
+              @Param("claimable") Collection<WebhookInboxStatus> claimable,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Query("SELECT i.transactionId FROM PaymentWebhookInbox i " +
+            "WHERE i.transactionId IN :transactionIds AND i.status = :status")
+    List<String> findTransactionIdsByStatus(@Param("transactionIds") Collection<String> transactionIds,
+                                            @Param("status") WebhookInboxStatus status);
+
+    @Query("SELECT i.id FROM PaymentWebhookInbox i " +
+            "WHERE i.attempts < :maxAttempts " +
+            "AND ((i.status IN :retryable AND (i.lastAttemptAt IS NULL OR i.lastAttemptAt < :retryBefore)) " +
+            "OR (i.status = :processing AND i.lastAttemptAt < :staleBefore)) " +
+            "ORDER BY i.id")
+    List<Long> findRetryableIds(@Param("retryable") Collection<WebhookInboxStatus> retryable,
+                                @Param("processing") WebhookInboxStatus processing,
+                                @Param("maxAttempts") Integer maxAttempts,
+                                @Param("retryBefore") LocalDateTime retryBefore,
+                                @Param("staleBefore") LocalDateTime staleBefore,
+                                Pageable pageable);
+}
@@ -3,6 +3,7 @@ package com.artemisia_corp.artemisia.repository;
 import com.artemisia_corp.artemisia.entity.Product;
 import com.artemisia_corp.artemisia.entity.dto.admin_dashboard.CategorySalesDto;
 import com.artemisia_corp.artemisia.entity.dto.admin_dashboard.TechniqueSalesDto;
+import com.artemisia_corp.artemisia.entity.dto.cache.ResourceVersionDto;
 import com.artemisia_corp.artemisia.entity.enums.PaintingCategory;
 import com.artemisia_corp.artemisia.entity.enums.PaintingTechnique;
 import com.artemisia_corp.artemisia.entity.enums.ProductStatus;
@@ -43,6 +44,52 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("UPDATE Product p SET p.stock = p.stock + :quantity WHERE p.id = :productId")
     void augmentStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
 
+    @Query("SELECT new com.artemisia_corp.artemisia.entity.dto.cache.ResourceVersionDto(" +
+            "COUNT(p), COALESCE(SUM(p.version), 0L), MAX(p.modifiedDate)) FROM Product p WHERE p.id = :id")
+    ResourceVersionDto findVersionById(@Param("id") Long id);
+
+    // Filas de una pagina de los listados para su ETag: mismos filtros y orden, sin cargar entidades
+    @Query("SELECT p.id, p.version, p.modifiedDate FROM Product p " +
+            "WHERE p.status != 'DELETED' AND p.seller.id != :user_id")
+    Page<Object[]> findAllProductsVersions(Pageable pageable, @Param("user_id") Long userId);
+
+    @Query("SELECT p.id, p.version, p.modifiedDate FROM Product p " +
+            "WHERE p.stock > 0 AND p.status = 'AVAILABLE' AND p.seller.id != :user_id")
+    Page<Object[]> findAvailableProductsVersions(Pageable pageable, @Param("user_id") Long userId);
+
+    @Query("SELECT p.id, p.version, p.modifiedDate FROM Product p WHERE :category MEMBER OF p.categories")
+    Page<Object[]> findCategoryVersions(@Param("category") PaintingCategory category, Pageable pageable);
+
+    @Query("SELECT p.id, p.version, p.modifiedDate FROM Product p WHERE :technique MEMBER OF p.techniques")
+    Page<Object[]> findTechniqueVersions(@Param("technique") PaintingTechnique technique, Pageable pageable);
+
+    // Cambios de la galeria que no tocan la fila del producto: sube la version para invalidar su ETag
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.version = p.version + 1 WHERE p.id = :productId")
+    int incrementVersion(@Param("productId") Long productId);
+
+    // Serializa los cambios de imagen principal de un mismo producto
+    @Query(value = "SELECT p.id FROM product p WHERE p.id = :productId FOR UPDATE", nativeQuery = true)
+    Long lockForImageUpdate(@Param("productId") Long productId);
+
+    // Copia de la imagen principal; null en las tres columnas si el producto se queda sin imagenes. Sube la
+    // version para invalidar el ETag del producto y de los listados
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.imageUrl = :imageUrl, p.thumbnailUrl = :thumbnailUrl, p.mediumUrl = :mediumUrl, " +
+            "p.version = p.version + 1 WHERE p.id = :productId")
+    int updatePrimaryImage(@Param("productId") Long productId, @Param("imageUrl") String imageUrl,
+                           @Param("thumbnailUrl") String thumbnailUrl, @Param("mediumUrl") String mediumUrl);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE product p SET image_url = i.cloudinary_url, thumbnail_url = i.thumbnail_url, " +
+            "medium_url = i.medium_url, version = p.version + 1 FROM images i WHERE i.product = p.id AND i.is_primary " +
+            "AND (p.image_url IS DISTINCT FROM i.cloudinary_url OR p.thumbnail_url IS DISTINCT FROM i.thumbnail_url " +
+            "OR p.medium_url IS DISTINCT FROM i.medium_url)", nativeQuery = true)
+    int syncPrimaryImages();
+
     // Query para búsqueda con filtros usando enums
     @Query("SELECT DISTINCT p FROM Product p " +
             "WHERE (:categories IS NULL OR EXISTS (SELECT cat FROM p.categories cat WHERE cat IN :categories)) " +
@@ -104,4 +151,4 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             "GROUP BY tech " +
             "ORDER BY SUM(od.total) DESC")
     List<TechniqueSalesDto> findTopTechniquesBySales(@Param("limit") int limit);
-}
\ No newline at end of file
+}
\ No newline at end of file
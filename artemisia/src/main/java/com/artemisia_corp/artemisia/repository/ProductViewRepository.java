@@ -4,7 +4,6 @@ import com.artemisia_corp.artemisia.entity.ProductView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -40,10 +39,9 @@ public interface ProductViewRepository extends JpaRepository<ProductView, Long>
     @Query("SELECT COALESCE(SUM(pv.totalViewDuration), 0) FROM ProductView pv WHERE pv.user.id = :userId")
     Long getTotalViewDurationByUser(@Param("userId") Long userId);
 
-    // Limpiar vistas antiguas
-    @Modifying
-    @Query("DELETE FROM ProductView pv WHERE pv.lastViewedAt < :cutoffDate")
-    int deleteOldViews(@Param("cutoffDate") LocalDateTime cutoffDate);
+    // Siguiente lote de vistas antiguas por id ascendente, para la limpieza por lotes
+    @Query("SELECT pv.id FROM ProductView pv WHERE pv.id > :afterId AND pv.lastViewedAt < :cutoffDate ORDER BY pv.id")
+    List<Long> findStaleIdsAfter(@Param("afterId") Long afterId, @Param("cutoffDate") LocalDateTime cutoffDate, Pageable pageable);
 
     // Obtener productos similares basados en vistas de otros usuarios
     @Query("SELECT pv2.product.id FROM ProductView pv1 " +
@@ -61,4 +59,4 @@ public interface ProductViewRepository extends JpaRepository<ProductView, Long>
     @Query("SELECT COUNT(pv), COALESCE(SUM(pv.viewCount), 0), COALESCE(SUM(pv.totalViewDuration), 0) " +
             "FROM ProductView pv WHERE pv.user.id = :userId")
     Object[] getUserViewStatistics(@Param("userId") Long userId);
-}
\ No newline at end of file
+}
\ No newline at end of file
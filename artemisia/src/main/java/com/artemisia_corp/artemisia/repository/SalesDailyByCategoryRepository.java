@@ -0,0 +1,59 @@
+package com.artemisia_corp.artemisia.repository;
+
+import com.artemisia_corp.artemisia.entity.SalesDailyByCategory;
+import com.artemisia_corp.artemisia.entity.dto.admin_dashboard.CategorySalesDto;
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SalesDailyByCategoryRepository extends JpaRepository<SalesDailyByCategory, Long> {
+    // Suma (sign = 1) o resta (sign = -1) las lineas de la nota de venta en el estado indicado
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_by_category (id, day, category, estado_venta, sales_count, revenue) " +
+            "SELECT nextval('seq_sales_daily_by_category_id'), g.day, g.category, :estado, :sign * g.lines, :sign * g.revenue FROM (" +
+            "  SELECT CAST(nv.date AS date) AS day, pc.category AS category, COUNT(*) AS lines, SUM(d.total) AS revenue " +
+            "  FROM nota_venta nv JOIN detail d ON d.group_id = nv.id JOIN product_categories pc ON pc.product_id = d.product_id " +
+            "  WHERE nv.id = :notaVentaId GROUP BY 1, 2) g " +
+            "ON CONFLICT (day, category, estado_venta) DO UPDATE SET " +
+            "sales_count = sales_daily_by_category.sales_count + EXCLUDED.sales_count, revenue = sales_daily_by_category.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    int applyNotaVenta(@Param("notaVentaId") Long notaVentaId, @Param("estado") String estado, @Param("sign") int sign);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_by_category (id, day, category, estado_venta, sales_count, revenue) " +
+            "SELECT nextval('seq_sales_daily_by_category_id'), g.day, g.category, g.estado_venta, g.lines, g.revenue FROM (" +
+            "  SELECT CAST(nv.date AS date) AS day, pc.category AS category, nv.estado_venta, COUNT(*) AS lines, SUM(d.total) AS revenue " +
+            "  FROM nota_venta nv JOIN detail d ON d.group_id = nv.id JOIN product_categories pc ON pc.product_id = d.product_id " +
+            "  WHERE nv.estado_venta <> 'ON_CART' GROUP BY 1, 2, 3) g",
+            nativeQuery = true)
+    int backfill();
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_daily_by_category", nativeQuery = true)
+    int deleteAllRows();
+
+    @Query("SELECT new com.artemisia_corp.artemisia.entity.dto.admin_dashboard.CategorySalesDto(" +
+            "r.category, SUM(r.salesCount), SUM(r.revenue)) " +
+            "FROM SalesDailyByCategory r WHERE r.estadoVenta = :estado " +
+            "GROUP BY r.category ORDER BY SUM(r.revenue) DESC")
+    List<CategorySalesDto> findTopCategories(@Param("estado") VentaEstado estado, Pageable pageable);
+
+    // Serie temporal: cada fila es (inicio del periodo, categoria, cantidad, ingresos); unit es day, week o month
+    @Query(value = "SELECT CAST(date_trunc(:unit, r.day) AS date) AS bucket, r.category, r.category, " +
+            "SUM(r.sales_count), SUM(r.revenue) " +
+            "FROM sales_daily_by_category r " +
+            "WHERE r.day BETWEEN :from AND :to AND r.estado_venta IN (:estados) " +
+            "GROUP BY 1, 2 ORDER BY 1, 5 DESC",
+            nativeQuery = true)
+    List<Object[]> sumByBucket(@Param("unit") String unit, @Param("from") LocalDate from, @Param("to") LocalDate to,
+                               @Param("estados") Collection<String> estados);
+}
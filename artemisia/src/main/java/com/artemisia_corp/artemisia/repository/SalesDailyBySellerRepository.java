@@ -0,0 +1,58 @@
+package com.artemisia_corp.artemisia.repository;
+
+import com.artemisia_corp.artemisia.entity.SalesDailyBySeller;
+import com.artemisia_corp.artemisia.entity.dto.admin_dashboard.SellerPerformanceDto;
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SalesDailyBySellerRepository extends JpaRepository<SalesDailyBySeller, Long> {
+    // Suma (sign = 1) o resta (sign = -1) las lineas de la nota de venta en el estado indicado
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_by_seller (id, day, seller_id, estado_venta, sales_count, revenue) " +
+            "SELECT nextval('seq_sales_daily_by_seller_id'), g.day, g.seller_id, :estado, :sign * g.lines, :sign * g.revenue FROM (" +
+            "  SELECT CAST(nv.date AS date) AS day, d.seller_id AS seller_id, COUNT(*) AS lines, SUM(d.total) AS revenue " +
+            "  FROM nota_venta nv JOIN detail d ON d.group_id = nv.id " +
+            "  WHERE nv.id = :notaVentaId GROUP BY 1, 2) g " +
+            "ON CONFLICT (day, seller_id, estado_venta) DO UPDATE SET " +
+            "sales_count = sales_daily_by_seller.sales_count + EXCLUDED.sales_count, revenue = sales_daily_by_seller.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    int applyNotaVenta(@Param("notaVentaId") Long notaVentaId, @Param("estado") String estado, @Param("sign") int sign);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_by_seller (id, day, seller_id, estado_venta, sales_count, revenue) " +
+            "SELECT nextval('seq_sales_daily_by_seller_id'), g.day, g.seller_id, g.estado_venta, g.lines, g.revenue FROM (" +
+            "  SELECT CAST(nv.date AS date) AS day, d.seller_id AS seller_id, nv.estado_venta, COUNT(*) AS lines, SUM(d.total) AS revenue " +
+            "  FROM nota_venta nv JOIN detail d ON d.group_id = nv.id " +
+            "  WHERE nv.estado_venta <> 'ON_CART' GROUP BY 1, 2, 3) g",
+            nativeQuery = true)
+    int backfill();
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_daily_by_seller", nativeQuery = true)
+    int deleteAllRows();
+
+    @Query("SELECT new com.artemisia_corp.artemisia.entity.dto.admin_dashboard.SellerPerformanceDto(" +
+            "r.sellerId, u.name, SUM(r.salesCount), SUM(r.revenue)) " +
+            "FROM SalesDailyBySeller r, User u WHERE u.id = r.sellerId AND r.estadoVenta = :estado " +
+            "GROUP BY r.sellerId, u.name ORDER BY SUM(r.revenue) DESC")
+    List<SellerPerformanceDto> findSellerPerformance(@Param("estado") VentaEstado estado);
+
+    // Serie temporal: cada fila es (inicio del periodo, id y nombre del vendedor, cantidad, ingresos); unit es day, week o month
+    @Query(value = "SELECT CAST(date_trunc(:unit, r.day) AS date) AS bucket, CAST(r.seller_id AS varchar), u.name, " +
+            "SUM(r.sales_count), SUM(r.revenue) " +
+            "FROM sales_daily_by_seller r JOIN users u ON u.id = r.seller_id " +
+            "WHERE r.day BETWEEN :from AND :to AND r.estado_venta IN (:estados) " +
+            "GROUP BY 1, 2, 3 ORDER BY 1, 5 DESC",
+            nativeQuery = true)
+    List<Object[]> sumByBucket(@Param("unit") String unit, @Param("from") LocalDate from, @Param("to") LocalDate to,
+                               @Param("estados") Collection<String> estados);
+}
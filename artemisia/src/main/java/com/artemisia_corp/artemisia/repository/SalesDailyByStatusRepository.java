@@ -0,0 +1,61 @@
+package com.artemisia_corp.artemisia.repository;
+
+import com.artemisia_corp.artemisia.entity.SalesDailyByStatus;
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SalesDailyByStatusRepository extends JpaRepository<SalesDailyByStatus, Long> {
+    // Suma (sign = 1) o resta (sign = -1) la nota de venta en el estado indicado
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_by_status (id, day, estado_venta, order_count, revenue) " +
+            "SELECT nextval('seq_sales_daily_by_status_id'), CAST(nv.date AS date), :estado, :sign, :sign * nv.total_global " +
+            "FROM nota_venta nv WHERE nv.id = :notaVentaId " +
+            "ON CONFLICT (day, estado_venta) DO UPDATE SET " +
+            "order_count = sales_daily_by_status.order_count + EXCLUDED.order_count, " +
+            "revenue = sales_daily_by_status.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    int applyNotaVenta(@Param("notaVentaId") Long notaVentaId, @Param("estado") String estado, @Param("sign") int sign);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_by_status (id, day, estado_venta, order_count, revenue) " +
+            "SELECT nextval('seq_sales_daily_by_status_id'), g.day, g.estado_venta, g.orders, g.revenue FROM (" +
+            "  SELECT CAST(nv.date AS date) AS day, nv.estado_venta, COUNT(*) AS orders, COALESCE(SUM(nv.total_global), 0) AS revenue " +
+            "  FROM nota_venta nv WHERE nv.estado_venta <> 'ON_CART' GROUP BY 1, 2) g",
+            nativeQuery = true)
+    int backfill();
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_daily_by_status", nativeQuery = true)
+    int deleteAllRows();
+
+    @Query("SELECT COALESCE(SUM(r.orderCount), 0), COALESCE(SUM(r.revenue), 0) FROM SalesDailyByStatus r " +
+            "WHERE r.estadoVenta = :estado")
+    List<Object[]> sumByEstado(@Param("estado") VentaEstado estado);
+
+    @Query("SELECT r.estadoVenta, SUM(r.orderCount) FROM SalesDailyByStatus r GROUP BY r.estadoVenta")
+    List<Object[]> countGroupByEstado();
+
+    // Bloquea las tablas de agregados mientras se reconstruyen: los cambios de estado concurrentes esperan
+    @Modifying
+    @Query(value = "LOCK TABLE sales_daily_by_status, sales_daily_by_category, sales_daily_by_technique, " +
+            "sales_daily_by_seller IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockRollupTables();
+
+    // Serie temporal: cada fila es (inicio del periodo, sin desglose, cantidad, ingresos); unit es day, week o month
+    @Query(value = "SELECT CAST(date_trunc(:unit, r.day) AS date) AS bucket, SUM(r.order_count), SUM(r.revenue) " +
+            "FROM sales_daily_by_status r " +
+            "WHERE r.day BETWEEN :from AND :to AND r.estado_venta IN (:estados) " +
+            "GROUP BY 1 ORDER BY 1",
+            nativeQuery = true)
+    List<Object[]> sumByBucket(@Param("unit") String unit, @Param("from") LocalDate from, @Param("to") LocalDate to,
+                               @Param("estados") Collection<String> estados);
+}
@@ -0,0 +1,59 @@
+package com.artemisia_corp.artemisia.repository;
+
+import com.artemisia_corp.artemisia.entity.SalesDailyByTechnique;
+import com.artemisia_corp.artemisia.entity.dto.admin_dashboard.TechniqueSalesDto;
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SalesDailyByTechniqueRepository extends JpaRepository<SalesDailyByTechnique, Long> {
+    // Suma (sign = 1) o resta (sign = -1) las lineas de la nota de venta en el estado indicado
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_by_technique (id, day, technique, estado_venta, sales_count, revenue) " +
+            "SELECT nextval('seq_sales_daily_by_technique_id'), g.day, g.technique, :estado, :sign * g.lines, :sign * g.revenue FROM (" +
+            "  SELECT CAST(nv.date AS date) AS day, pt.technique AS technique, COUNT(*) AS lines, SUM(d.total) AS revenue " +
+            "  FROM nota_venta nv JOIN detail d ON d.group_id = nv.id JOIN product_techniques pt ON pt.product_id = d.product_id " +
+            "  WHERE nv.id = :notaVentaId GROUP BY 1, 2) g " +
+            "ON CONFLICT (day, technique, estado_venta) DO UPDATE SET " +
+            "sales_count = sales_daily_by_technique.sales_count + EXCLUDED.sales_count, revenue = sales_daily_by_technique.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    int applyNotaVenta(@Param("notaVentaId") Long notaVentaId, @Param("estado") String estado, @Param("sign") int sign);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_by_technique (id, day, technique, estado_venta, sales_count, revenue) " +
+            "SELECT nextval('seq_sales_daily_by_technique_id'), g.day, g.technique, g.estado_venta, g.lines, g.revenue FROM (" +
+            "  SELECT CAST(nv.date AS date) AS day, pt.technique AS technique, nv.estado_venta, COUNT(*) AS lines, SUM(d.total) AS revenue " +
+            "  FROM nota_venta nv JOIN detail d ON d.group_id = nv.id JOIN product_techniques pt ON pt.product_id = d.product_id " +
+            "  WHERE nv.estado_venta <> 'ON_CART' GROUP BY 1, 2, 3) g",
+            nativeQuery = true)
+    int backfill();
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_daily_by_technique", nativeQuery = true)
+    int deleteAllRows();
+
+    @Query("SELECT new com.artemisia_corp.artemisia.entity.dto.admin_dashboard.TechniqueSalesDto(" +
+            "r.technique, SUM(r.salesCount), SUM(r.revenue)) " +
+            "FROM SalesDailyByTechnique r WHERE r.estadoVenta = :estado " +
+            "GROUP BY r.technique ORDER BY SUM(r.revenue) DESC")
+    List<TechniqueSalesDto> findTopTechniques(@Param("estado") VentaEstado estado, Pageable pageable);
+
+    // Serie temporal: cada fila es (inicio del periodo, tecnica, cantidad, ingresos); unit es day, week o month
+    @Query(value = "SELECT CAST(date_trunc(:unit, r.day) AS date) AS bucket, r.technique, r.technique, " +
+            "SUM(r.sales_count), SUM(r.revenue) " +
+            "FROM sales_daily_by_technique r " +
+            "WHERE r.day BETWEEN :from AND :to AND r.estado_venta IN (:estados) " +
+            "GROUP BY 1, 2 ORDER BY 1, 5 DESC",
+            nativeQuery = true)
+    List<Object[]> sumByBucket(@Param("unit") String unit, @Param("from") LocalDate from, @Param("to") LocalDate to,
+                               @Param("estados") Collection<String> estados);
+}
@@ -9,6 +9,7 @@ import com.artemisia_corp.artemisia.entity.dto.nota_venta.NotaVentaResponseDto;
 import com.artemisia_corp.artemisia.entity.enums.AuctionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 public interface AuctionService {
     Page<AuctionResponseDto> getAllAuctions(Pageable pageable);
@@ -22,4 +23,6 @@ public interface AuctionService {
     Page<AuctionParticipantResponseDto> getBidsByAuction(Long auctionId, Pageable pageable);
     NotaVentaResponseDto confirmAuctionPurchase(AuctionConfirmPurchaseDto confirmDto);
     void processExpiredAuctions();
+    void expireAuction(Long auctionId);
+    SseEmitter streamAuctionEvents(Long auctionId);
 }
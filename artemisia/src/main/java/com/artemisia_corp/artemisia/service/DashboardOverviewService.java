@@ -0,0 +1,9 @@
+package com.artemisia_corp.artemisia.service;
+
+import com.artemisia_corp.artemisia.entity.dto.admin_dashboard.AdminDashboardOverviewDto;
+import com.artemisia_corp.artemisia.entity.dto.seller_dashboard.SellerDashboardOverviewDto;
+
+public interface DashboardOverviewService {
+    AdminDashboardOverviewDto getAdminOverview(int limit);
+    SellerDashboardOverviewDto getSellerOverview(Long sellerId, int limit);
+}
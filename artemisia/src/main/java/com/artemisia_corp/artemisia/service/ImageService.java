@@ -1,9 +1,19 @@
 package com.artemisia_corp.artemisia.service;
 
+import com.artemisia_corp.artemisia.entity.dto.image.ImageFileDto;
+import com.artemisia_corp.artemisia.entity.dto.image.ImageResponseDto;
 import com.artemisia_corp.artemisia.entity.dto.image.ImageUploadDto;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
 
 public interface ImageService {
-    void uploadImage(ImageUploadDto dto);
+    ImageResponseDto uploadImage(Long productId, MultipartFile file);
+    ImageResponseDto uploadImage(ImageUploadDto dto);
+    ImageResponseDto getImage(Long id);
     void deleteImage(Long id);
-    String getLatestImage(Long productId);
+    List<ImageResponseDto> getProductImages(Long productId);
+    ImageResponseDto setPrimaryImage(Long id);
+    List<ImageResponseDto> reorderImages(Long productId, List<Long> imageIds);
+    ImageFileDto getImageFile(Long id, String rendition);
 }
@@ -1,11 +1,17 @@
 package com.artemisia_corp.artemisia.service;
 
+import com.artemisia_corp.artemisia.entity.dto.logs.LogsPageDto;
 import com.artemisia_corp.artemisia.entity.dto.logs.LogsResponseDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
 import java.util.List;
 
 public interface LogsService {
-    List<LogsResponseDto> getAllLogs();
+    List<LogsResponseDto> getRecentLogs(int limit);
+    LogsPageDto getLogs(String level, Date from, Date to, String cursor, int size);
+    long streamLogs(String level, Date from, Date to, OutputStream out) throws IOException;
     void info(String message);
     void warning(String message);
     void error(String message);
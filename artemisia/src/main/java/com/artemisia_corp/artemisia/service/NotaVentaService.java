@@ -8,6 +8,9 @@ import com.artemisia_corp.artemisia.integracion.impl.dtos.StereumPagaResponseDto
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+import java.util.Map;
+
 public interface NotaVentaService {
     Page<NotaVentaResponseDto> getAllNotasVenta(Pageable pageable);
     NotaVentaResponseDto getNotaVentaById(Long id);
@@ -16,10 +19,11 @@ public interface NotaVentaService {
     void deleteNotaVenta(Long id);
     void completeNotaVenta(Long id);
     void cancelarNotaVenta(Long id);
+    Map<Long, VentaEstado> applyReconciledPayments(List<PendingTransactionDto> paid, List<PendingTransactionDto> cancelled);
     Page<NotaVentaResponseDto> getNotasVentaByEstado(VentaEstado estado, Pageable pageable);
     Page<NotaVentaResponseDto> getCompletedSalesByUser(Long userId, Pageable pageable);
     void ingresarIdTransaccion(String idTransaccion, Long notaVentaId);
-    void obtenerRespuestaTransaccion(RespuestaVerificacionNotaVentaDto respuesta);
+    boolean obtenerRespuestaTransaccion(RespuestaVerificacionNotaVentaDto respuesta);
     void assignAddressToNotaVenta(SetAddressDto setAddressDto);
     EstdoNotaVentaResponseDto obtenerEstadoTransaccion(Long userId);
     NotaVentaResponseDto getActiveCartByUserId(Long userId);
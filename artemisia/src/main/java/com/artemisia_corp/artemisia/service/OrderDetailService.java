@@ -8,7 +8,9 @@ import com.artemisia_corp.artemisia.entity.dto.order_detail.UpdateQuantityDetail
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface OrderDetailService {
     Page<OrderDetailResponseDto> getAllOrderDetails(Pageable pageable);
@@ -19,5 +21,8 @@ public interface OrderDetailService {
     void deleteOrderDetail(Long id);
     Page<OrderDetailResponseDto> getOrderDetailsByNotaVenta(Long notaVentaId, Pageable pageable);
     List<OrderDetailResponseDto> getOrderDetailsByNotaVenta(Long notaVentaId);
+    int repriceOpenCarts(Collection<Long> cartIds);
+    int repriceOpenCartsForProduct(Long productId);
+    Map<Long, List<OrderDetailResponseDto>> getOrderDetailsByNotasVenta(Collection<Long> notaVentaIds);
     Page<OrderDetailResponseDto> getOrderDetailsBySeller(Long sellerId, Pageable pageable);
 }
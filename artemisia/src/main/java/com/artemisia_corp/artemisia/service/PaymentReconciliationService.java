@@ -0,0 +1,8 @@
+package com.artemisia_corp.artemisia.service;
+
+import com.artemisia_corp.artemisia.entity.dto.nota_venta.ReconciliationStatsDto;
+
+public interface PaymentReconciliationService {
+    void reconcilePendingTransactions();
+    ReconciliationStatsDto getStats();
+}
@@ -0,0 +1,8 @@
+package com.artemisia_corp.artemisia.service;
+
+import com.artemisia_corp.artemisia.entity.dto.nota_venta.RespuestaVerificacionNotaVentaDto;
+
+public interface PaymentWebhookService {
+    void receive(RespuestaVerificacionNotaVentaDto notification, String payload);
+    void retryPending();
+}
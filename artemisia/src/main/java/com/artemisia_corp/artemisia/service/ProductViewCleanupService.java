@@ -0,0 +1,10 @@
+package com.artemisia_corp.artemisia.service;
+
+import com.artemisia_corp.artemisia.entity.dto.product.ProductViewCleanupStatusDto;
+
+public interface ProductViewCleanupService {
+    ProductViewCleanupStatusDto start(int daysToKeep, boolean resume);
+    void runScheduledCleanup();
+    ProductViewCleanupStatusDto cancel();
+    ProductViewCleanupStatusDto getStatus();
+}
@@ -11,10 +11,9 @@ public interface ProductViewService {
     List<ProductResponseDto> getUserRecentlyViewedProducts(Long userId, int limit);
     List<ProductResponseDto> getUserMostViewedProducts(Long userId, int limit);
     Map<Long, Double> getUserViewWeights(Long userId);
-    void cleanupOldViews(int daysToKeep);
     List<Long> getSimilarProductsBasedOnViews(Long userId, Long productId, int limit);
     Map<String, Object> getUserViewStatistics(Long userId);
     boolean hasUserViewedProduct(Long userId, Long productId);
     boolean hasUserViewedAnyProduct(Long userId);
     void trackUserFirstLogin(Long userId, List<Long> productIds);
-}
\ No newline at end of file
+}
\ No newline at end of file
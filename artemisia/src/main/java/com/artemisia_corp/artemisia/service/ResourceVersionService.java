@@ -0,0 +1,13 @@
+package com.artemisia_corp.artemisia.service;
+
+import com.artemisia_corp.artemisia.entity.dto.cache.ResourceVersionDto;
+import org.springframework.data.domain.Pageable;
+
+public interface ResourceVersionService {
+    ResourceVersionDto getProductVersion(Long productId);
+    ResourceVersionDto getAllProductsVersion(Pageable pageable, Long userId);
+    ResourceVersionDto getAvailableProductsVersion(Pageable pageable, Long userId);
+    ResourceVersionDto getCategoryVersion(Long categoryId, Pageable pageable);
+    ResourceVersionDto getTechniqueVersion(Long techniqueId, Pageable pageable);
+    ResourceVersionDto getAuctionVersion(Long auctionId);
+}
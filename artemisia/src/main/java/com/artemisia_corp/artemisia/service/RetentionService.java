@@ -0,0 +1,9 @@
+package com.artemisia_corp.artemisia.service;
+
+import java.util.List;
+
+public interface RetentionService {
+    void migrateLogTable();
+    void applyRetention();
+    List<String> getLogPartitions();
+}
@@ -0,0 +1,14 @@
+package com.artemisia_corp.artemisia.service;
+
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface SalesExportService {
+    String CSV = "csv";
+    String NDJSON = "ndjson";
+
+    long export(String format, VentaEstado estado, LocalDate from, LocalDate to, OutputStream out) throws IOException;
+}
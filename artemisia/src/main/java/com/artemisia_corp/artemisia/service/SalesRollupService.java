@@ -0,0 +1,22 @@
+package com.artemisia_corp.artemisia.service;
+
+import com.artemisia_corp.artemisia.entity.dto.admin_dashboard.*;
+import com.artemisia_corp.artemisia.entity.enums.SalesBreakdown;
+import com.artemisia_corp.artemisia.entity.enums.TimeBucket;
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public interface SalesRollupService {
+    void recordTransition(Long notaVentaId, VentaEstado from, VentaEstado to);
+    SalesSummaryDto getSalesSummary();
+    List<CategorySalesDto> getTopCategories(int limit);
+    List<TechniqueSalesDto> getTopTechniques(int limit);
+    List<SellerPerformanceDto> getSellerPerformance();
+    Map<VentaEstado, Long> getOrderStatusSummary();
+    SalesTimeSeriesDto getSalesTimeSeries(LocalDate from, LocalDate to, TimeBucket granularity,
+                                          SalesBreakdown breakdown, List<VentaEstado> estados);
+    RollupBackfillResultDto rebuild();
+}
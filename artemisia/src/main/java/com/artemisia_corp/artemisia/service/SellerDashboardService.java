@@ -0,0 +1,9 @@
+package com.artemisia_corp.artemisia.service;
+
+import com.artemisia_corp.artemisia.entity.dto.seller_dashboard.SellerDashboardDto;
+
+public interface SellerDashboardService {
+    SellerDashboardDto getDashboard(Long sellerId);
+    SellerDashboardDto getDashboard(Long sellerId, int topProductsLimit);
+    void refreshChangedSellers();
+}
@@ -8,6 +8,7 @@ import com.artemisia_corp.artemisia.entity.Product;
 import com.artemisia_corp.artemisia.entity.User;
 import com.artemisia_corp.artemisia.entity.dto.auction.AuctionBidRequestDto;
 import com.artemisia_corp.artemisia.entity.dto.auction.AuctionConfirmPurchaseDto;
+import com.artemisia_corp.artemisia.entity.dto.auction.AuctionEventDto;
 import com.artemisia_corp.artemisia.entity.dto.auction.AuctionParticipantResponseDto;
 import com.artemisia_corp.artemisia.entity.dto.auction.AuctionRequestDto;
 import com.artemisia_corp.artemisia.entity.dto.auction.AuctionResponseDto;
@@ -26,21 +27,33 @@ import com.artemisia_corp.artemisia.repository.NotaVentaRepository;
 import com.artemisia_corp.artemisia.repository.ProductRepository;
 import com.artemisia_corp.artemisia.repository.UserRepository;
 import com.artemisia_corp.artemisia.service.AuctionService;
-import com.artemisia_corp.artemisia.service.ImageService;
 import com.artemisia_corp.artemisia.service.LogsService;
 import com.artemisia_corp.artemisia.service.NotaVentaService;
 import com.artemisia_corp.artemisia.service.OrderDetailService;
+import com.artemisia_corp.artemisia.service.impl.auction.AuctionBatchCloser;
+import com.artemisia_corp.artemisia.service.impl.auction.AuctionBidEngine;
+import com.artemisia_corp.artemisia.service.impl.auction.AuctionBook;
+import com.artemisia_corp.artemisia.service.impl.auction.AuctionEventBroadcaster;
+import com.artemisia_corp.artemisia.service.impl.auction.AuctionExpiryScheduler;
+import com.artemisia_corp.artemisia.service.impl.auction.BidOutcome;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -55,7 +68,12 @@ public class AuctionServiceImpl implements AuctionService {
     private final OrderDetailService orderDetailService;
     private final NotaVentaService notaVentaService;
     private final LogsService logsService;
-    private final ImageService imageService;
+    private final AuctionBidEngine bidEngine;
+    private final AuctionEventBroadcaster eventBroadcaster;
+    private final AuctionExpiryScheduler expiryScheduler;
+    private final AuctionBatchCloser batchCloser;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
@@ -173,6 +191,8 @@ public class AuctionServiceImpl implements AuctionService {
         product.setStatus(ProductStatus.ON_AUCTION);
         productRepository.save(product);
 
+        expiryScheduler.scheduleAfterCommit(savedAuction.getId(), savedAuction.getEndDate());
+
         logsService.info("Auction created with ID: " + savedAuction.getId() + " for product ID: " + product.getId());
         return toDto(savedAuction);
     }
@@ -201,7 +221,6 @@ public class AuctionServiceImpl implements AuctionService {
     }
 
     @Override
-    @Transactional
     public AuctionParticipantResponseDto placeBid(AuctionBidRequestDto bidDto) {
         if (bidDto == null || bidDto.getAuctionId() == null || bidDto.getParticipantId() == null) {
             throw new IllegalArgumentException("Auction ID and participant ID are required.");
@@ -209,25 +228,26 @@ public class AuctionServiceImpl implements AuctionService {
         if (bidDto.getBidAmount() == null || bidDto.getBidAmount() <= 0) {
             throw new IllegalArgumentException("Bid amount must be greater than 0.");
         }
-
-        Auction auction = auctionRepository.findById(bidDto.getAuctionId())
-                .orElseThrow(() -> {
-                    logsService.error("Auction not found with ID: " + bidDto.getAuctionId());
-                    return new NotDataFoundException("Auction not found with ID: " + bidDto.getAuctionId());
-                });
-
-        auction = refreshIfExpired(auction);
-
-        if (auction.getStatus() != AuctionStatus.ACTIVE) {
-            throw new OperationException("La subasta no está activa");
+        if (bidDto.getMaxAmount() != null && bidDto.getMaxAmount() < bidDto.getBidAmount()) {
+            throw new IllegalArgumentException("Maximum amount must be greater than or equal to the bid amount.");
         }
 
-        if (auction.getSeller().getId().equals(bidDto.getParticipantId())) {
-            throw new OperationException("No puedes pujar en tu propia subasta");
+        AuctionBook book;
+        try {
+            book = bidEngine.getBook(bidDto.getAuctionId());
+        } catch (NotDataFoundException e) {
+            logsService.error("Auction not found with ID: " + bidDto.getAuctionId());
+            throw e;
+        }
+        if (book == null) {
+            throw new OperationException("La subasta no está activa");
         }
 
-        if (bidDto.getBidAmount() <= auction.getCurrentPrice()) {
-            throw new OperationException("La puja debe ser mayor al monto actual: " + auction.getCurrentPrice());
+        LocalDateTime now = LocalDateTime.now();
+        if (book.isOpen() && book.isExpired(now)) {
+            transactionTemplate.executeWithoutResult(status ->
+                    auctionRepository.findById(bidDto.getAuctionId()).ifPresent(this::refreshIfExpired));
+            throw new OperationException("La subasta no está activa");
         }
 
         User participant = userRepository.findById(bidDto.getParticipantId())
@@ -236,33 +256,45 @@ public class AuctionServiceImpl implements AuctionService {
                     return new NotDataFoundException("User not found with ID: " + bidDto.getParticipantId());
                 });
 
-        AuctionParticipant auctionParticipant = auctionParticipantRepository
-                .findByAuction_IdAndParticipant_Id(auction.getId(), participant.getId())
-                .orElse(AuctionParticipant.builder()
-                        .auction(auction)
-                        .participant(participant)
-                        .build());
-
-        auctionParticipant.setBidAmount(bidDto.getBidAmount());
-        auctionParticipant.setBidDate(LocalDateTime.now());
-        AuctionParticipant savedParticipant = auctionParticipantRepository.save(auctionParticipant);
-
-        auction.setCurrentPrice(bidDto.getBidAmount());
-        auctionRepository.save(auction);
+        // La validacion contra el precio actual, la resolucion de pujas automaticas y la actualizacion
+        // ocurren bajo el lock de la subasta; la puja se escribe en base de datos en el siguiente lote del motor
+        BidOutcome outcome = book.placeBid(participant.getId(), bidDto.getBidAmount(), bidDto.getMaxAmount(), now);
+        if (outcome.isExtended()) {
+            expiryScheduler.reschedule(outcome.getAuctionId(), outcome.getEndDate());
+            logsService.info("Auction ID: " + outcome.getAuctionId() + " extended until " + outcome.getEndDate() + " by a late bid");
+        }
 
-        logsService.info("User ID: " + participant.getId() + " placed a bid of " + bidDto.getBidAmount() + " on auction ID: " + auction.getId());
-        return new AuctionParticipantResponseDto(savedParticipant);
+        eventBroadcaster.publish(AuctionEventDto.builder()
+                .type(AuctionEventDto.BID)
+                .auctionId(outcome.getAuctionId())
+                .status(AuctionStatus.ACTIVE.name())
+                .currentPrice(outcome.getCurrentPrice())
+                .highestBidderId(outcome.getHighestBidderId())
+                .endDate(outcome.getEndDate())
+                .sequence(outcome.getSequence())
+                .timestamp(now)
+                .build());
+
+        logsService.info("User ID: " + participant.getId() + " placed a bid of " + bidDto.getBidAmount() + " on auction ID: " + bidDto.getAuctionId());
+        return AuctionParticipantResponseDto.builder()
+                .auctionId(outcome.getAuctionId())
+                .participantId(participant.getId())
+                .participantName(participant.getName())
+                .bidAmount(outcome.getBidAmount())
+                .bidDate(outcome.getBidDate())
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<AuctionParticipantResponseDto> getBidsByAuction(Long auctionId, Pageable pageable) {
-        if (!auctionRepository.existsById(auctionId)) {
+        Page<AuctionParticipant> bids = auctionParticipantRepository.findByAuctionIdOrderByBidAmountDesc(auctionId, pageable);
+        // Solo una pagina vacia necesita distinguir entre subasta sin pujas y subasta inexistente
+        if (bids.isEmpty() && !auctionRepository.existsById(auctionId)) {
             logsService.error("Auction not found with ID: " + auctionId);
             throw new NotDataFoundException("Auction not found with ID: " + auctionId);
         }
-        return auctionParticipantRepository.findByAuctionIdOrderByBidAmountDesc(auctionId, pageable)
-                .map(AuctionParticipantResponseDto::new);
+        return bids.map(AuctionParticipantResponseDto::new);
     }
 
     @Override
@@ -309,47 +341,144 @@ public class AuctionServiceImpl implements AuctionService {
         return notaVentaService.convertToDtoWithDetails(notaVenta);
     }
 
+    /**
+     * Respaldo del {@link AuctionExpiryScheduler}: recoge las subastas vencidas que no se finalizaron
+     * a tiempo (por ejemplo, tras un error), las cierra por lotes y finaliza una a una las que el
+     * lote no pudo cerrar, cada una en su propia transaccion.
+     */
     @Override
-    @Scheduled(fixedRate = 60000)
-    @Transactional
+    @Scheduled(fixedDelayString = "${artemisia.auction.expiry.safety-poll-ms:60000}")
     public void processExpiredAuctions() {
-        List<Auction> expiredAuctions = auctionRepository.findExpiredActiveAuctions(LocalDateTime.now());
-        for (Auction auction : expiredAuctions) {
-            finishAuction(auction);
+        List<Long> expiredIds = auctionRepository.findExpiredActiveAuctionIds(LocalDateTime.now());
+        if (expiredIds.isEmpty()) return;
+
+        Set<Long> closed = new HashSet<>(batchCloser.closeExpired(expiredIds));
+        closed.forEach(expiryScheduler::cancel);
+        for (Long auctionId : expiredIds) {
+            if (closed.contains(auctionId)) continue;
+            try {
+                transactionTemplate.executeWithoutResult(status -> expireAuction(auctionId));
+            } catch (Exception e) {
+                log.error("Could not finish expired auction {}: {}", auctionId, e.getMessage(), e);
+            }
         }
     }
 
+    @Override
+    @Transactional
+    public void expireAuction(Long auctionId) {
+        auctionRepository.findById(auctionId).ifPresent(auction -> {
+            Auction refreshed = refreshIfExpired(auction);
+            if (refreshed.getStatus() == AuctionStatus.ACTIVE) {
+                // Se extendio por cierre suave mientras el vencimiento estaba en curso
+                expiryScheduler.scheduleAfterCommit(auctionId, effectiveEndDate(refreshed));
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SseEmitter streamAuctionEvents(Long auctionId) {
+        Auction auction = auctionRepository.findById(auctionId)
+                .orElseThrow(() -> {
+                    logsService.error("Auction not found with ID: " + auctionId);
+                    return new NotDataFoundException("Auction not found with ID: " + auctionId);
+                });
+
+        AuctionEventDto snapshot = AuctionEventDto.builder()
+                .type(AuctionEventDto.SNAPSHOT)
+                .auctionId(auction.getId())
+                .status(auction.getStatus().name())
+                .currentPrice(auction.getCurrentPrice())
+                .highestBidderId(auction.getHighestBidder() != null ? auction.getHighestBidder().getId() : null)
+                .winnerId(auction.getWinner() != null ? auction.getWinner().getId() : null)
+                .endDate(auction.getEndDate())
+                .timestamp(LocalDateTime.now())
+                .build();
+        bidEngine.findBook(auctionId)
+                .filter(AuctionBook::isOpen)
+                .ifPresent(book -> {
+                    snapshot.setCurrentPrice(book.getCurrentPrice());
+                    snapshot.setHighestBidderId(book.getHighestBidderId());
+                    snapshot.setSequence(book.getSequence());
+                    snapshot.setEndDate(book.getEndDate());
+                });
+
+        return eventBroadcaster.subscribe(auctionId, snapshot, auction.getStatus() != AuctionStatus.ACTIVE);
+    }
+
     private AuctionResponseDto toDto(Auction auction) {
-        String image = imageService.getLatestImage(auction.getProduct().getId());
-        return new AuctionResponseDto(auction, image);
+        AuctionResponseDto dto = new AuctionResponseDto(auction);
+        // El precio en memoria puede ir unos milisegundos por delante del ultimo lote persistido
+        bidEngine.findBook(auction.getId())
+                .filter(AuctionBook::isOpen)
+                .ifPresent(book -> {
+                    dto.setCurrentPrice(book.getCurrentPrice());
+                    dto.setHighestBidderId(book.getHighestBidderId());
+                    dto.setEndDate(book.getEndDate());
+                });
+        return dto;
     }
 
     private Auction refreshIfExpired(Auction auction) {
-        if (auction.getStatus() == AuctionStatus.ACTIVE && !auction.getEndDate().isAfter(LocalDateTime.now())) {
+        if (auction.getStatus() == AuctionStatus.ACTIVE && !effectiveEndDate(auction).isAfter(LocalDateTime.now())) {
             return finishAuction(auction);
         }
         return auction;
     }
 
+    // Una extension por cierre suave vive en el libro hasta que el siguiente lote la persiste
+    private LocalDateTime effectiveEndDate(Auction auction) {
+        return bidEngine.findBook(auction.getId())
+                .filter(AuctionBook::isOpen)
+                .map(AuctionBook::getEndDate)
+                .filter(end -> end.isAfter(auction.getEndDate()))
+                .orElse(auction.getEndDate());
+    }
+
     private Auction finishAuction(Auction auction) {
-        Page<AuctionParticipant> topBid = auctionParticipantRepository
-                .findByAuctionIdOrderByBidAmountDesc(auction.getId(), PageRequest.of(0, 1));
+        expiryScheduler.cancel(auction.getId());
+        // Cierra el libro en memoria y persiste las pujas pendientes antes de elegir al ganador
+        AuctionBook book = bidEngine.close(auction.getId());
+        // El lote pendiente se escribio en otra transaccion (fecha de fin, lider): se recarga la fila
+        // bloqueada para no pisarlo al guardar, y por si otro cierre se adelanto
+        entityManager.refresh(auction, LockModeType.PESSIMISTIC_WRITE);
+        if (auction.getStatus() != AuctionStatus.ACTIVE) {
+            return auction;
+        }
 
-        Product product = auction.getProduct();
+        User winner = null;
+        Double winningAmount = null;
+        if (book != null && book.getHighestBidderId() != null) {
+            winner = userRepository.findById(book.getHighestBidderId()).orElse(null);
+            winningAmount = book.getCurrentPrice();
+        }
+        if (winner == null && auction.getHighestBidder() != null) {
+            // El lote del motor ya dejo el lider y su precio en la subasta
+            winner = auction.getHighestBidder();
+            winningAmount = auction.getCurrentPrice();
+        }
+        if (winner == null) {
+            AuctionParticipant topBid = auctionParticipantRepository
+                    .findFirstByAuction_IdOrderByBidAmountDesc(auction.getId()).orElse(null);
+            if (topBid != null) {
+                winner = topBid.getParticipant();
+                winningAmount = topBid.getBidAmount();
+            }
+        }
 
-        if (!topBid.isEmpty()) {
-            AuctionParticipant winnerBid = topBid.getContent().get(0);
-            User winner = winnerBid.getParticipant();
+        Product product = auction.getProduct();
 
+        if (winner != null) {
             auction.setWinner(winner);
-            auction.setCurrentPrice(winnerBid.getBidAmount());
+            auction.setCurrentPrice(winningAmount);
             auction.setStatus(AuctionStatus.FINISHED);
 
             NotaVenta notaVenta = NotaVenta.builder()
                     .buyer(winner)
                     .estadoVenta(VentaEstado.ON_CART)
                     .date(LocalDateTime.now())
-                    .totalGlobal(winnerBid.getBidAmount())
+                    .totalGlobal(winningAmount)
                     .monedaCarrito("BOB")
                     .preciosConvertidos(true)
                     .build();
@@ -361,12 +490,12 @@ public class AuctionServiceImpl implements AuctionService {
                     .sellerId(auction.getSeller().getId())
                     .productName(product.getName())
                     .quantity(1)
-                    .total(winnerBid.getBidAmount())
+                    .total(winningAmount)
                     .build();
             orderDetailService.createOrderDetail(detailDto, savedNotaVenta, product);
 
             auction.setNotaVenta(savedNotaVenta);
-            logsService.info("Auction ID: " + auction.getId() + " finished. Winner: user ID " + winner.getId() + " with bid " + winnerBid.getBidAmount());
+            logsService.info("Auction ID: " + auction.getId() + " finished. Winner: user ID " + winner.getId() + " with bid " + winningAmount);
         } else {
             auction.setStatus(AuctionStatus.CANCELLED);
             logsService.info("Auction ID: " + auction.getId() + " cancelled (no bids received)");
@@ -377,6 +506,30 @@ public class AuctionServiceImpl implements AuctionService {
             productRepository.save(product);
         }
 
-        return auctionRepository.save(auction);
+        Auction saved = auctionRepository.save(auction);
+        publishClosedAfterCommit(saved);
+        return saved;
+    }
+
+    private void publishClosedAfterCommit(Auction auction) {
+        AuctionEventDto event = AuctionEventDto.builder()
+                .type(AuctionEventDto.CLOSED)
+                .auctionId(auction.getId())
+                .status(auction.getStatus().name())
+                .currentPrice(auction.getCurrentPrice())
+                .winnerId(auction.getWinner() != null ? auction.getWinner().getId() : null)
+                .endDate(auction.getEndDate())
+                .timestamp(LocalDateTime.now())
+                .build();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventBroadcaster.publishClosed(event);
+                }
+            });
+        } else {
+            eventBroadcaster.publishClosed(event);
+        }
     }
 }
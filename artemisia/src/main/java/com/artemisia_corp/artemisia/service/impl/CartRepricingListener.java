@@ -0,0 +1,34 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.event.ProductPriceChangedEvent;
+import com.artemisia_corp.artemisia.service.LogsService;
+import com.artemisia_corp.artemisia.service.OrderDetailService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Recalcula los carritos abiertos cuando cambia el precio de un producto. Corre fuera de la peticion
+ * que edito el producto y solo si el cambio se confirmo.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class CartRepricingListener {
+    private final OrderDetailService orderDetailService;
+    private final LogsService logsService;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductPriceChanged(ProductPriceChangedEvent event) {
+        try {
+            orderDetailService.repriceOpenCartsForProduct(event.getProductId());
+        } catch (Exception e) {
+            log.error("Could not reprice carts for product {}: {}", event.getProductId(), e.getMessage(), e);
+            logsService.error("Error repricing carts for product ID: " + event.getProductId() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.dto.admin_dashboard.*;
+import com.artemisia_corp.artemisia.entity.dto.nota_venta.NotaVentaResponseDto;
+import com.artemisia_corp.artemisia.entity.dto.order_detail.OrderDetailResponseDto;
+import com.artemisia_corp.artemisia.entity.dto.seller_dashboard.SellerDashboardDto;
+import com.artemisia_corp.artemisia.entity.dto.seller_dashboard.SellerDashboardOverviewDto;
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import com.artemisia_corp.artemisia.repository.UserRepository;
+import com.artemisia_corp.artemisia.service.*;
+import com.artemisia_corp.artemisia.service.impl.dashboard.DashboardSectionRunner;
+import com.artemisia_corp.artemisia.service.impl.dashboard.DashboardSectionRunner.Section;
+import com.artemisia_corp.artemisia.service.impl.dashboard.DashboardSectionRunner.Sections;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@AllArgsConstructor
+public class DashboardOverviewServiceImpl implements DashboardOverviewService {
+    private final DashboardSectionRunner sectionRunner;
+    private final SalesRollupService salesRollupService;
+    private final SellerDashboardService sellerDashboardService;
+    private final NotaVentaService notaVentaService;
+    private final OrderDetailService orderDetailService;
+    private final UserRepository userRepository;
+
+    @Override
+    public AdminDashboardOverviewDto getAdminOverview(int limit) {
+        Sections sections = sectionRunner.open();
+        Section<SalesSummaryDto> summary = sections.submit("salesSummary", salesRollupService::getSalesSummary);
+        Section<NewUsersReportDto> newUsers = sections.submit("newUsers", this::newUsersThisMonth);
+        Section<List<CategorySalesDto>> categories = sections.submit("topCategories",
+                () -> salesRollupService.getTopCategories(limit));
+        Section<List<TechniqueSalesDto>> techniques = sections.submit("topTechniques",
+                () -> salesRollupService.getTopTechniques(limit));
+        Section<List<SellerPerformanceDto>> sellers = sections.submit("sellerPerformance",
+                salesRollupService::getSellerPerformance);
+        Section<Map<VentaEstado, Long>> statuses = sections.submit("orderStatusSummary",
+                salesRollupService::getOrderStatusSummary);
+        sections.await();
+
+        return AdminDashboardOverviewDto.builder()
+                .salesSummary(summary.value())
+                .newUsers(newUsers.value())
+                .topCategories(categories.value())
+                .topTechniques(techniques.value())
+                .sellerPerformance(sellers.value())
+                .orderStatusSummary(statuses.value())
+                .sectionTimingsMs(sections.getTimingsMs())
+                .failedSections(sections.getFailed())
+                .totalMs(sections.getTotalMs())
+                .build();
+    }
+
+    @Override
+    public SellerDashboardOverviewDto getSellerOverview(Long sellerId, int limit) {
+        if (sellerId == null) {
+            throw new IllegalArgumentException("Seller id is required");
+        }
+        Sections sections = sectionRunner.open();
+        Section<SellerDashboardDto> dashboard = sections.submit("dashboard",
+                () -> sellerDashboardService.getDashboard(sellerId, limit));
+        Section<List<NotaVentaResponseDto>> pending = sections.submit("pendingShipments",
+                () -> notaVentaService.getNotasVentaBySellerAndEstado(sellerId, VentaEstado.PAYED,
+                        PageRequest.of(0, limit)).getContent());
+        Section<List<OrderDetailResponseDto>> recent = sections.submit("recentOrders",
+                () -> orderDetailService.getOrderDetailsBySeller(sellerId,
+                        PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdDate"))).getContent());
+        sections.await();
+
+        return SellerDashboardOverviewDto.builder()
+                .dashboard(dashboard.value())
+                .pendingShipments(pending.value())
+                .recentOrders(recent.value())
+                .sectionTimingsMs(sections.getTimingsMs())
+                .failedSections(sections.getFailed())
+                .totalMs(sections.getTotalMs())
+                .build();
+    }
+
+    private NewUsersReportDto newUsersThisMonth() {
+        ZoneId zone = ZoneId.systemDefault();
+        Date start = Date.from(LocalDate.now().withDayOfMonth(1).atStartOfDay(zone).toInstant());
+        Date end = new Date();
+        return new NewUsersReportDto(start, end, userRepository.countByCreatedDateBetween(start, end));
+    }
+}
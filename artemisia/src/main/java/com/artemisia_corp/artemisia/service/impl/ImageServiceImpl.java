@@ -2,25 +2,69 @@ package com.artemisia_corp.artemisia.service.impl;
 
 import com.artemisia_corp.artemisia.entity.Image;
 import com.artemisia_corp.artemisia.entity.Product;
+import com.artemisia_corp.artemisia.entity.dto.image.ImageFileDto;
+import com.artemisia_corp.artemisia.entity.dto.image.ImageResponseDto;
 import com.artemisia_corp.artemisia.entity.dto.image.ImageUploadDto;
+import com.artemisia_corp.artemisia.entity.enums.ImageStatus;
 import com.artemisia_corp.artemisia.exception.NotDataFoundException;
 import com.artemisia_corp.artemisia.repository.ImageRepository;
 import com.artemisia_corp.artemisia.repository.ProductRepository;
 import com.artemisia_corp.artemisia.service.ImageService;
 import com.artemisia_corp.artemisia.service.LogsService;
+import com.artemisia_corp.artemisia.service.impl.image.ImageDiskCache;
+import com.artemisia_corp.artemisia.service.impl.image.ImageRendition;
+import com.artemisia_corp.artemisia.service.impl.image.ImageRenditionGenerator;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Las imagenes se guardan primero en un archivo temporal y se registran como PENDING; la subida a
+ * Cloudinary corre despues en el pool de subidas y al terminar deja la imagen en UPLOADED o FAILED en una
+ * transaccion propia. Si se pide dentro de una transaccion, la subida espera a que confirme.
+ * <p>
+ * Junto con el original se generan los derivados (miniatura y mediano) y se suben con el mismo public ID
+ * mas un sufijo. Con Cloudinary desactivado el original se guarda en disco y los derivados se sirven
+ * desde la cache local en /api/images/{id}/renditions/{rendition}.
+ * <p>
+ * Cada producto tiene una galeria ordenada por {@code position} y una sola imagen principal, cuyas URLs
+ * se copian al producto: los listados leen solo la tabla product y el detalle carga la galeria en una
+ * consulta.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ImageServiceImpl implements ImageService {
 
@@ -28,52 +72,103 @@ public class ImageServiceImpl implements ImageService {
     private final ProductRepository productRepository;
     private final LogsService logsService;
     private final Cloudinary cloudinary;
+    private final TransactionTemplate transactionTemplate;
+    // Escrituras de la subida: con el pool lleno corre en el callback de fin de la transaccion que
+    // registro la imagen, donde unirse a esa transaccion ya terminada fallaria
+    private final TransactionTemplate uploadTransaction;
+    private final TaskExecutor imageUploadExecutor;
+    private final ImageRenditionGenerator renditionGenerator;
+    private final ImageDiskCache imageDiskCache;
+    private final Path spoolDir;
+    private final Path originalsDir;
+    private final boolean cloudinaryEnabled;
+
+    public ImageServiceImpl(ImageRepository imageRepository,
+                            ProductRepository productRepository,
+                            LogsService logsService,
+                            Cloudinary cloudinary,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier("imageUploadExecutor") TaskExecutor imageUploadExecutor,
+                            ImageRenditionGenerator renditionGenerator,
+                            ImageDiskCache imageDiskCache,
+                            @Value("${artemisia.images.spool-dir:${java.io.tmpdir}/artemisia-uploads}") String spoolDir,
+                            @Value("${artemisia.images.originals-dir:${java.io.tmpdir}/artemisia-originals}") String originalsDir,
+                            @Value("${artemisia.images.cloudinary-enabled:true}") boolean cloudinaryEnabled) {
+        this.imageRepository = imageRepository;
+        this.productRepository = productRepository;
+        this.logsService = logsService;
+        this.cloudinary = cloudinary;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.uploadTransaction = new TransactionTemplate(transactionManager);
+        this.uploadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.imageUploadExecutor = imageUploadExecutor;
+        this.renditionGenerator = renditionGenerator;
+        this.imageDiskCache = imageDiskCache;
+        this.spoolDir = Paths.get(spoolDir);
+        this.originalsDir = Paths.get(originalsDir);
+        this.cloudinaryEnabled = cloudinaryEnabled;
+    }
 
     @Override
-    @Transactional
-    public void uploadImage(ImageUploadDto dto) {
-        if (dto.getProductId() == null) {
-            throw new IllegalArgumentException("Product ID is required.");
+    public ImageResponseDto uploadImage(Long productId, MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Image file is required.");
+        }
+        String fileName = file.getOriginalFilename() != null && !file.getOriginalFilename().isBlank()
+                ? file.getOriginalFilename() : "image";
+        Product product = findProduct(productId);
+
+        Path spooled = createSpoolFile();
+        try {
+            // Con partes ya escritas a disco por el contenedor esto es un movimiento, no una copia
+            file.transferTo(spooled);
+        } catch (IOException e) {
+            deleteQuietly(spooled);
+            throw new UncheckedIOException("Could not store uploaded image", e);
         }
+        return register(product, fileName, spooled);
+    }
+
+    /**
+     * Variante en Base64 que sigue usando la creacion de productos. Decodifica en flujo hacia el archivo
+     * temporal en lugar de materializar la imagen decodificada en memoria.
+     */
+    @Override
+    public ImageResponseDto uploadImage(ImageUploadDto dto) {
         if (dto.getFileName() == null || dto.getFileName().trim().isEmpty()) {
             throw new IllegalArgumentException("File name is required.");
         }
         if (dto.getBase64Image() == null || dto.getBase64Image().trim().isEmpty()) {
             throw new IllegalArgumentException("Base64 image data is required.");
         }
+        Product product = findProduct(dto.getProductId());
 
-        Product product = productRepository.findById(dto.getProductId())
-                .orElseThrow(() -> new NotDataFoundException("Product not found with ID: " + dto.getProductId()));
-
-        try {
-            byte[] imageBytes = Base64.getDecoder().decode(dto.getBase64Image());
-
-            Map uploadResult = cloudinary.uploader().upload(imageBytes, ObjectUtils.asMap(
-                    "folder", "artemisia/products",
-                    "public_id", "product_" + dto.getProductId() + "_" + System.currentTimeMillis(),
-                    "resource_type", "auto"
-            ));
-
-            String cloudinaryUrl = (String) uploadResult.get("secure_url");
-            String publicId = (String) uploadResult.get("public_id");
-
-            Image image = Image.builder()
-                    .fileName(dto.getFileName())
-                    .cloudinaryUrl(cloudinaryUrl)
-                    .publicId(publicId)
-                    .product(product)
-                    .build();
-
-            imageRepository.save(image);
-            logsService.info("Image uploaded to Cloudinary for product ID: " + product.getId());
+        Path spooled = createSpoolFile();
+        try (InputStream decoded = Base64.getDecoder().wrap(
+                new ByteArrayInputStream(dto.getBase64Image().getBytes(StandardCharsets.ISO_8859_1)))) {
+            Files.copy(decoded, spooled, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | IllegalArgumentException e) {
+            deleteQuietly(spooled);
+            throw new IllegalArgumentException("Invalid Base64 image data.");
+        }
+        return register(product, dto.getFileName(), spooled);
+    }
 
-        } catch (IOException e) {
-            log.error("Failed to upload image to Cloudinary for product {}: {}", dto.getProductId(), e.getMessage());
-            logsService.error("Cloudinary upload failed for product ID: " + dto.getProductId());
-            throw new RuntimeException("Error uploading image to Cloudinary.", e);
+    @Override
+    @Transactional(readOnly = true)
+    public ImageResponseDto getImage(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Image ID is required.");
         }
+        return imageRepository.findById(id)
+                .map(ImageResponseDto::new)
+                .orElseThrow(() -> new NotDataFoundException("Image not found with ID: " + id));
     }
 
+    /**
+     * Borra la fila dentro de la transaccion; los archivos en Cloudinary y en disco se eliminan en el pool
+     * de subidas cuando el borrado confirma, sin retener la conexion durante las llamadas a Cloudinary.
+     */
     @Override
     @Transactional
     public void deleteImage(Long id) {
@@ -84,23 +179,397 @@ public class ImageServiceImpl implements ImageService {
         Image image = imageRepository.findById(id)
                 .orElseThrow(() -> new NotDataFoundException("Image not found with ID: " + id));
 
-        try {
-            cloudinary.uploader().destroy(image.getPublicId(), ObjectUtils.emptyMap());
-        } catch (IOException e) {
-            log.warn("Could not delete image from Cloudinary (publicId: {}): {}", image.getPublicId(), e.getMessage());
+        imageRepository.deleteById(id);
+        if (Boolean.TRUE.equals(image.getPrimaryImage())) {
+            applyPrimary(image.getProduct().getId(), null);
+        } else {
+            productRepository.incrementVersion(image.getProduct().getId());
         }
 
-        imageRepository.deleteById(id);
+        String publicId = image.getPublicId();
+        boolean withRenditions = image.getThumbnailUrl() != null;
+        Runnable cleanup = () -> removeStoredFiles(id, publicId, withRenditions);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    imageUploadExecutor.execute(cleanup);
+                }
+            });
+        } else {
+            imageUploadExecutor.execute(cleanup);
+        }
         logsService.info("Image deleted with ID: " + id);
     }
 
+    /**
+     * Imagenes subidas del producto en el orden de la galeria.
+     */
     @Override
     @Transactional(readOnly = true)
-    public String getLatestImage(Long productId) {
+    public List<ImageResponseDto> getProductImages(Long productId) {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product ID is required.");
+        }
+        return imageRepository.findByProductIdIn(List.of(productId)).stream()
+                .filter(image -> image.getStatus() == ImageStatus.UPLOADED)
+                .map(ImageResponseDto::new)
+                .toList();
+    }
+
+    @Override
+    public ImageResponseDto setPrimaryImage(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Image ID is required.");
+        }
+        Image image = imageRepository.findById(id)
+                .orElseThrow(() -> new NotDataFoundException("Image not found with ID: " + id));
+        if (image.getStatus() != ImageStatus.UPLOADED) {
+            throw new IllegalArgumentException("Only uploaded images can be the primary image.");
+        }
+        Image primary = applyPrimary(image.getProduct().getId(), id);
+        logsService.info("Primary image of product ID: " + image.getProduct().getId() + " set to image ID: " + id);
+        return new ImageResponseDto(primary);
+    }
+
+    /**
+     * Reordena la galeria; la lista tiene que traer todas las imagenes del producto, una sola vez cada una.
+     */
+    @Override
+    public List<ImageResponseDto> reorderImages(Long productId, List<Long> imageIds) {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product ID is required.");
+        }
+        if (imageIds == null || imageIds.isEmpty()) {
+            throw new IllegalArgumentException("Image order is required.");
+        }
+        List<Image> ordered = transactionTemplate.execute(status -> {
+            productRepository.lockForImageUpdate(productId);
+            List<Image> gallery = imageRepository.findByProductIdIn(List.of(productId));
+            Map<Long, Image> byId = gallery.stream().collect(Collectors.toMap(Image::getId, image -> image));
+            if (imageIds.size() != gallery.size() || !byId.keySet().equals(new HashSet<>(imageIds))) {
+                throw new IllegalArgumentException("Image order must contain every image of product " + productId + " exactly once.");
+            }
+            List<Image> result = new ArrayList<>();
+            for (int position = 0; position < imageIds.size(); position++) {
+                Image image = byId.get(imageIds.get(position));
+                image.setPosition(position);
+                result.add(image);
+            }
+            productRepository.incrementVersion(productId);
+            return imageRepository.saveAll(result);
+        });
+        logsService.info("Image gallery reordered for product ID: " + productId);
+        return ordered.stream()
+                .filter(image -> image.getStatus() == ImageStatus.UPLOADED)
+                .map(ImageResponseDto::new)
+                .toList();
+    }
+
+    /**
+     * Completa la imagen principal de productos con imagenes anteriores a la galeria y vuelve a copiar sus
+     * URLs al producto. Solo toca filas que no estan al dia.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillPrimaryImages() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int marked = imageRepository.markMissingPrimaryImages();
+                int synced = productRepository.syncPrimaryImages();
+                if (marked > 0 || synced > 0) {
+                    log.info("Marked {} primary images and synced {} products", marked, synced);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Primary image backfill failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Archivo local de un derivado (cache, o regenerado desde el original guardado en disco) o del
+     * original. Si no esta en disco se devuelve la URL de Cloudinary para redirigir.
+     */
+    @Override
+    public ImageFileDto getImageFile(Long id, String renditionKey) {
+        if (id == null) {
+            throw new IllegalArgumentException("Image ID is required.");
+        }
+        Path original = originalsDir.resolve(String.valueOf(id));
+        boolean isOriginal = "original".equalsIgnoreCase(renditionKey);
+        ImageRendition rendition = isOriginal ? null : ImageRendition.fromKey(renditionKey);
+        if (!isOriginal && rendition == null) {
+            throw new IllegalArgumentException("Unknown image rendition: " + renditionKey);
+        }
+
+        // Lo que ya esta en disco se sirve sin consultar la base
+        if (isOriginal && Files.exists(original)) {
+            return ImageDiskCache.describe(original, probeContentType(original));
+        }
+        if (!isOriginal) {
+            Optional<ImageFileDto> cached = imageDiskCache.get(rendition.fileName(id));
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            if (Files.exists(original) && regenerate(id, original)) {
+                return imageDiskCache.get(rendition.fileName(id)).orElseThrow(
+                        () -> new NotDataFoundException("Image rendition not available for image ID: " + id));
+            }
+        }
+
+        Image image = imageRepository.findById(id)
+                .orElseThrow(() -> new NotDataFoundException("Image not found with ID: " + id));
+        if (isOriginal) {
+            return redirectOrMissing(id, image.getCloudinaryUrl());
+        }
+        return redirectOrMissing(id, rendition == ImageRendition.THUMBNAIL ? image.getThumbnailUrl() : image.getMediumUrl());
+    }
+
+    private Product findProduct(Long productId) {
         if (productId == null) {
             throw new IllegalArgumentException("Product ID is required.");
         }
+        return productRepository.findById(productId)
+                .orElseThrow(() -> new NotDataFoundException("Product not found with ID: " + productId));
+    }
+
+    private ImageResponseDto register(Product product, String fileName, Path spooled) {
+        Image image;
+        try {
+            image = imageRepository.save(Image.builder()
+                    .fileName(fileName)
+                    .cloudinaryUrl("")
+                    .publicId("")
+                    .status(ImageStatus.PENDING)
+                    .position(imageRepository.nextPosition(product.getId()))
+                    .primaryImage(false)
+                    .product(product)
+                    .build());
+        } catch (RuntimeException e) {
+            deleteQuietly(spooled);
+            throw e;
+        }
+
+        Long imageId = image.getId();
+        Long productId = product.getId();
+        Runnable upload = () -> upload(imageId, productId, spooled);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        imageUploadExecutor.execute(upload);
+                    } else {
+                        deleteQuietly(spooled);
+                    }
+                }
+            });
+        } else {
+            imageUploadExecutor.execute(upload);
+        }
+        return new ImageResponseDto(image);
+    }
+
+    void upload(Long imageId, Long productId, Path spooled) {
+        Path renditionDir = null;
+        String publicId = null;
+        boolean renditionsUploaded = false;
+        try {
+            renditionDir = Files.createTempDirectory(spoolDir, "renditions-");
+            CompletableFuture<Map<ImageRendition, Path>> renditions =
+                    renditionGenerator.generateAsync(imageId, spooled, renditionDir);
+
+            String url;
+            Map<ImageRendition, String> renditionUrls = new EnumMap<>(ImageRendition.class);
+            if (cloudinaryEnabled) {
+                // El original sube mientras el pool de derivados genera las miniaturas
+                Map<?, ?> uploadResult = uploadToCloudinary(spooled, "product_" + productId + "_" + System.currentTimeMillis());
+                url = (String) uploadResult.get("secure_url");
+                publicId = (String) uploadResult.get("public_id");
+                String baseName = publicId.substring(publicId.lastIndexOf('/') + 1);
+                for (Map.Entry<ImageRendition, Path> rendition : renditions.join().entrySet()) {
+                    Map<?, ?> renditionResult = uploadToCloudinary(rendition.getValue(), baseName + "_" + rendition.getKey().getKey());
+                    renditionUrls.put(rendition.getKey(), (String) renditionResult.get("secure_url"));
+                    renditionsUploaded = true;
+                    imageDiskCache.put(rendition.getKey().fileName(imageId), rendition.getValue());
+                }
+            } else {
+                Map<ImageRendition, Path> generated = renditions.join();
+                Files.createDirectories(originalsDir);
+                Files.move(spooled, originalsDir.resolve(String.valueOf(imageId)), StandardCopyOption.REPLACE_EXISTING);
+                url = localUrl(imageId, "original");
+                publicId = "";
+                for (Map.Entry<ImageRendition, Path> rendition : generated.entrySet()) {
+                    imageDiskCache.put(rendition.getKey().fileName(imageId), rendition.getValue());
+                    renditionUrls.put(rendition.getKey(), localUrl(imageId, rendition.getKey().getKey()));
+                }
+            }
+
+            String uploadedPublicId = publicId;
+            int updated = uploadTransaction.execute(status -> imageRepository.updateUploadResult(imageId,
+                    ImageStatus.UPLOADED, url, uploadedPublicId,
+                    renditionUrls.get(ImageRendition.THUMBNAIL), renditionUrls.get(ImageRendition.MEDIUM), null));
+            if (updated == 0) {
+                // La imagen se elimino durante la subida: no dejar archivos huerfanos
+                removeStoredFiles(imageId, publicId, renditionsUploaded);
+                return;
+            }
+            logsService.info("Image uploaded for product ID: " + productId + " with " + renditionUrls.size() + " renditions");
+        } catch (Exception e) {
+            log.error("Failed to upload image {} for product {}: {}", imageId, productId, e.getMessage());
+            logsService.error("Image upload failed for product ID: " + productId);
+            if (publicId != null) {
+                removeStoredFiles(imageId, publicId, renditionsUploaded);
+            }
+            String error = e.getMessage() != null && e.getMessage().length() > 500
+                    ? e.getMessage().substring(0, 500) : e.getMessage();
+            uploadTransaction.executeWithoutResult(status ->
+                    imageRepository.updateUploadResult(imageId, ImageStatus.FAILED, "", "", null, null, error));
+            return;
+        } finally {
+            deleteQuietly(spooled);
+            deleteDirectoryQuietly(renditionDir);
+        }
+
+        // Fuera del try: la imagen ya esta subida aunque falle la copia al producto
+        try {
+            uploadTransaction.execute(status -> applyPrimary(productId, null));
+        } catch (RuntimeException e) {
+            log.warn("Could not update primary image of product {}: {}", productId, e.getMessage());
+        }
+    }
+
+    /**
+     * Deja una sola imagen principal en el producto (la pedida, la que ya lo era o la primera subida de la
+     * galeria) y copia sus URLs a product. Se une a la transaccion abierta si la hay.
+     */
+    private Image applyPrimary(Long productId, Long preferredId) {
+        return transactionTemplate.execute(status -> {
+            productRepository.lockForImageUpdate(productId);
+            List<Image> gallery = imageRepository.findByProductIdIn(List.of(productId));
+            List<Image> uploaded = gallery.stream()
+                    .filter(image -> image.getStatus() == ImageStatus.UPLOADED)
+                    .toList();
+            Image primary = uploaded.stream()
+                    .filter(image -> image.getId().equals(preferredId))
+                    .findFirst()
+                    .or(() -> uploaded.stream().filter(image -> Boolean.TRUE.equals(image.getPrimaryImage())).findFirst())
+                    .orElse(uploaded.isEmpty() ? null : uploaded.get(0));
+
+            List<Image> changed = new ArrayList<>();
+            for (Image image : gallery) {
+                boolean isPrimary = image == primary;
+                if (!Boolean.valueOf(isPrimary).equals(image.getPrimaryImage())) {
+                    image.setPrimaryImage(isPrimary);
+                    changed.add(image);
+                }
+            }
+            imageRepository.saveAll(changed);
+            productRepository.updatePrimaryImage(productId,
+                    primary != null ? primary.getCloudinaryUrl() : null,
+                    primary != null ? primary.getThumbnailUrl() : null,
+                    primary != null ? primary.getMediumUrl() : null);
+            return primary;
+        });
+    }
+
+    private Map<?, ?> uploadToCloudinary(Path file, String publicId) throws IOException {
+        return cloudinary.uploader().upload(file.toFile(), ObjectUtils.asMap(
+                "folder", "artemisia/products",
+                "public_id", publicId,
+                "resource_type", "auto"
+        ));
+    }
+
+    /**
+     * Vuelve a generar los derivados de un original guardado en disco y los deja en la cache.
+     */
+    private boolean regenerate(Long imageId, Path original) {
+        Path renditionDir = null;
+        try {
+            renditionDir = Files.createTempDirectory(createSpoolDir(), "renditions-");
+            Map<ImageRendition, Path> generated = renditionGenerator.generate(imageId, original, renditionDir);
+            for (Map.Entry<ImageRendition, Path> rendition : generated.entrySet()) {
+                imageDiskCache.put(rendition.getKey().fileName(imageId), rendition.getValue());
+            }
+            return !generated.isEmpty();
+        } catch (Exception e) {
+            log.warn("Could not regenerate renditions for image {}: {}", imageId, e.getMessage());
+            return false;
+        } finally {
+            deleteDirectoryQuietly(renditionDir);
+        }
+    }
+
+    private void removeStoredFiles(Long imageId, String publicId, boolean withRenditions) {
+        if (publicId != null && !publicId.isEmpty()) {
+            destroyQuietly(publicId);
+            if (withRenditions) {
+                for (ImageRendition rendition : ImageRendition.values()) {
+                    destroyQuietly(publicId + "_" + rendition.getKey());
+                }
+            }
+        }
+        for (ImageRendition rendition : ImageRendition.values()) {
+            imageDiskCache.evict(rendition.fileName(imageId));
+        }
+        deleteQuietly(originalsDir.resolve(String.valueOf(imageId)));
+    }
+
+    private static ImageFileDto redirectOrMissing(Long id, String url) {
+        if (url == null || url.isEmpty() || url.startsWith("/")) {
+            throw new NotDataFoundException("Image file not available for image ID: " + id);
+        }
+        return ImageFileDto.builder().redirectUrl(url).build();
+    }
+
+    private static String localUrl(Long imageId, String rendition) {
+        return "/api/images/" + imageId + "/renditions/" + rendition;
+    }
+
+    private static String probeContentType(Path file) {
+        try {
+            String contentType = Files.probeContentType(file);
+            return contentType != null ? contentType : "application/octet-stream";
+        } catch (IOException e) {
+            return "application/octet-stream";
+        }
+    }
+
+    private Path createSpoolFile() {
+        try {
+            return Files.createTempFile(createSpoolDir(), "upload-", ".tmp");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create image spool file", e);
+        }
+    }
+
+    private Path createSpoolDir() throws IOException {
+        return Files.createDirectories(spoolDir);
+    }
+
+    private void destroyQuietly(String publicId) {
+        try {
+            cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
+        } catch (Exception e) {
+            log.warn("Could not delete image from Cloudinary (publicId: {}): {}", publicId, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled image {}: {}", file, e.getMessage());
+        }
+    }
 
-        return imageRepository.findLatestCloudinaryUrlByProductId(productId);
+    private static void deleteDirectoryQuietly(Path dir) {
+        if (dir == null) return;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(ImageServiceImpl::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Could not list rendition directory {}: {}", dir, e.getMessage());
+        }
+        deleteQuietly(dir);
     }
 }
@@ -1,30 +1,160 @@
 package com.artemisia_corp.artemisia.service.impl;
 
 import com.artemisia_corp.artemisia.entity.Logs;
+import com.artemisia_corp.artemisia.entity.dto.logs.LogsPageDto;
 import com.artemisia_corp.artemisia.entity.dto.logs.LogsResponseDto;
 import com.artemisia_corp.artemisia.repository.LogerRespository;
 import com.artemisia_corp.artemisia.service.LogsService;
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
 import java.util.Date;
 import java.util.List;
 
+/**
+ * Escribe los logs de la aplicacion y los consulta. Las consultas van siempre acotadas: paginas por
+ * keyset sobre (date, id) descendente, o un flujo NDJSON leido con cursor para exportaciones completas.
+ */
 @Service
-@AllArgsConstructor
 public class LogsServiceImpl implements LogsService {
-    private LogerRespository logerRespository;
+    private static final String SELECT_LOGS = "SELECT l.id, l.level, l.message, l.date FROM log l WHERE 1 = 1";
+    private static final String ORDER_BY = " ORDER BY l.date DESC, l.id DESC";
+    private static final RowMapper<LogsResponseDto> ROW_MAPPER = (rs, rowNum) -> new LogsResponseDto(
+            rs.getLong("id"), rs.getString("level"), rs.getString("message"), rs.getTimestamp("date"));
+
+    private final LogerRespository logerRespository;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate cursorJdbc;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final int maxPageSize;
+
+    public LogsServiceImpl(LogerRespository logerRespository,
+                           NamedParameterJdbcTemplate jdbc,
+                           DataSource dataSource,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${artemisia.logs.max-page-size:1000}") int maxPageSize,
+                           @Value("${artemisia.export.fetch-size:1000}") int fetchSize) {
+        this.logerRespository = logerRespository;
+        this.jdbc = jdbc;
+        JdbcTemplate cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+        this.cursorJdbc = new NamedParameterJdbcTemplate(cursorTemplate);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxPageSize = maxPageSize;
+    }
 
     @Override
-    public List<LogsResponseDto> getAllLogs() {
-        return logerRespository.findAllLogs();
+    public List<LogsResponseDto> getRecentLogs(int limit) {
+        return getLogs(null, null, null, null, limit).getItems();
+    }
+
+    /**
+     * Pagina por keyset: el cursor es la fecha (epoch ms) y el id del ultimo log devuelto, asi cada
+     * pagina cuesta lo mismo sin importar cuan atras se este leyendo.
+     */
+    @Override
+    public LogsPageDto getLogs(String level, Date from, Date to, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), maxPageSize);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder(SELECT_LOGS);
+        appendFilters(sql, params, level, from, to);
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = cursor.split(":");
+            try {
+                if (parts.length != 2) throw new NumberFormatException(cursor);
+                params.addValue("cursorDate", new Timestamp(Long.parseLong(parts[0])));
+                params.addValue("cursorId", Long.parseLong(parts[1]));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid logs cursor: " + cursor);
+            }
+            sql.append(" AND (l.date < :cursorDate OR (l.date = :cursorDate AND l.id < :cursorId))");
+        }
+        sql.append(ORDER_BY).append(" LIMIT :limit");
+        params.addValue("limit", limit + 1);
+
+        List<LogsResponseDto> rows = jdbc.query(sql.toString(), params, ROW_MAPPER);
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            LogsResponseDto last = rows.get(limit - 1);
+            nextCursor = last.getDate().getTime() + ":" + last.getId();
+        }
+        return new LogsPageDto(rows, nextCursor);
+    }
+
+    /**
+     * Escribe los logs filtrados como NDJSON directamente desde un cursor JDBC, sin acumularlos.
+     */
+    @Override
+    public long streamLogs(String level, Date from, Date to, OutputStream out) throws IOException {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder(SELECT_LOGS);
+        appendFilters(sql, params, level, from, to);
+        sql.append(ORDER_BY);
+
+        JsonGenerator json = jsonFactory.createGenerator(new BufferedOutputStream(out, 64 * 1024));
+        json.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        long[] written = {0};
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> cursorJdbc.query(sql.toString(), params, rs -> {
+                try {
+                    json.writeStartObject();
+                    json.writeNumberField("id", rs.getLong("id"));
+                    json.writeStringField("level", rs.getString("level"));
+                    json.writeStringField("message", rs.getString("message"));
+                    Timestamp date = rs.getTimestamp("date");
+                    json.writeNumberField("date", date.getTime());
+                    json.writeEndObject();
+                    if (++written[0] % 1000 == 0) json.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (written[0] > 0) json.writeRaw('\n');
+        json.flush();
+        return written[0];
+    }
+
+    private static void appendFilters(StringBuilder sql, MapSqlParameterSource params, String level, Date from, Date to) {
+        if (level != null && !level.isBlank()) {
+            sql.append(" AND l.level = :level");
+            params.addValue("level", level.toUpperCase());
+        }
+        if (from != null) {
+            sql.append(" AND l.date >= :from");
+            params.addValue("from", new Timestamp(from.getTime()));
+        }
+        if (to != null) {
+            sql.append(" AND l.date < :to");
+            params.addValue("to", new Timestamp(to.getTime()));
+        }
     }
 
     @Override
-    @Async
+    @Async("auditLogExecutor")
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void info(String message) {
         Logs logs = Logs.builder()
@@ -36,7 +166,7 @@ public class LogsServiceImpl implements LogsService {
     }
 
     @Override
-    @Async
+    @Async("auditLogExecutor")
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void warning(String message) {
         Logs logs = Logs.builder()
@@ -48,7 +178,7 @@ public class LogsServiceImpl implements LogsService {
     }
 
     @Override
-    @Async
+    @Async("auditLogExecutor")
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void error(String message) {
         Logs logs = Logs.builder()
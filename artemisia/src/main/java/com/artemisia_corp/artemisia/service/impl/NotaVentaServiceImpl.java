@@ -26,6 +26,8 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -45,12 +47,12 @@ public class NotaVentaServiceImpl implements NotaVentaService {
     private final SterumPayService sterumPayService;
     private final RecommendationService recommendationService;
     private final RecommenderPythonClient recommenderPythonClient;
+    private final SalesRollupService salesRollupService;
 
     @Override
     public Page<NotaVentaResponseDto> getAllNotasVenta(Pageable pageable) {
         logsService.info("Fetching all sales notes");
-        Page<NotaVentaResponseDto> notaVentaPage = notaVentaRepository.findAllNotaVentas(pageable);
-        return notaVentaPage.map(this::enrichWithOrderDetails);
+        return withOrderDetails(notaVentaRepository.findAllNotaVentas(pageable));
     }
 
     @Override
@@ -148,6 +150,7 @@ public class NotaVentaServiceImpl implements NotaVentaService {
         Address address = addressRepository.findById(notaVentaDto.getBuyerAddress())
                 .orElse(null);
 
+        VentaEstado previousEstado = notaVenta.getEstadoVenta();
         notaVenta.setBuyer(buyer);
         notaVenta.setBuyerAddress(address);
         notaVenta.setEstadoVenta(VentaEstado.valueOf(notaVentaDto.getEstadoVenta()));
@@ -193,11 +196,13 @@ public class NotaVentaServiceImpl implements NotaVentaService {
                 orderDetailService.createOrderDetail(detailDto, updatedNotaVenta, products.get(detailDto.getProductId()));
             }
         }
+        salesRollupService.recordTransition(updatedNotaVenta.getId(), previousEstado, updatedNotaVenta.getEstadoVenta());
 
         return convertToDtoWithDetails(updatedNotaVenta);
     }
 
     @Override
+    @Transactional
     public void deleteNotaVenta(Long id) {
         userRepository.findById(id)
                 .orElseThrow(() -> {
@@ -225,8 +230,10 @@ public class NotaVentaServiceImpl implements NotaVentaService {
         });
 
 
+        VentaEstado previousEstado = notaVenta.getEstadoVenta();
         notaVenta.setEstadoVenta(VentaEstado.DELETED);
         notaVentaRepository.save(notaVenta);
+        salesRollupService.recordTransition(notaVenta.getId(), previousEstado, VentaEstado.DELETED);
         logsService.info("Sale note deleted with ID: " + notaVenta.getId());
     }
 
@@ -254,33 +261,37 @@ public class NotaVentaServiceImpl implements NotaVentaService {
             return;
         }
 
+        VentaEstado previousEstado = notaVenta.getEstadoVenta();
         notaVenta.setEstadoVenta(VentaEstado.PAYED);
         notaVentaRepository.save(notaVenta);
+        salesRollupService.recordTransition(notaVenta.getId(), previousEstado, VentaEstado.PAYED);
+
+        notifyPurchase(notaVenta.getId(), id, notaVenta.getTotalGlobal());
+
+        logsService.info("Sale note completed with ID: " + id);
+    }
 
+    private void notifyPurchase(Long notaVentaId, Long buyerId, Double totalGlobal) {
         // Trigger preference update (asynchronous in RecommendationServiceImpl)
-        recommendationService.updateUserPreferences(id);
+        recommendationService.updateUserPreferences(buyerId);
 
         // Build list of purchased product IDs to notify the Python recommender service
         try {
-            List<OrderDetailResponseDto> detalles = orderDetailService.getOrderDetailsByNotaVenta(notaVenta.getId());
+            List<OrderDetailResponseDto> detalles = orderDetailService.getOrderDetailsByNotaVenta(notaVentaId);
             List<Integer> productIds = detalles.stream()
                     .map(d -> d.getProductId() != null ? d.getProductId().intValue() : null)
                     .filter(Objects::nonNull)
                     .toList();
 
-            Double eventWeight = notaVenta.getTotalGlobal();
-
-            boolean notified = recommenderPythonClient.notifyPurchase(notaVenta.getBuyer().getId().intValue(), productIds, eventWeight);
+            boolean notified = recommenderPythonClient.notifyPurchase(buyerId.intValue(), productIds, totalGlobal);
             if (!notified) {
-                logsService.warning("Failed to notify recommender service about purchase for notaVenta id: " + notaVenta.getId());
+                logsService.warning("Failed to notify recommender service about purchase for notaVenta id: " + notaVentaId);
             } else {
-                logsService.info("Notified recommender service of purchase for notaVenta id: " + notaVenta.getId());
+                logsService.info("Notified recommender service of purchase for notaVenta id: " + notaVentaId);
             }
         } catch (Exception e) {
             logsService.error("Error notifying recommender service of purchase: " + e.getMessage());
         }
-
-        logsService.info("Sale note completed with ID: " + id);
     }
 
     @Override
@@ -303,11 +314,79 @@ public class NotaVentaServiceImpl implements NotaVentaService {
                     " by quantity: " + detalle.getQuantity());
         }
 
+        VentaEstado previousEstado = notaVenta.getEstadoVenta();
         notaVenta.setEstadoVenta(VentaEstado.DELETED);
         notaVentaRepository.save(notaVenta);
+        salesRollupService.recordTransition(id, previousEstado, VentaEstado.DELETED);
         logsService.info("Sale note completed with ID: " + id);
     }
 
+    /**
+     * Aplica en una transaccion los estados que la conciliacion obtuvo de Stereum. Trabaja por id de nota
+     * con las filas bloqueadas: una nota que el webhook ya cerro, o cuyo cobro cambio, se deja como esta.
+     *
+     * @return las notas que cambiaron y su nuevo estado
+     */
+    @Override
+    @Transactional
+    public Map<Long, VentaEstado> applyReconciledPayments(List<PendingTransactionDto> paid, List<PendingTransactionDto> cancelled) {
+        Map<Long, VentaEstado> targets = new HashMap<>();
+        Map<Long, String> transactions = new HashMap<>();
+        paid.forEach(p -> {
+            targets.put(p.getNotaVentaId(), VentaEstado.PAYED);
+            transactions.put(p.getNotaVentaId(), p.getIdTransaccion());
+        });
+        cancelled.forEach(p -> {
+            targets.put(p.getNotaVentaId(), VentaEstado.DELETED);
+            transactions.put(p.getNotaVentaId(), p.getIdTransaccion());
+        });
+        if (targets.isEmpty()) return Collections.emptyMap();
+
+        List<NotaVenta> carts = notaVentaRepository.lockCartsByIdIn(targets.keySet()).stream()
+                .filter(nv -> Objects.equals(nv.getIdTransaccion(), transactions.get(nv.getId())))
+                .toList();
+        if (carts.isEmpty()) return Collections.emptyMap();
+
+        List<Long> cancelledIds = carts.stream()
+                .filter(nv -> targets.get(nv.getId()) == VentaEstado.DELETED)
+                .map(NotaVenta::getId)
+                .toList();
+        if (!cancelledIds.isEmpty()) {
+            orderDetailRepository.findDtoByGroupIdIn(cancelledIds).forEach(detail -> {
+                productService.manageStock(new ManageProductDto(detail.getProductId(), detail.getQuantity(), false));
+                logsService.info("Augmented stock for product ID: " + detail.getProductId() +
+                        " by quantity: " + detail.getQuantity());
+            });
+        }
+
+        Map<Long, VentaEstado> applied = new LinkedHashMap<>();
+        for (NotaVenta notaVenta : carts) {
+            VentaEstado target = targets.get(notaVenta.getId());
+            VentaEstado previousEstado = notaVenta.getEstadoVenta();
+            notaVenta.setEstadoVenta(target);
+            salesRollupService.recordTransition(notaVenta.getId(), previousEstado, target);
+            applied.put(notaVenta.getId(), target);
+        }
+        notaVentaRepository.saveAll(carts);
+
+        // El recomendador se avisa solo cuando los pagos quedaron confirmados
+        List<NotaVenta> payedCarts = carts.stream().filter(nv -> nv.getEstadoVenta() == VentaEstado.PAYED).toList();
+        if (!payedCarts.isEmpty()) {
+            Runnable notify = () -> payedCarts.forEach(nv -> notifyPurchase(nv.getId(), nv.getBuyer().getId(), nv.getTotalGlobal()));
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        notify.run();
+                    }
+                });
+            } else {
+                notify.run();
+            }
+        }
+        return applied;
+    }
+
     @Override
     public Page<NotaVentaResponseDto> getNotasVentaByEstado(VentaEstado estado, Pageable pageable) {
         if (estado == null) {
@@ -317,8 +396,7 @@ public class NotaVentaServiceImpl implements NotaVentaService {
         }
 
         logsService.info("Fetching sale notes with status: " + estado);
-        Page<NotaVentaResponseDto> notaVentaPage = notaVentaRepository.findByEstadoVenta(estado, pageable);
-        return notaVentaPage.map(this::enrichWithOrderDetails);
+        return withOrderDetails(notaVentaRepository.findByEstadoVenta(estado, pageable));
     }
 
     @Override
@@ -329,8 +407,7 @@ public class NotaVentaServiceImpl implements NotaVentaService {
             throw new IllegalArgumentException("Valid User ID is required.");
         }
         logsService.info("Fetching completed sales for user ID: " + userId);
-        Page<NotaVentaResponseDto> notaVentaPage = notaVentaRepository.findAllNotaVentasByBuyer_Id(userId, pageable);
-        return notaVentaPage.map(this::enrichWithOrderDetails);
+        return withOrderDetails(notaVentaRepository.findAllNotaVentasByBuyer_Id(userId, pageable));
     }
 
     @Override
@@ -349,7 +426,7 @@ public class NotaVentaServiceImpl implements NotaVentaService {
 
     @Override
     @Transactional
-    public void obtenerRespuestaTransaccion(RespuestaVerificacionNotaVentaDto respuesta) {
+    public boolean obtenerRespuestaTransaccion(RespuestaVerificacionNotaVentaDto respuesta) {
         TransaccionDto transaccionDto = respuesta.getTransaction();
         log.info("Obtain respuesta transaccion: " + transaccionDto);
 
@@ -385,14 +462,16 @@ public class NotaVentaServiceImpl implements NotaVentaService {
             log.info("Transaction marked as PAGADO for ID: {}", transaccionDto.getId());
             logsService.info("Transaction completed successfully for ID: " + notaVenta.getId());
             completeNotaVenta(notaVenta.getBuyer().getId());
+            return true;
         } else if ("CANCELADA".equals(estado.getStatus())) {
             log.info("Transaction marked as CANCELADA for ID: {}", transaccionDto.getId());
             logsService.info("Transaction canceled for ID: " + notaVenta.getId());
             deleteNotaVenta(notaVenta.getBuyer().getId());
-        } else {
-            log.warn("Transaction not finalized for ID: {} with status: {}", transaccionDto.getId(), estado.getStatus());
-            logsService.warning("Transaction has not been finalized for ID: " + notaVenta.getId() + " with status: " + estado.getStatus());
+            return true;
         }
+        log.warn("Transaction not finalized for ID: {} with status: {}", transaccionDto.getId(), estado.getStatus());
+        logsService.warning("Transaction has not been finalized for ID: " + notaVenta.getId() + " with status: " + estado.getStatus());
+        return false;
     }
 
     @Override
@@ -645,10 +724,11 @@ public class NotaVentaServiceImpl implements NotaVentaService {
     @Override
     public Page<NotaVentaResponseDto> getNotasVentaBySellerAndEstado(Long sellerId, VentaEstado estado, Pageable pageable) {
         Page<NotaVenta> notaVentas = notaVentaRepository.findBySellerAndEstadoVenta(sellerId, estado, pageable);
-        return notaVentas.map(this::convertToDtoWithDetails);
+        return withOrderDetails(notaVentas.map(NotaVentaResponseDto::new));
     }
 
     @Override
+    @Transactional
     public NotaVentaResponseDto markNotaVentaAsShipped(Long notaVentaId, Long sellerId) {
         NotaVenta notaVenta = notaVentaRepository.findById(notaVentaId)
                 .orElseThrow(() -> new NotDataFoundException("Order not found"));
@@ -657,8 +737,10 @@ public class NotaVentaServiceImpl implements NotaVentaService {
             throw new NotDataFoundException("Order does not contain your products");
         }
 
+        VentaEstado previousEstado = notaVenta.getEstadoVenta();
         notaVenta.setEstadoVenta(VentaEstado.SHIPPED);
         NotaVenta updatedNotaVenta = notaVentaRepository.save(notaVenta);
+        salesRollupService.recordTransition(notaVentaId, previousEstado, VentaEstado.SHIPPED);
 
         return convertToDtoWithDetails(updatedNotaVenta);
     }
@@ -680,11 +762,14 @@ public class NotaVentaServiceImpl implements NotaVentaService {
                 .build();
     }
 
-    private NotaVentaResponseDto enrichWithOrderDetails(NotaVentaResponseDto dto) {
-        Pageable firstPage = PageRequest.of(0, Integer.MAX_VALUE);
-        Page<OrderDetailResponseDto> details = orderDetailService.getOrderDetailsByNotaVenta(dto.getId(), firstPage);
-        dto.setDetalles(details.getContent());
-        return dto;
+    /**
+     * Completa los detalles de toda la pagina con una sola consulta en lugar de una por nota de venta.
+     */
+    private Page<NotaVentaResponseDto> withOrderDetails(Page<NotaVentaResponseDto> page) {
+        List<Long> ids = page.getContent().stream().map(NotaVentaResponseDto::getId).toList();
+        Map<Long, List<OrderDetailResponseDto>> details = orderDetailService.getOrderDetailsByNotasVenta(ids);
+        page.getContent().forEach(dto -> dto.setDetalles(details.getOrDefault(dto.getId(), List.of())));
+        return page;
     }
 
     @Override
@@ -719,4 +804,4 @@ public class NotaVentaServiceImpl implements NotaVentaService {
                 .seller(seller)
                 .build();
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -13,19 +13,28 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class OrderDetailServiceImpl implements OrderDetailService {
+    private static final int REPRICE_CHUNK = 500;
+
     private final OrderDetailRepository orderDetailRepository;
     private final NotaVentaRepository notaVentaRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final LogsService logsService;
     private final ProductService productService;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public Page<OrderDetailResponseDto> getAllOrderDetails(Pageable pageable) {
@@ -192,28 +201,74 @@ public class OrderDetailServiceImpl implements OrderDetailService {
         return orderDetailRepository.findByGroup_Id(notaVentaId, pageable);
     }
 
+    /**
+     * Lectura pura: una consulta con el nombre del producto unido. El recalculo de precios del carrito
+     * ya no ocurre aqui, ver {@link #repriceOpenCarts(Collection)}.
+     */
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDetailResponseDto> getOrderDetailsByNotaVenta(Long notaVentaId) {
         if (notaVentaId == null || notaVentaId <= 0) {
             logsService.error("Valid NotaVenta ID is required.");
             throw new IllegalArgumentException("Valid NotaVenta ID is required.");
         }
 
-        logsService.info("Fetching order details for sale note ID: " + notaVentaId);
-        log.info("Fetching order details for sale note ID: " + notaVentaId);
-
-        List<OrderDetailResponseDto> listOrderDetail = orderDetailRepository.findByGroup_Id(notaVentaId);
+        log.debug("Fetching order details for sale note ID: {}", notaVentaId);
+        List<OrderDetailResponseDto> details = orderDetailRepository.findDtoByGroupIdIn(List.of(notaVentaId));
+        if (details.isEmpty() && !notaVentaRepository.existsById(notaVentaId)) {
+            throw new NotDataFoundException("NotaVenta not found with ID: " + notaVentaId);
+        }
+        return details;
+    }
 
-        NotaVenta notaVenta = notaVentaRepository.findById(notaVentaId)
-                .orElseThrow(() -> new NotDataFoundException("NotaVenta not found with ID: " + notaVentaId));
+    /**
+     * Lleva las lineas de los carritos abiertos al precio actual de cada producto y recalcula su total.
+     * Los carritos con precios ya convertidos a otra moneda (en pago) no se tocan.
+     */
+    @Override
+    @Transactional
+    public int repriceOpenCarts(Collection<Long> cartIds) {
+        if (cartIds == null || cartIds.isEmpty()) return 0;
+        int lines = orderDetailRepository.repriceOpenCartLines(cartIds);
+        if (lines > 0) {
+            notaVentaRepository.refreshTotalGlobal(cartIds);
+        }
+        return lines;
+    }
 
-        if (!Boolean.TRUE.equals(notaVenta.getPreciosConvertidos())) {
-            verificarYActualizarPreciosNotaVenta(notaVentaId, listOrderDetail);
-        } else {
-            log.info("Precios ya convertidos para NotaVenta ID: {}, omitiendo verificación", notaVentaId);
+    /**
+     * Cada bloque de carritos se confirma en su propia transaccion: un producto presente en miles de
+     * carritos no retiene los bloqueos de todas sus lineas hasta el final.
+     */
+    @Override
+    public int repriceOpenCartsForProduct(Long productId) {
+        List<Long> cartIds = orderDetailRepository.findOpenCartIdsByProductId(productId);
+        int lines = 0;
+        for (int from = 0; from < cartIds.size(); from += REPRICE_CHUNK) {
+            List<Long> chunk = cartIds.subList(from, Math.min(from + REPRICE_CHUNK, cartIds.size()));
+            Integer repriced = transactionTemplate.execute(status -> repriceOpenCarts(chunk));
+            lines += repriced != null ? repriced : 0;
+        }
+        if (lines > 0) {
+            logsService.info("Repriced " + lines + " cart lines in " + cartIds.size() + " carts for product ID: " + productId);
         }
+        return lines;
+    }
 
-        return listOrderDetail;
+    /**
+     * Detalles agrupados por nota de venta, leidos en una sola consulta. Lo usan los listados paginados:
+     * devuelve los detalles tal como estan guardados, sin la verificacion de precios del carrito.
+     */
+    @Override
+    public Map<Long, List<OrderDetailResponseDto>> getOrderDetailsByNotasVenta(Collection<Long> notaVentaIds) {
+        if (notaVentaIds == null || notaVentaIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<OrderDetailResponseDto>> byNotaVenta = new HashMap<>();
+        for (OrderDetailResponseDto detail : orderDetailRepository.findDtoByGroupIdIn(notaVentaIds)) {
+            byNotaVenta.computeIfAbsent(detail.getGroupId(), id -> new ArrayList<>()).add(detail);
+        }
+        return byNotaVenta;
     }
 
     @Override
@@ -232,62 +287,4 @@ public class OrderDetailServiceImpl implements OrderDetailService {
                 .total(orderDetail.getTotal())
                 .build();
     }
-
-    private void verificarYActualizarPreciosNotaVenta(Long notaVentaId, List<OrderDetailResponseDto> orderDetails) {
-        if (orderDetails == null || orderDetails.isEmpty()) {
-            return;
-        }
-
-        NotaVenta notaVenta = notaVentaRepository.findById(notaVentaId)
-                .orElseThrow(() -> {
-                    logsService.error("NotaVenta not found with ID: " + notaVentaId);
-                    return new NotDataFoundException("NotaVenta not found with ID: " + notaVentaId);
-                });
-
-        log.info("Verificando precios para NotaVenta ID: {}, preciosConvertidos: {}",
-                notaVentaId, notaVenta.getPreciosConvertidos());
-
-        if (Boolean.TRUE.equals(notaVenta.getPreciosConvertidos())) {
-            log.info("Omitiendo verificación de precios - ya convertidos para NotaVenta ID: {}", notaVentaId);
-            return;
-        }
-
-        boolean necesitaActualizacion = false;
-        Double nuevoTotalGlobal = 0.0;
-
-        for (OrderDetailResponseDto orderDetail : orderDetails) {
-            Product productoActual = productRepository.findById(orderDetail.getProductId())
-                    .orElseThrow(() -> {
-                        logsService.error("Product not found with ID: " + orderDetail.getProductId());
-                        return new NotDataFoundException("Product not found with ID: " + orderDetail.getProductId());
-                    });
-
-            Double totalActual = productoActual.getPrice() * orderDetail.getQuantity();
-
-            if (!orderDetail.getTotal().equals(totalActual)) {
-                necesitaActualizacion = true;
-                OrderDetail orderDetailEntity = orderDetailRepository.findById(orderDetail.getId())
-                        .orElseThrow(() -> new NotDataFoundException("Order detail not found with ID: " + orderDetail.getId()));
-
-                orderDetailEntity.setTotal(totalActual);
-                orderDetailRepository.save(orderDetailEntity);
-
-                logsService.info("Updated price for OrderDetail ID: " + orderDetail.getId() +
-                        " from " + orderDetail.getTotal() + " to " + totalActual);
-
-                orderDetail.setTotal(totalActual);
-            }
-
-            nuevoTotalGlobal += orderDetail.getTotal();
-        }
-
-        if (necesitaActualizacion || !notaVenta.getTotalGlobal().equals(nuevoTotalGlobal)) {
-            Double totalGlobalAnterior = notaVenta.getTotalGlobal();
-            notaVenta.setTotalGlobal(nuevoTotalGlobal);
-            notaVentaRepository.save(notaVenta);
-
-            logsService.info("Updated total global for NotaVenta ID: " + notaVentaId +
-                    " from " + totalGlobalAnterior + " to " + nuevoTotalGlobal);
-        }
-    }
-}
\ No newline at end of file
+}
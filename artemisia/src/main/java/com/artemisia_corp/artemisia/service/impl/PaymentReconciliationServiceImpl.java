@@ -0,0 +1,215 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.dto.nota_venta.PendingTransactionDto;
+import com.artemisia_corp.artemisia.entity.dto.nota_venta.ReconciliationStatsDto;
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import com.artemisia_corp.artemisia.entity.enums.WebhookInboxStatus;
+import com.artemisia_corp.artemisia.integracion.SterumPayService;
+import com.artemisia_corp.artemisia.integracion.impl.dtos.EstadoResponseDto;
+import com.artemisia_corp.artemisia.repository.NotaVentaRepository;
+import com.artemisia_corp.artemisia.repository.PaymentWebhookInboxRepository;
+import com.artemisia_corp.artemisia.service.LogsService;
+import com.artemisia_corp.artemisia.service.NotaVentaService;
+import com.artemisia_corp.artemisia.service.PaymentReconciliationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concilia los carritos que tienen un cobro generado en Stereum pero nunca recibieron el callback.
+ * Recorre los pendientes por paginas (keyset por id), consulta los estados de cada pagina en paralelo
+ * sobre un pool acotado y luego aplica las transiciones de la pagina en una sola transaccion.
+ */
+@Slf4j
+@Service
+public class PaymentReconciliationServiceImpl implements PaymentReconciliationService {
+    private final NotaVentaRepository notaVentaRepository;
+    private final PaymentWebhookInboxRepository inboxRepository;
+    private final NotaVentaService notaVentaService;
+    private final SterumPayService sterumPayService;
+    private final LogsService logsService;
+    private final TaskExecutor paymentReconciliationExecutor;
+
+    @Value("${artemisia.payment-reconciliation.page-size:100}")
+    private int pageSize;
+
+    @Value("${artemisia.payment-reconciliation.min-age-minutes:10}")
+    private long minAgeMinutes;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong totalRuns = new AtomicLong();
+    private final AtomicLong totalChecked = new AtomicLong();
+    private final AtomicLong totalPaid = new AtomicLong();
+    private final AtomicLong totalCancelled = new AtomicLong();
+    private final AtomicLong totalUnchanged = new AtomicLong();
+    private final AtomicLong totalErrors = new AtomicLong();
+    private volatile ReconciliationStatsDto lastRun = new ReconciliationStatsDto();
+
+    public PaymentReconciliationServiceImpl(NotaVentaRepository notaVentaRepository,
+                                            PaymentWebhookInboxRepository inboxRepository,
+                                            NotaVentaService notaVentaService,
+                                            SterumPayService sterumPayService,
+                                            LogsService logsService,
+                                            @Qualifier("paymentReconciliationExecutor") TaskExecutor paymentReconciliationExecutor) {
+        this.notaVentaRepository = notaVentaRepository;
+        this.inboxRepository = inboxRepository;
+        this.notaVentaService = notaVentaService;
+        this.sterumPayService = sterumPayService;
+        this.logsService = logsService;
+        this.paymentReconciliationExecutor = paymentReconciliationExecutor;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${artemisia.payment-reconciliation.interval-ms:300000}",
+            initialDelayString = "${artemisia.payment-reconciliation.initial-delay-ms:60000}")
+    public void reconcilePendingTransactions() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Payment reconciliation already running, skipping");
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        long checked = 0;
+        long maxLagSeconds = 0;
+        try {
+            Date before = new Date(System.currentTimeMillis() - minAgeMinutes * 60_000);
+            Long afterId = 0L;
+            List<PendingTransactionDto> page;
+            do {
+                page = notaVentaRepository.findPendingTransactions(afterId, before, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) break;
+
+                for (PendingTransactionDto pending : page) {
+                    if (pending.getModifiedDate() != null) {
+                        long lag = (System.currentTimeMillis() - pending.getModifiedDate().getTime()) / 1000;
+                        maxLagSeconds = Math.max(maxLagSeconds, lag);
+                    }
+                }
+
+                List<String> estados = fetchStatuses(page);
+                applyTransitions(page, estados);
+
+                checked += page.size();
+                afterId = page.get(page.size() - 1).getNotaVentaId();
+            } while (page.size() == pageSize);
+        } catch (Exception e) {
+            log.error("Payment reconciliation aborted: {}", e.getMessage(), e);
+            logsService.error("Payment reconciliation aborted: " + e.getMessage());
+        } finally {
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            totalRuns.incrementAndGet();
+            totalChecked.addAndGet(checked);
+            lastRun = ReconciliationStatsDto.builder()
+                    .lastRunStartedAt(startedAt)
+                    .lastRunDurationMs(durationMs)
+                    .lastRunChecked(checked)
+                    .lastRunThroughputPerSecond(durationMs > 0 ? checked * 1000.0 / durationMs : checked)
+                    .lastRunMaxLagSeconds(maxLagSeconds)
+                    .build();
+            running.set(false);
+            if (checked > 0) {
+                log.info("Payment reconciliation checked {} transactions in {} ms (max lag {} s)",
+                        checked, durationMs, maxLagSeconds);
+                logsService.info("Payment reconciliation checked " + checked + " transactions in " + durationMs + " ms");
+            }
+        }
+    }
+
+    private List<String> fetchStatuses(List<PendingTransactionDto> page) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(page.size());
+        for (PendingTransactionDto pending : page) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                EstadoResponseDto estado = sterumPayService.obtenerEstadoCobro(pending.getIdTransaccion());
+                return estado != null ? estado.getStatus() : null;
+            }, paymentReconciliationExecutor).exceptionally(e -> {
+                log.warn("Could not fetch status for transaction {}: {}", pending.getIdTransaccion(), e.getMessage());
+                totalErrors.incrementAndGet();
+                return null;
+            }));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Aplica las transiciones de la pagina en una sola llamada. Se omiten las transacciones cuyo webhook
+     * se esta procesando; el resto se transiciona por id de nota con las filas bloqueadas.
+     */
+    private void applyTransitions(List<PendingTransactionDto> page, List<String> estados) {
+        List<PendingTransactionDto> paid = new ArrayList<>();
+        List<PendingTransactionDto> cancelled = new ArrayList<>();
+        for (int i = 0; i < page.size(); i++) {
+            String estado = estados.get(i);
+            if ("PAGADO".equals(estado)) {
+                paid.add(page.get(i));
+            } else if ("CANCELADA".equals(estado)) {
+                cancelled.add(page.get(i));
+            } else if (estado != null) {
+                totalUnchanged.incrementAndGet();
+            }
+        }
+        if (paid.isEmpty() && cancelled.isEmpty()) return;
+
+        List<String> transactionIds = new ArrayList<>();
+        paid.forEach(p -> transactionIds.add(p.getIdTransaccion()));
+        cancelled.forEach(p -> transactionIds.add(p.getIdTransaccion()));
+        Set<String> processing = new HashSet<>(
+                inboxRepository.findTransactionIdsByStatus(transactionIds, WebhookInboxStatus.PROCESSING));
+        if (!processing.isEmpty()) {
+            paid.removeIf(p -> processing.contains(p.getIdTransaccion()));
+            cancelled.removeIf(p -> processing.contains(p.getIdTransaccion()));
+            totalUnchanged.addAndGet(transactionIds.size() - paid.size() - cancelled.size());
+        }
+
+        int candidates = paid.size() + cancelled.size();
+        try {
+            Map<Long, VentaEstado> applied = notaVentaService.applyReconciledPayments(paid, cancelled);
+            applied.forEach((notaVentaId, estado) -> {
+                if (estado == VentaEstado.PAYED) {
+                    totalPaid.incrementAndGet();
+                    logsService.info("Reconciliation completed sale note ID: " + notaVentaId);
+                } else {
+                    totalCancelled.incrementAndGet();
+                    logsService.info("Reconciliation cancelled sale note ID: " + notaVentaId);
+                }
+            });
+            totalUnchanged.addAndGet(candidates - applied.size());
+        } catch (Exception e) {
+            totalErrors.addAndGet(candidates);
+            log.error("Error reconciling {} sale notes: {}", candidates, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public ReconciliationStatsDto getStats() {
+        ReconciliationStatsDto last = lastRun;
+        return ReconciliationStatsDto.builder()
+                .running(running.get())
+                .totalRuns(totalRuns.get())
+                .totalChecked(totalChecked.get())
+                .totalPaid(totalPaid.get())
+                .totalCancelled(totalCancelled.get())
+                .totalUnchanged(totalUnchanged.get())
+                .totalErrors(totalErrors.get())
+                .lastRunStartedAt(last.getLastRunStartedAt())
+                .lastRunDurationMs(last.getLastRunDurationMs())
+                .lastRunChecked(last.getLastRunChecked())
+                .lastRunThroughputPerSecond(last.getLastRunThroughputPerSecond())
+                .lastRunMaxLagSeconds(last.getLastRunMaxLagSeconds())
+                .build();
+    }
+}
@@ -0,0 +1,196 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.PaymentWebhookInbox;
+import com.artemisia_corp.artemisia.entity.dto.nota_venta.RespuestaVerificacionNotaVentaDto;
+import com.artemisia_corp.artemisia.entity.enums.WebhookInboxStatus;
+import com.artemisia_corp.artemisia.repository.PaymentWebhookInboxRepository;
+import com.artemisia_corp.artemisia.service.LogsService;
+import com.artemisia_corp.artemisia.service.NotaVentaService;
+import com.artemisia_corp.artemisia.service.PaymentWebhookService;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bandeja de entrada de las notificaciones de Stereum. Cada transaccion tiene un unico registro:
+ * las notificaciones repetidas no vuelven a ejecutar el flujo si la transaccion ya quedo en un
+ * estado final, y el procesamiento ocurre fuera del hilo del webhook con concurrencia acotada.
+ */
+@Slf4j
+@Service
+public class PaymentWebhookServiceImpl implements PaymentWebhookService {
+    private static final Set<WebhookInboxStatus> CLAIMABLE = EnumSet.of(WebhookInboxStatus.PENDING, WebhookInboxStatus.FAILED);
+
+    private final PaymentWebhookInboxRepository inboxRepository;
+    private final NotaVentaService notaVentaService;
+    private final LogsService logsService;
+    private final TaskExecutor paymentWebhookExecutor;
+    private final ObjectMapper objectMapper;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${artemisia.payment-webhook.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${artemisia.payment-webhook.retry-delay-seconds:30}")
+    private long retryDelaySeconds;
+
+    @Value("${artemisia.payment-webhook.stale-processing-minutes:10}")
+    private long staleProcessingMinutes;
+
+    @Value("${artemisia.payment-webhook.retry-batch-size:100}")
+    private int retryBatchSize;
+
+    public PaymentWebhookServiceImpl(PaymentWebhookInboxRepository inboxRepository,
+                                     NotaVentaService notaVentaService,
+                                     LogsService logsService,
+                                     @Qualifier("paymentWebhookExecutor") TaskExecutor paymentWebhookExecutor) {
+        this.inboxRepository = inboxRepository;
+        this.notaVentaService = notaVentaService;
+        this.logsService = logsService;
+        this.paymentWebhookExecutor = paymentWebhookExecutor;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Override
+    public void receive(RespuestaVerificacionNotaVentaDto notification, String payload) {
+        if (notification.getTransaction() == null || notification.getTransaction().getId() == null) {
+            throw new IllegalArgumentException("Transaction ID is required");
+        }
+        String transactionId = notification.getTransaction().getId();
+
+        PaymentWebhookInbox inbox = inboxRepository.findByTransactionId(transactionId).orElse(null);
+        if (inbox == null) {
+            try {
+                inbox = inboxRepository.save(PaymentWebhookInbox.builder()
+                        .transactionId(transactionId)
+                        .notificationId(notification.getId())
+                        .payload(payload)
+                        .status(WebhookInboxStatus.PENDING)
+                        .attempts(0)
+                        .receivedAt(LocalDateTime.now())
+                        .build());
+                log.info("Stored payment notification {} for transaction {}", notification.getId(), transactionId);
+            } catch (DataIntegrityViolationException e) {
+                // Otra entrega de la misma transaccion gano la carrera del insert
+                log.info("Duplicate payment notification for transaction {} ignored", transactionId);
+                return;
+            }
+        } else if (inbox.getStatus() == WebhookInboxStatus.PROCESSED) {
+            log.info("Transaction {} already processed, notification {} acknowledged without reprocessing",
+                    transactionId, notification.getId());
+            return;
+        } else if (inbox.getStatus() == WebhookInboxStatus.PROCESSING) {
+            log.info("Transaction {} is being processed, notification {} acknowledged", transactionId, notification.getId());
+            return;
+        } else {
+            // Una notificacion nueva de una transaccion aun no finalizada vuelve a habilitar el procesamiento
+            inbox.setNotificationId(notification.getId());
+            inbox.setPayload(payload);
+            inbox.setStatus(WebhookInboxStatus.PENDING);
+            if (inbox.getAttempts() >= maxAttempts) {
+                inbox.setAttempts(0);
+            }
+            try {
+                inbox = inboxRepository.save(inbox);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // Un reintento lo reclamo despues de leerlo: no se devuelve a PENDING mientras se procesa
+                log.info("Transaction {} was claimed concurrently, notification {} acknowledged",
+                        transactionId, notification.getId());
+                return;
+            }
+        }
+
+        dispatch(inbox.getId());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${artemisia.payment-webhook.retry-interval-ms:30000}")
+    public void retryPending() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = inboxRepository.findRetryableIds(CLAIMABLE, WebhookInboxStatus.PROCESSING, maxAttempts,
+                now.minusSeconds(retryDelaySeconds), now.minusMinutes(staleProcessingMinutes),
+                PageRequest.of(0, retryBatchSize));
+        if (!ids.isEmpty()) {
+            log.info("Retrying {} pending payment notifications", ids.size());
+        }
+        ids.forEach(this::dispatch);
+    }
+
+    private void dispatch(Long inboxId) {
+        if (inFlight.contains(inboxId)) return;
+        try {
+            paymentWebhookExecutor.execute(() -> process(inboxId));
+        } catch (TaskRejectedException e) {
+            log.warn("Payment webhook queue is full, inbox {} left pending for retry", inboxId);
+        }
+    }
+
+    private void process(Long inboxId) {
+        if (!inFlight.add(inboxId)) return;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int claimed = inboxRepository.claim(inboxId, WebhookInboxStatus.PROCESSING, CLAIMABLE, now,
+                    now.minusMinutes(staleProcessingMinutes));
+            if (claimed == 0) {
+                log.debug("Inbox {} already claimed", inboxId);
+                return;
+            }
+
+            PaymentWebhookInbox inbox = inboxRepository.findById(inboxId).orElse(null);
+            if (inbox == null) return;
+
+            boolean finalized;
+            try {
+                RespuestaVerificacionNotaVentaDto notification =
+                        objectMapper.readValue(inbox.getPayload(), RespuestaVerificacionNotaVentaDto.class);
+                finalized = notaVentaService.obtenerRespuestaTransaccion(notification);
+            } catch (Exception e) {
+                log.error("Error processing payment notification for transaction {}: {}",
+                        inbox.getTransactionId(), e.getMessage(), e);
+                markFailed(inboxId, e);
+                return;
+            }
+
+            inbox = inboxRepository.findById(inboxId).orElseThrow();
+            if (finalized) {
+                inbox.setStatus(WebhookInboxStatus.PROCESSED);
+                inbox.setProcessedAt(LocalDateTime.now());
+            } else {
+                inbox.setStatus(WebhookInboxStatus.PENDING);
+            }
+            inbox.setLastError(null);
+            inboxRepository.save(inbox);
+        } finally {
+            inFlight.remove(inboxId);
+        }
+    }
+
+    private void markFailed(Long inboxId, Exception cause) {
+        inboxRepository.findById(inboxId).ifPresent(inbox -> {
+            inbox.setStatus(WebhookInboxStatus.FAILED);
+            String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+            inbox.setLastError(message.length() > 2000 ? message.substring(0, 2000) : message);
+            inboxRepository.save(inbox);
+            if (inbox.getAttempts() >= maxAttempts) {
+                logsService.error("Payment notification for transaction " + inbox.getTransactionId()
+                        + " failed after " + inbox.getAttempts() + " attempts: " + message);
+            }
+        });
+    }
+}
@@ -8,6 +8,7 @@ import com.artemisia_corp.artemisia.entity.dto.product.*;
 import com.artemisia_corp.artemisia.entity.enums.PaintingCategory;
 import com.artemisia_corp.artemisia.entity.enums.PaintingTechnique;
 import com.artemisia_corp.artemisia.entity.enums.ProductStatus;
+import com.artemisia_corp.artemisia.event.ProductPriceChangedEvent;
 import com.artemisia_corp.artemisia.exception.NotDataFoundException;
 import com.artemisia_corp.artemisia.repository.ProductRepository;
 import com.artemisia_corp.artemisia.repository.UserRepository;
@@ -16,6 +17,7 @@ import com.artemisia_corp.artemisia.service.LogsService;
 import com.artemisia_corp.artemisia.service.ProductService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -24,6 +26,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 @Slf4j
@@ -34,6 +37,7 @@ public class ProductServiceImpl implements ProductService {
     private final UserRepository userRepository;
     private final LogsService logsService;
     private final ImageService imageService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -44,9 +48,9 @@ public class ProductServiceImpl implements ProductService {
         products.forEach(product ->
             log.info(String.valueOf(product.getSeller().getId()))
         );
-        // Convertir a DTO y cargar imágenes
+        // Convertir a DTO; la imagen principal ya viene copiada en product
         List<ProductResponseDto> productDtos = products.getContent().stream()
-                .map(this::convertToDtoWithImage)
+                .map(ProductResponseDto::new)
                 .toList();
 
         return new PageImpl<>(productDtos, pageable, products.getTotalElements());
@@ -66,7 +70,10 @@ public class ProductServiceImpl implements ProductService {
             throw new NotDataFoundException("Product not found with ID: " + id);
         }
 
-        return convertToDtoWithImage(product);
+        // El detalle lleva la galeria completa, cargada en una sola consulta
+        ProductResponseDto dto = new ProductResponseDto(product);
+        dto.setImages(imageService.getProductImages(id));
+        return dto;
     }
 
     @Override
@@ -119,6 +126,7 @@ public class ProductServiceImpl implements ProductService {
         if (productDto.getDescription() != null && !productDto.getDescription().isBlank())
             product.setDescription(productDto.getDescription());
 
+        Double previousPrice = product.getPrice();
         if (productDto.getPrice() != null)
             product.setPrice(productDto.getPrice());
 
@@ -140,6 +148,9 @@ public class ProductServiceImpl implements ProductService {
             product.setImageUrl(productDto.getImage());
 
         Product updatedProduct = productRepository.save(product);
+        if (!Objects.equals(previousPrice, updatedProduct.getPrice())) {
+            eventPublisher.publishEvent(new ProductPriceChangedEvent(id, previousPrice, updatedProduct.getPrice()));
+        }
         return convertToDto(updatedProduct);
     }
 
@@ -239,7 +250,7 @@ public class ProductServiceImpl implements ProductService {
             Page<Product> products = productRepository.findAllAvailableProducts(pageable, userId);
 
             List<ProductResponseDto> productDtos = products.getContent().stream()
-                    .map(this::convertToDtoWithImage)
+                    .map(ProductResponseDto::new)
                     .toList();
 
             return new PageImpl<>(productDtos, pageable, products.getTotalElements());
@@ -263,7 +274,7 @@ public class ProductServiceImpl implements ProductService {
             Page<Product> products = productRepository.findBySeller_Id(sellerId, pageable);
 
             List<ProductResponseDto> productDtos = products.getContent().stream()
-                    .map(this::convertToDtoWithImage)
+                    .map(ProductResponseDto::new)
                     .toList();
 
             return new PageImpl<>(productDtos, pageable, products.getTotalElements());
@@ -288,7 +299,7 @@ public class ProductServiceImpl implements ProductService {
         );
 
         List<ProductResponseDto> productDtos = products.getContent().stream()
-                .map(this::convertToDtoWithImage)
+                .map(ProductResponseDto::new)
                 .toList();
 
         return new PageImpl<>(productDtos, pageable, products.getTotalElements());
@@ -302,7 +313,7 @@ public class ProductServiceImpl implements ProductService {
 
             Page<Product> products = productRepository.findByCategory(category, pageable);
             List<ProductResponseDto> productDtos = products.getContent().stream()
-                    .map(this::convertToDtoWithImage)
+                    .map(ProductResponseDto::new)
                     .toList();
 
             return new PageImpl<>(productDtos, pageable, products.getTotalElements());
@@ -319,7 +330,7 @@ public class ProductServiceImpl implements ProductService {
 
             Page<Product> products = productRepository.findByTechnique(technique, pageable);
             List<ProductResponseDto> productDtos = products.getContent().stream()
-                    .map(this::convertToDtoWithImage)
+                    .map(ProductResponseDto::new)
                     .toList();
 
 
@@ -344,20 +355,7 @@ public class ProductServiceImpl implements ProductService {
         return products.map(this::convertToDto);
     }
 
-    private ProductResponseDto convertToDtoWithImage(Product product) {
-        ProductResponseDto dto = new ProductResponseDto(product);
-
-        String image = imageService.getLatestImage(product.getId());
-        if (image != null && !image.isBlank()) {
-            dto.setImage(image);
-        }
-
-        return dto;
-    }
-
     private ProductResponseDto convertToDto(Product product) {
-        String image = imageService.getLatestImage(product.getId());
-
         return ProductResponseDto.builder()
                 .productId(product.getId())
                 .name(product.getName())
@@ -372,8 +370,9 @@ public class ProductServiceImpl implements ProductService {
                 .price(product.getPrice())
                 .stock(product.getStock())
                 .status(product.getStatus().name())
-                .image(image != null && !image.isBlank() ? image :
-                        product.getImageUrl() != null ? product.getImageUrl() : "")
+                .image(product.getImageUrl() != null ? product.getImageUrl() : "")
+                .thumbnailImage(product.getThumbnailUrl() != null ? product.getThumbnailUrl() : product.getImageUrl())
+                .mediumImage(product.getMediumUrl() != null ? product.getMediumUrl() : product.getImageUrl())
                 .categories(product.getCategories() != null ?
                         product.getCategories().stream().map(Enum::name).toList() :
                         List.of())
@@ -384,4 +383,4 @@ public class ProductServiceImpl implements ProductService {
                 .sellerName(product.getSeller().getName())
                 .build();
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.dto.product.ProductViewCleanupStatusDto;
+import com.artemisia_corp.artemisia.repository.ProductViewRepository;
+import com.artemisia_corp.artemisia.service.LogsService;
+import com.artemisia_corp.artemisia.service.ProductViewCleanupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Borra las vistas de producto antiguas por lotes de ids ascendentes, cada lote en su propia transaccion
+ * corta y con una pausa entre lotes. El progreso (corte y ultimo id procesado) queda en memoria: un
+ * trabajo cancelado o fallido se puede retomar desde ese id con el mismo corte.
+ */
+@Slf4j
+@Service
+public class ProductViewCleanupServiceImpl implements ProductViewCleanupService {
+    private static final String IDLE = "IDLE";
+    private static final String RUNNING = "RUNNING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String CANCELLED = "CANCELLED";
+    private static final String FAILED = "FAILED";
+
+    private final ProductViewRepository productViewRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final LogsService logsService;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final int retentionDays;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile boolean cancelRequested;
+    private volatile ProductViewCleanupStatusDto status = ProductViewCleanupStatusDto.builder().state(IDLE).build();
+
+    public ProductViewCleanupServiceImpl(ProductViewRepository productViewRepository,
+                                         PlatformTransactionManager transactionManager,
+                                         TaskExecutor taskExecutor,
+                                         LogsService logsService,
+                                         @Value("${artemisia.product-views.cleanup.chunk-size:1000}") int chunkSize,
+                                         @Value("${artemisia.product-views.cleanup.pause-ms:100}") long pauseMs,
+                                         @Value("${artemisia.retention.product-views.retention-days:365}") int retentionDays) {
+        this.productViewRepository = productViewRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.logsService = logsService;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Lanza el trabajo en segundo plano y devuelve su estado inicial. Si ya hay uno en curso devuelve el
+     * estado de ese trabajo sin lanzar otro.
+     */
+    @Override
+    public ProductViewCleanupStatusDto start(int daysToKeep, boolean resume) {
+        if (daysToKeep < 1) {
+            throw new IllegalArgumentException("daysToKeep must be at least 1");
+        }
+        if (!running.compareAndSet(false, true)) {
+            return getStatus();
+        }
+        try {
+            prepare(daysToKeep, resume);
+            taskExecutor.execute(this::runChunks);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return getStatus();
+    }
+
+    @Override
+    @Scheduled(cron = "${artemisia.product-views.cleanup.cron:0 30 3 * * *}")
+    public void runScheduledCleanup() {
+        if (retentionDays <= 0 || !running.compareAndSet(false, true)) {
+            return;
+        }
+        // Un trabajo manual cancelado con otro corte no se retoma: el programado empieza de cero
+        prepare(retentionDays, false);
+        runChunks();
+    }
+
+    @Override
+    public ProductViewCleanupStatusDto cancel() {
+        if (running.get()) {
+            cancelRequested = true;
+        }
+        return getStatus();
+    }
+
+    @Override
+    public ProductViewCleanupStatusDto getStatus() {
+        ProductViewCleanupStatusDto current = status;
+        return ProductViewCleanupStatusDto.builder()
+                .state(current.getState())
+                .running(running.get())
+                .cancelRequested(cancelRequested)
+                .cutoff(current.getCutoff())
+                .lastProcessedId(current.getLastProcessedId())
+                .deleted(current.getDeleted())
+                .chunks(current.getChunks())
+                .startedAt(current.getStartedAt())
+                .finishedAt(current.getFinishedAt())
+                .rowsPerSecond(current.getRowsPerSecond())
+                .lastError(current.getLastError())
+                .build();
+    }
+
+    private void prepare(int daysToKeep, boolean resume) {
+        ProductViewCleanupStatusDto previous = status;
+        boolean resumable = resume && (CANCELLED.equals(previous.getState()) || FAILED.equals(previous.getState()));
+        cancelRequested = false;
+        status = ProductViewCleanupStatusDto.builder()
+                .state(RUNNING)
+                .cutoff(resumable ? previous.getCutoff() : LocalDateTime.now().minusDays(daysToKeep))
+                .lastProcessedId(resumable ? previous.getLastProcessedId() : 0L)
+                .deleted(resumable ? previous.getDeleted() : 0L)
+                .chunks(resumable ? previous.getChunks() : 0L)
+                .startedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void runChunks() {
+        ProductViewCleanupStatusDto progress = status;
+        long start = System.nanoTime();
+        long deletedThisRun = 0;
+        String finalState = COMPLETED;
+        try {
+            while (true) {
+                if (cancelRequested) {
+                    finalState = CANCELLED;
+                    break;
+                }
+                long afterId = progress.getLastProcessedId();
+                List<Long> ids = transactionTemplate.execute(tx -> {
+                    List<Long> batch = productViewRepository.findStaleIdsAfter(afterId, progress.getCutoff(),
+                            PageRequest.of(0, chunkSize));
+                    if (!batch.isEmpty()) {
+                        productViewRepository.deleteAllByIdInBatch(batch);
+                    }
+                    return batch;
+                });
+                if (ids == null || ids.isEmpty()) break;
+
+                deletedThisRun += ids.size();
+                progress.setLastProcessedId(ids.get(ids.size() - 1));
+                progress.setDeleted(progress.getDeleted() + ids.size());
+                progress.setChunks(progress.getChunks() + 1);
+                progress.setRowsPerSecond(deletedThisRun * 1e9 / Math.max(System.nanoTime() - start, 1));
+                status = progress;
+                if (ids.size() < chunkSize) break;
+                if (pauseMs > 0) {
+                    Thread.sleep(pauseMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finalState = CANCELLED;
+        } catch (Exception e) {
+            finalState = FAILED;
+            progress.setLastError(e.getMessage());
+            log.error("Product view cleanup failed after id {}: {}", progress.getLastProcessedId(), e.getMessage(), e);
+        } finally {
+            progress.setState(finalState);
+            progress.setFinishedAt(LocalDateTime.now());
+            status = progress;
+            cancelRequested = false;
+            running.set(false);
+        }
+        log.info("Product view cleanup {}: {} views deleted in {} chunks (cutoff {}, last id {})",
+                finalState, progress.getDeleted(), progress.getChunks(), progress.getCutoff(), progress.getLastProcessedId());
+        if (deletedThisRun > 0 || !COMPLETED.equals(finalState)) {
+            logsService.info("Product view cleanup " + finalState + ": " + deletedThisRun + " views deleted");
+        }
+    }
+}
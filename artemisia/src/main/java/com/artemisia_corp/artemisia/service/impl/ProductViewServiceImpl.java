@@ -33,7 +33,7 @@ public class ProductViewServiceImpl implements ProductViewService {
     private final RecommenderPythonClient recommenderClient;
 
     @Override
-    @Async
+    @Async("productViewExecutor")
     @Transactional
     public void trackProductView(Long userId, Long productId) {
         try {
@@ -45,7 +45,7 @@ public class ProductViewServiceImpl implements ProductViewService {
     }
 
     @Override
-    @Async
+    @Async("productViewExecutor")
     @Transactional
     public void trackProductViewWithDuration(Long userId, Long productId, Integer durationSeconds) {
         try {
@@ -178,18 +178,6 @@ public class ProductViewServiceImpl implements ProductViewService {
         }
     }
 
-    @Override
-    @Transactional
-    public void cleanupOldViews(int daysToKeep) {
-        try {
-            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysToKeep);
-            int deletedCount = productViewRepository.deleteOldViews(cutoffDate);
-            log.info("Cleaned up {} old product views older than {} days", deletedCount, daysToKeep);
-        } catch (Exception e) {
-            log.error("Error cleaning up old views: {}", e.getMessage());
-        }
-    }
-
     @Override
     @Transactional(readOnly = true)
     public List<Long> getSimilarProductsBasedOnViews(Long userId, Long productId, int limit) {
@@ -324,4 +312,4 @@ public class ProductViewServiceImpl implements ProductViewService {
             }
         }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -52,7 +52,7 @@ public class RecommendationServiceImpl implements RecommendationService {
     }
 
     @Override
-    @Async
+    @Async("recommendationExecutor")
     @Transactional
     public void updateUserPreferences(Long userId) {
         try {
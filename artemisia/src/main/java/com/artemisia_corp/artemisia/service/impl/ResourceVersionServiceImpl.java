@@ -0,0 +1,147 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.dto.cache.ResourceVersionDto;
+import com.artemisia_corp.artemisia.entity.enums.PaintingCategory;
+import com.artemisia_corp.artemisia.entity.enums.PaintingTechnique;
+import com.artemisia_corp.artemisia.repository.AuctionRepository;
+import com.artemisia_corp.artemisia.repository.ProductRepository;
+import com.artemisia_corp.artemisia.service.ResourceVersionService;
+import com.artemisia_corp.artemisia.service.impl.auction.AuctionBidEngine;
+import com.artemisia_corp.artemisia.service.impl.auction.AuctionBook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * ETags fuertes a partir de {@code version} y {@code modifiedDate}, calculados con una consulta liviana
+ * antes de cargar entidades. Se calculan antes que la respuesta: si algo cambia entre ambos, el
+ * cliente guarda un cuerpo mas nuevo que su ETag y la siguiente lectura simplemente no coincide.
+ * <p>
+ * Devuelve null cuando no se puede validar (no existe, o una subasta vencida aun sin cerrar) y el
+ * controlador responde por el camino normal.
+ */
+@Service
+public class ResourceVersionServiceImpl implements ResourceVersionService {
+    private final ProductRepository productRepository;
+    private final AuctionRepository auctionRepository;
+    private final AuctionBidEngine bidEngine;
+    private final long productMaxAge;
+    private final long catalogMaxAge;
+    private final long auctionMaxAge;
+
+    public ResourceVersionServiceImpl(ProductRepository productRepository,
+                                      AuctionRepository auctionRepository,
+                                      AuctionBidEngine bidEngine,
+                                      @Value("${artemisia.http-cache.product-max-age-seconds:30}") long productMaxAge,
+                                      @Value("${artemisia.http-cache.catalog-max-age-seconds:10}") long catalogMaxAge,
+                                      @Value("${artemisia.http-cache.auction-max-age-seconds:0}") long auctionMaxAge) {
+        this.productRepository = productRepository;
+        this.auctionRepository = auctionRepository;
+        this.bidEngine = bidEngine;
+        this.productMaxAge = productMaxAge;
+        this.catalogMaxAge = catalogMaxAge;
+        this.auctionMaxAge = auctionMaxAge;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDto getProductVersion(Long productId) {
+        if (productId == null || productId <= 0) {
+            return null;
+        }
+        ResourceVersionDto version = productRepository.findVersionById(productId);
+        return withETag(version, "p-" + productId, productMaxAge);
+    }
+
+    /**
+     * Version de una pagina de los listados: se calcula sobre las filas de la pagina (id, version y
+     * modifiedDate, en el orden pedido) y el total, no sobre todo el catalogo. Los listados generales
+     * excluyen los productos del propio usuario, por eso el usuario forma parte del ETag.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDto getAllProductsVersion(Pageable pageable, Long userId) {
+        return pageVersion(productRepository.findAllProductsVersions(pageable, userId), "c-all-u" + userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDto getAvailableProductsVersion(Pageable pageable, Long userId) {
+        return pageVersion(productRepository.findAvailableProductsVersions(pageable, userId), "c-available-u" + userId);
+    }
+
+    // Un id fuera de rango no se valida: el listado responde el error de siempre
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDto getCategoryVersion(Long categoryId, Pageable pageable) {
+        if (categoryId == null || categoryId < 1 || categoryId > PaintingCategory.values().length) {
+            return null;
+        }
+        PaintingCategory category = PaintingCategory.values()[categoryId.intValue() - 1];
+        return pageVersion(productRepository.findCategoryVersions(category, pageable), "c-cat" + categoryId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDto getTechniqueVersion(Long techniqueId, Pageable pageable) {
+        if (techniqueId == null || techniqueId < 1 || techniqueId > PaintingTechnique.values().length) {
+            return null;
+        }
+        PaintingTechnique technique = PaintingTechnique.values()[techniqueId.intValue() - 1];
+        return pageVersion(productRepository.findTechniqueVersions(technique, pageable), "c-tec" + techniqueId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDto getAuctionVersion(Long auctionId) {
+        if (auctionId == null || auctionId <= 0) {
+            return null;
+        }
+        ResourceVersionDto version = auctionRepository.findVersionById(auctionId, LocalDateTime.now());
+        // El precio y el mejor postor del libro abierto van por delante de lo persistido
+        long sequence = bidEngine.findBook(auctionId)
+                .filter(AuctionBook::isOpen)
+                .map(AuctionBook::getSequence)
+                .orElse(-1L);
+        return withETag(version, "a-" + auctionId + "-s" + sequence, auctionMaxAge);
+    }
+
+    /**
+     * En lugar de la suma de versiones, un hash de ids y versiones en orden: un producto que entra o sale
+     * de la pagina la cambia aunque sus fechas sean anteriores. Por lo mismo las paginas no llevan
+     * Last-Modified y solo se validan con el ETag.
+     */
+    private ResourceVersionDto pageVersion(Page<Object[]> page, String prefix) {
+        long hash = 1;
+        Date lastModified = null;
+        for (Object[] row : page.getContent()) {
+            hash = 31 * hash + ((Number) row[0]).longValue();
+            hash = 31 * hash + (row[1] != null ? ((Number) row[1]).longValue() : 0L);
+            Date modified = (Date) row[2];
+            if (modified != null && (lastModified == null || modified.after(lastModified))) {
+                lastModified = modified;
+            }
+        }
+        ResourceVersionDto version = withETag(new ResourceVersionDto(page.getTotalElements(), hash, lastModified),
+                prefix + "-" + page.getTotalElements() + "-" + page.getNumberOfElements(), catalogMaxAge);
+        if (version != null) {
+            version.setLastModified(null);
+        }
+        return version;
+    }
+
+    private static ResourceVersionDto withETag(ResourceVersionDto version, String prefix, long maxAge) {
+        if (version == null || version.getCount() == null || version.getCount() == 0) {
+            return null;
+        }
+        long lastModified = version.getLastModified() != null ? version.getLastModified().getTime() : 0L;
+        version.setEtag("\"" + prefix + "-" + version.getVersionSum() + "-" + Long.toHexString(lastModified) + "\"");
+        version.setMaxAgeSeconds(maxAge);
+        return version;
+    }
+}
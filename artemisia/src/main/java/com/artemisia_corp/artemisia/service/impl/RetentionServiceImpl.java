@@ -0,0 +1,226 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.service.LogsService;
+import com.artemisia_corp.artemisia.service.RetentionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retencion de las tablas que solo crecen.
+ * <p>
+ * {@code log} se particiona por rango mensual sobre {@code date} (log_pYYYYMM): cada pasada crea las
+ * particiones de los proximos meses y elimina con DROP TABLE las que quedaron enteras fuera de la
+ * retencion, sin recorrer filas. La conversion de la tabla existente se hace una sola vez al arrancar;
+ * con {@code artemisia.retention.log.partitioned} desactivado se conserva la tabla normal y se borra por
+ * lotes.
+ * <p>
+ * {@code product_views} guarda una fila por usuario y producto que se actualiza en cada vista, con la
+ * unicidad (user_id, product_id) como clave del upsert: no se puede particionar por fecha sin perder esa
+ * unicidad, asi que se poda por last_viewed_at en {@link ProductViewCleanupServiceImpl}.
+ */
+@Slf4j
+@Service
+public class RetentionServiceImpl implements RetentionService {
+    private static final String LOG_TABLE = "log";
+    private static final String PARTITION_PREFIX = "log_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    // Clave de pg_advisory_xact_lock para que dos instancias no gestionen particiones a la vez
+    private static final long RETENTION_LOCK_KEY = 4_301_202_501L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LogsService logsService;
+    private final boolean logPartitioned;
+    private final int logRetentionMonths;
+    private final int premakeMonths;
+    private final int deleteBatchSize;
+
+    public RetentionServiceImpl(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                LogsService logsService,
+                                @Value("${artemisia.retention.log.partitioned:true}") boolean logPartitioned,
+                                @Value("${artemisia.retention.log.retention-months:6}") int logRetentionMonths,
+                                @Value("${artemisia.retention.log.premake-months:3}") int premakeMonths,
+                                @Value("${artemisia.retention.delete-batch-size:5000}") int deleteBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.logsService = logsService;
+        this.logPartitioned = logPartitioned;
+        this.logRetentionMonths = Math.max(logRetentionMonths, 1);
+        this.premakeMonths = Math.max(premakeMonths, 1);
+        this.deleteBatchSize = deleteBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            migrateLogTable();
+            applyRetention();
+        } catch (Exception e) {
+            log.error("Retention startup run failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Convierte {@code log} en tabla particionada si el flag esta activo y aun es una tabla normal. Todo
+     * ocurre en una transaccion con la tabla bloqueada: solo se copian las filas dentro de la retencion.
+     */
+    @Override
+    public void migrateLogTable() {
+        if (!logPartitioned || !"r".equals(logTableKind())) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Integer copied = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, RETENTION_LOCK_KEY);
+            if (!"r".equals(logTableKind())) {
+                return null;
+            }
+            YearMonth oldest = YearMonth.now().minusMonths(logRetentionMonths - 1L);
+            jdbcTemplate.execute("LOCK TABLE log IN ACCESS EXCLUSIVE MODE");
+            jdbcTemplate.execute("ALTER TABLE log RENAME TO log_unpartitioned");
+            jdbcTemplate.execute("ALTER INDEX IF EXISTS log_pkey RENAME TO log_unpartitioned_pkey");
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_log_date_level");
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_log_level_date");
+            // La clave primaria de una tabla particionada tiene que incluir la columna de particion
+            jdbcTemplate.execute("CREATE TABLE log (" +
+                    "id bigint NOT NULL, " +
+                    "level varchar(30) NOT NULL, " +
+                    "message varchar(2000) NOT NULL, " +
+                    "date timestamp(6) NOT NULL, " +
+                    "PRIMARY KEY (id, date)) PARTITION BY RANGE (date)");
+            jdbcTemplate.execute("CREATE INDEX idx_log_date_level ON log (date, level, id)");
+            jdbcTemplate.execute("CREATE INDEX idx_log_level_date ON log (level, date, id)");
+            for (YearMonth month = oldest; !month.isAfter(YearMonth.now().plusMonths(premakeMonths)); month = month.plusMonths(1)) {
+                createLogPartition(month);
+            }
+            int rows = jdbcTemplate.update("INSERT INTO log (id, level, message, date) " +
+                    "SELECT id, level, message, date FROM log_unpartitioned WHERE date >= ? AND date < ?",
+                    Timestamp.valueOf(oldest.atDay(1).atStartOfDay()),
+                    Timestamp.valueOf(YearMonth.now().plusMonths(premakeMonths + 1L).atDay(1).atStartOfDay()));
+            jdbcTemplate.execute("DROP TABLE log_unpartitioned");
+            return rows;
+        });
+        if (copied != null) {
+            log.info("Migrated log table to monthly partitions, kept {} rows in {} ms",
+                    copied, System.currentTimeMillis() - start);
+            logsService.info("Log table converted to monthly partitions (" + copied + " rows kept)");
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${artemisia.retention.interval-ms:21600000}",
+            initialDelayString = "${artemisia.retention.interval-ms:21600000}")
+    public void applyRetention() {
+        try {
+            if ("p".equals(logTableKind())) {
+                rotateLogPartitions();
+            } else {
+                deleteExpiredLogs();
+            }
+        } catch (Exception e) {
+            log.error("Log retention failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> getLogPartitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ? ORDER BY c.relname", String.class, LOG_TABLE);
+    }
+
+    /**
+     * Crea las particiones que falten hasta {@code premakeMonths} por delante (un insert sin particion
+     * fallaria) y elimina las que terminan antes del primer mes retenido.
+     */
+    private void rotateLogPartitions() {
+        YearMonth current = YearMonth.now();
+        YearMonth oldestKept = current.minusMonths(logRetentionMonths - 1L);
+        List<String> created = new ArrayList<>();
+        List<String> dropped = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, RETENTION_LOCK_KEY);
+            List<String> existing = getLogPartitions();
+            for (YearMonth month = current; !month.isAfter(current.plusMonths(premakeMonths)); month = month.plusMonths(1)) {
+                if (!existing.contains(partitionName(month))) {
+                    createLogPartition(month);
+                    created.add(partitionName(month));
+                }
+            }
+            for (String partition : existing) {
+                YearMonth month = partitionMonth(partition);
+                if (month != null && month.isBefore(oldestKept)) {
+                    jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                    dropped.add(partition);
+                }
+            }
+        });
+        if (!created.isEmpty() || !dropped.isEmpty()) {
+            log.info("Log partitions created {} dropped {}", created, dropped);
+            logsService.info("Log retention: created partitions " + created + ", dropped " + dropped);
+        }
+    }
+
+    /**
+     * Sin particiones: borra por lotes para no mantener una transaccion larga sobre toda la tabla.
+     */
+    private void deleteExpiredLogs() {
+        Timestamp cutoff = Timestamp.valueOf(YearMonth.now().minusMonths(logRetentionMonths - 1L).atDay(1).atStartOfDay());
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM log WHERE id IN " +
+                    "(SELECT id FROM log WHERE date < ? LIMIT ?)", cutoff, deleteBatchSize);
+            total += deleted;
+        } while (deleted >= deleteBatchSize);
+        if (total > 0) {
+            log.info("Deleted {} log rows older than {}", total, cutoff);
+        }
+    }
+
+    private void createLogPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF log " +
+                "FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    /**
+     * relkind de la tabla log: 'r' normal, 'p' particionada, null si aun no existe.
+     */
+    private String logTableKind() {
+        List<String> kinds = jdbcTemplate.queryForList("SELECT c.relkind::text FROM pg_class c " +
+                "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                "WHERE c.relname = ? AND n.nspname = current_schema()", String.class, LOG_TABLE);
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private static YearMonth partitionMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) return null;
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
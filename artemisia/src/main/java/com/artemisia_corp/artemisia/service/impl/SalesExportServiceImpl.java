@@ -0,0 +1,251 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import com.artemisia_corp.artemisia.service.LogsService;
+import com.artemisia_corp.artemisia.service.SalesExportService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * Exporta las notas de venta con sus detalles directamente al flujo de la respuesta. Una sola consulta
+ * unida, leida con un cursor de solo avance (fetch size dentro de una transaccion de solo lectura, que
+ * es lo que Postgres necesita para no cargar el resultado entero) y escrita fila a fila sin crear
+ * entidades: la memoria usada no depende del numero de ventas exportadas.
+ */
+@Slf4j
+@Service
+public class SalesExportServiceImpl implements SalesExportService {
+    private static final String EXPORT_SQL =
+            "SELECT nv.id AS nota_venta_id, nv.date, nv.estado_venta, nv.user_id, nv.total_global, nv.id_transaccion, " +
+            "d.id AS detail_id, d.product_id, d.product_name, d.seller_id, d.quantity, d.total " +
+            "FROM nota_venta nv LEFT JOIN detail d ON d.group_id = nv.id " +
+            "WHERE (CAST(:estado AS varchar) IS NULL OR nv.estado_venta = :estado) " +
+            "AND (CAST(:from AS timestamp) IS NULL OR nv.date >= :from) " +
+            "AND (CAST(:to AS timestamp) IS NULL OR nv.date < :to) " +
+            "ORDER BY nv.id, d.id";
+
+    private static final String CSV_HEADER = "nota_venta_id,date,estado_venta,user_id,total_global,id_transaccion," +
+            "detail_id,product_id,product_name,seller_id,quantity,total\n";
+
+    private final NamedParameterJdbcTemplate cursorJdbc;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final LogsService logsService;
+    private final int flushEvery;
+
+    public SalesExportServiceImpl(DataSource dataSource,
+                                  PlatformTransactionManager transactionManager,
+                                  LogsService logsService,
+                                  @Value("${artemisia.export.fetch-size:1000}") int fetchSize,
+                                  @Value("${artemisia.export.flush-every:1000}") int flushEvery) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        this.cursorJdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.logsService = logsService;
+        this.flushEvery = flushEvery;
+    }
+
+    /**
+     * @return numero de notas de venta escritas
+     */
+    @Override
+    public long export(String format, VentaEstado estado, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("estado", estado != null ? estado.name() : null)
+                .addValue("from", from != null ? Timestamp.valueOf(from.atStartOfDay()) : null)
+                .addValue("to", to != null ? Timestamp.valueOf(to.plusDays(1).atStartOfDay()) : null);
+
+        long start = System.currentTimeMillis();
+        ExportWriter writer = NDJSON.equalsIgnoreCase(format) ? new NdjsonWriter(out) : new CsvWriter(out);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> cursorJdbc.query(EXPORT_SQL, params, writer));
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            // El cliente cerro la conexion: la transaccion ya se revirtio y el cursor se cerro
+            log.info("Sales export aborted after {} sales: {}", writer.sales, e.getCause().getMessage());
+            throw e.getCause();
+        }
+        logsService.info("Exported " + writer.sales + " sales as " + format + " in " + (System.currentTimeMillis() - start) + " ms");
+        return writer.sales;
+    }
+
+    private abstract class ExportWriter implements RowCallbackHandler {
+        private Long currentSale;
+        private long sales;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                long saleId = rs.getLong("nota_venta_id");
+                if (currentSale == null || currentSale != saleId) {
+                    if (currentSale != null) {
+                        endSale();
+                        if (sales % flushEvery == 0) flush();
+                    }
+                    currentSale = saleId;
+                    sales++;
+                    beginSale(rs);
+                }
+                detail(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            if (currentSale != null) endSale();
+            close();
+        }
+
+        abstract void beginSale(ResultSet rs) throws SQLException, IOException;
+
+        abstract void detail(ResultSet rs) throws SQLException, IOException;
+
+        abstract void endSale() throws IOException;
+
+        abstract void flush() throws IOException;
+
+        abstract void close() throws IOException;
+    }
+
+    /**
+     * Una linea por detalle, con los datos de la venta repetidos; una venta sin detalles deja las
+     * columnas del detalle vacias.
+     */
+    private final class CsvWriter extends ExportWriter {
+        private final Writer writer;
+        private final StringBuilder sale = new StringBuilder();
+
+        private CsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        void beginSale(ResultSet rs) throws SQLException {
+            sale.setLength(0);
+            sale.append(rs.getLong("nota_venta_id")).append(',')
+                    .append(csv(rs.getTimestamp("date"))).append(',')
+                    .append(csv(rs.getString("estado_venta"))).append(',')
+                    .append(rs.getLong("user_id")).append(',')
+                    .append(rs.getDouble("total_global")).append(',')
+                    .append(csv(rs.getString("id_transaccion"))).append(',');
+        }
+
+        @Override
+        void detail(ResultSet rs) throws SQLException, IOException {
+            writer.append(sale);
+            long detailId = rs.getLong("detail_id");
+            if (rs.wasNull()) {
+                writer.write(",,,,,\n");
+                return;
+            }
+            writer.append(String.valueOf(detailId)).append(',')
+                    .append(String.valueOf(rs.getLong("product_id"))).append(',')
+                    .append(csv(rs.getString("product_name"))).append(',')
+                    .append(String.valueOf(rs.getLong("seller_id"))).append(',')
+                    .append(String.valueOf(rs.getInt("quantity"))).append(',')
+                    .append(String.valueOf(rs.getDouble("total"))).append('\n');
+        }
+
+        @Override
+        void endSale() {
+        }
+
+        @Override
+        void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        void close() throws IOException {
+            writer.flush();
+        }
+
+        private String csv(Object value) {
+            if (value == null) return "";
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    /**
+     * Un objeto JSON por venta con sus detalles anidados, escrito con el generador de Jackson a medida
+     * que llegan las filas.
+     */
+    private final class NdjsonWriter extends ExportWriter {
+        private final JsonGenerator json;
+
+        private NdjsonWriter(OutputStream out) throws IOException {
+            this.json = jsonFactory.createGenerator(new BufferedOutputStream(out, 64 * 1024));
+            this.json.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        @Override
+        void beginSale(ResultSet rs) throws SQLException, IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", rs.getLong("nota_venta_id"));
+            Timestamp date = rs.getTimestamp("date");
+            json.writeStringField("date", date != null ? date.toLocalDateTime().toString() : null);
+            json.writeStringField("estadoVenta", rs.getString("estado_venta"));
+            json.writeNumberField("userId", rs.getLong("user_id"));
+            json.writeNumberField("totalGlobal", rs.getDouble("total_global"));
+            json.writeStringField("idTransaccion", rs.getString("id_transaccion"));
+            json.writeArrayFieldStart("detalles");
+        }
+
+        @Override
+        void detail(ResultSet rs) throws SQLException, IOException {
+            long detailId = rs.getLong("detail_id");
+            if (rs.wasNull()) return;
+            json.writeStartObject();
+            json.writeNumberField("id", detailId);
+            json.writeNumberField("productId", rs.getLong("product_id"));
+            json.writeStringField("productName", rs.getString("product_name"));
+            json.writeNumberField("sellerId", rs.getLong("seller_id"));
+            json.writeNumberField("quantity", rs.getInt("quantity"));
+            json.writeNumberField("total", rs.getDouble("total"));
+            json.writeEndObject();
+        }
+
+        @Override
+        void endSale() throws IOException {
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+
+        @Override
+        void flush() throws IOException {
+            json.flush();
+        }
+
+        @Override
+        void close() throws IOException {
+            if (super.sales > 0) json.writeRaw('\n');
+            json.flush();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.dto.admin_dashboard.*;
+import com.artemisia_corp.artemisia.entity.enums.SalesBreakdown;
+import com.artemisia_corp.artemisia.entity.enums.TimeBucket;
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import com.artemisia_corp.artemisia.repository.*;
+import com.artemisia_corp.artemisia.service.LogsService;
+import com.artemisia_corp.artemisia.service.SalesRollupService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+/**
+ * Mantiene los agregados diarios de ventas que lee el panel de administracion. Cada cambio de estado
+ * de una nota de venta resta sus importes del estado anterior y los suma al nuevo dentro de la misma
+ * transaccion, de modo que el panel nunca recorre nota_venta ni detail completos.
+ * Los carritos (ON_CART) no se agregan: cambian con cada producto agregado y se cuentan en vivo.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class SalesRollupServiceImpl implements SalesRollupService {
+    // Una venta pagada sigue siendo venta al enviarse o entregarse: la serie suma los tres estados por defecto
+    private static final List<VentaEstado> SOLD_STATES = List.of(VentaEstado.PAYED, VentaEstado.SHIPPED, VentaEstado.DELIVERED);
+    private static final long MAX_BUCKETS = 3700;
+
+    private final SalesDailyByStatusRepository statusRepository;
+    private final SalesDailyByCategoryRepository categoryRepository;
+    private final SalesDailyByTechniqueRepository techniqueRepository;
+    private final SalesDailyBySellerRepository sellerRepository;
+    private final NotaVentaRepository notaVentaRepository;
+    private final LogsService logsService;
+
+    @Override
+    @Transactional
+    public void recordTransition(Long notaVentaId, VentaEstado from, VentaEstado to) {
+        if (from == to) return;
+        // Los upserts leen nota_venta y detail por SQL: los cambios pendientes del contexto deben estar escritos
+        notaVentaRepository.flush();
+        if (from != null && from != VentaEstado.ON_CART) {
+            apply(notaVentaId, from, -1);
+        }
+        if (to != null && to != VentaEstado.ON_CART) {
+            apply(notaVentaId, to, 1);
+        }
+    }
+
+    private void apply(Long notaVentaId, VentaEstado estado, int sign) {
+        statusRepository.applyNotaVenta(notaVentaId, estado.name(), sign);
+        categoryRepository.applyNotaVenta(notaVentaId, estado.name(), sign);
+        techniqueRepository.applyNotaVenta(notaVentaId, estado.name(), sign);
+        sellerRepository.applyNotaVenta(notaVentaId, estado.name(), sign);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SalesSummaryDto getSalesSummary() {
+        List<Object[]> rows = statusRepository.sumByEstado(VentaEstado.PAYED);
+        Object[] row = rows.isEmpty() ? new Object[]{0L, 0.0} : rows.get(0);
+        return new SalesSummaryDto(((Number) row[0]).longValue(), ((Number) row[1]).doubleValue());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategorySalesDto> getTopCategories(int limit) {
+        return categoryRepository.findTopCategories(VentaEstado.PAYED, PageRequest.of(0, Math.max(limit, 1)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TechniqueSalesDto> getTopTechniques(int limit) {
+        return techniqueRepository.findTopTechniques(VentaEstado.PAYED, PageRequest.of(0, Math.max(limit, 1)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SellerPerformanceDto> getSellerPerformance() {
+        return sellerRepository.findSellerPerformance(VentaEstado.PAYED);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<VentaEstado, Long> getOrderStatusSummary() {
+        Map<VentaEstado, Long> counts = new EnumMap<>(VentaEstado.class);
+        for (Object[] row : statusRepository.countGroupByEstado()) {
+            long count = ((Number) row[1]).longValue();
+            if (count > 0) {
+                counts.put((VentaEstado) row[0], count);
+            }
+        }
+        long carts = notaVentaRepository.countByEstadoVenta(VentaEstado.ON_CART);
+        if (carts > 0) {
+            counts.put(VentaEstado.ON_CART, carts);
+        }
+        return counts;
+    }
+
+    /**
+     * Serie temporal de ventas leida de los agregados diarios: un rango de dos anos lee como mucho
+     * unas 730 filas por clave, sin tocar nota_venta ni detail. Sin desglose, los periodos sin ventas
+     * se devuelven en cero para que la serie sea continua.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public SalesTimeSeriesDto getSalesTimeSeries(LocalDate from, LocalDate to, TimeBucket granularity,
+                                                 SalesBreakdown breakdown, List<VentaEstado> estados) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(30);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("The start date must not be after the end date");
+        }
+        TimeBucket bucket = granularity != null ? granularity : TimeBucket.DAY;
+        SalesBreakdown by = breakdown != null ? breakdown : SalesBreakdown.NONE;
+        List<VentaEstado> states = estados == null || estados.isEmpty() ? SOLD_STATES : estados;
+        if (ChronoUnit.valueOf(bucket.name() + "S").between(bucketStart(start, bucket), end) >= MAX_BUCKETS) {
+            throw new IllegalArgumentException("The range has too many " + bucket.name().toLowerCase() + " buckets");
+        }
+        if (states.contains(VentaEstado.ON_CART)) {
+            throw new IllegalArgumentException("Carts are not aggregated by day");
+        }
+
+        String unit = bucket.name().toLowerCase();
+        List<String> stateNames = states.stream().map(Enum::name).toList();
+        List<SalesBucketDto> buckets = new ArrayList<>();
+        switch (by) {
+            case NONE -> {
+                Map<LocalDate, Object[]> rows = new HashMap<>();
+                for (Object[] row : statusRepository.sumByBucket(unit, start, end, stateNames)) {
+                    rows.put(toLocalDate(row[0]), row);
+                }
+                for (LocalDate day = bucketStart(start, bucket); !day.isAfter(end); day = next(day, bucket)) {
+                    Object[] row = rows.get(day);
+                    buckets.add(SalesBucketDto.builder()
+                            .bucketStart(day)
+                            .count(row != null ? ((Number) row[1]).longValue() : 0L)
+                            .revenue(row != null ? ((Number) row[2]).doubleValue() : 0.0)
+                            .build());
+                }
+            }
+            case CATEGORY -> addKeyed(buckets, categoryRepository.sumByBucket(unit, start, end, stateNames));
+            case TECHNIQUE -> addKeyed(buckets, techniqueRepository.sumByBucket(unit, start, end, stateNames));
+            case SELLER -> addKeyed(buckets, sellerRepository.sumByBucket(unit, start, end, stateNames));
+        }
+
+        return SalesTimeSeriesDto.builder()
+                .from(start)
+                .to(end)
+                .granularity(bucket)
+                .breakdown(by)
+                .estados(states)
+                .buckets(buckets)
+                .build();
+    }
+
+    private static void addKeyed(List<SalesBucketDto> buckets, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            buckets.add(SalesBucketDto.builder()
+                    .bucketStart(toLocalDate(row[0]))
+                    .key(String.valueOf(row[1]))
+                    .label(row[2] != null ? row[2].toString() : null)
+                    .count(((Number) row[3]).longValue())
+                    .revenue(((Number) row[4]).doubleValue())
+                    .build());
+        }
+    }
+
+    // Mismo criterio que date_trunc de Postgres: semanas ISO (lunes) y meses calendario
+    private static LocalDate bucketStart(LocalDate day, TimeBucket bucket) {
+        return switch (bucket) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate next(LocalDate day, TimeBucket bucket) {
+        return switch (bucket) {
+            case DAY -> day.plus(1, ChronoUnit.DAYS);
+            case WEEK -> day.plus(1, ChronoUnit.WEEKS);
+            case MONTH -> day.plus(1, ChronoUnit.MONTHS);
+        };
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    /**
+     * Reconstruye los agregados desde nota_venta y detail. Se usa al desplegar las tablas por primera vez
+     * o para corregir una desviacion; bloquea las tablas de agregados hasta terminar.
+     */
+    @Override
+    @Transactional
+    public RollupBackfillResultDto rebuild() {
+        long start = System.currentTimeMillis();
+        statusRepository.lockRollupTables();
+        statusRepository.deleteAllRows();
+        categoryRepository.deleteAllRows();
+        techniqueRepository.deleteAllRows();
+        sellerRepository.deleteAllRows();
+
+        RollupBackfillResultDto result = RollupBackfillResultDto.builder()
+                .statusRows(statusRepository.backfill())
+                .categoryRows(categoryRepository.backfill())
+                .techniqueRows(techniqueRepository.backfill())
+                .sellerRows(sellerRepository.backfill())
+                .build();
+        result.setDurationMs(System.currentTimeMillis() - start);
+
+        log.info("Sales rollups rebuilt: {}", result);
+        logsService.info("Sales rollups rebuilt in " + result.getDurationMs() + " ms");
+        return result;
+    }
+}
@@ -0,0 +1,149 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.dto.seller_dashboard.ProductSalesDto;
+import com.artemisia_corp.artemisia.entity.dto.seller_dashboard.SellerDashboardDto;
+import com.artemisia_corp.artemisia.entity.dto.seller_dashboard.SellerSalesSummaryDto;
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import com.artemisia_corp.artemisia.repository.NotaVentaRepository;
+import com.artemisia_corp.artemisia.repository.OrderDetailRepository;
+import com.artemisia_corp.artemisia.service.SellerDashboardService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Snapshot en memoria del panel de cada vendedor. La primera lectura de un vendedor lo calcula; despues
+ * solo se recalcula cuando alguno de sus detalles o notas de venta cambia (marca de agua sobre
+ * modified_date) o cuando supera la antiguedad maxima. Las paginas del panel se sirven del snapshot.
+ */
+@Slf4j
+@Service
+public class SellerDashboardServiceImpl implements SellerDashboardService {
+    private final OrderDetailRepository orderDetailRepository;
+    private final NotaVentaRepository notaVentaRepository;
+    private final int topProductsSize;
+    private final long overlapMs;
+    private final long maxAgeMs;
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private volatile Date watermark = new Date();
+
+    public SellerDashboardServiceImpl(OrderDetailRepository orderDetailRepository,
+                                      NotaVentaRepository notaVentaRepository,
+                                      @Value("${artemisia.seller-dashboard.top-products:20}") int topProductsSize,
+                                      @Value("${artemisia.seller-dashboard.watermark-overlap-ms:5000}") long overlapMs,
+                                      @Value("${artemisia.seller-dashboard.max-age-ms:600000}") long maxAgeMs) {
+        this.orderDetailRepository = orderDetailRepository;
+        this.notaVentaRepository = notaVentaRepository;
+        this.topProductsSize = topProductsSize;
+        this.overlapMs = overlapMs;
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    @Override
+    public SellerDashboardDto getDashboard(Long sellerId) {
+        return getDashboard(sellerId, topProductsSize);
+    }
+
+    @Override
+    public SellerDashboardDto getDashboard(Long sellerId, int topProductsLimit) {
+        if (sellerId == null) {
+            throw new IllegalArgumentException("Seller id is required");
+        }
+        // Las consultas corren fuera del mapa: dos lecturas simultaneas pueden calcular el mismo vendedor
+        Snapshot snapshot = snapshots.get(sellerId);
+        if (snapshot == null || snapshot.isOlderThan(maxAgeMs)) {
+            snapshot = load(sellerId);
+            snapshots.put(sellerId, snapshot);
+        }
+        SellerDashboardDto dashboard = snapshot.dashboard;
+        List<ProductSalesDto> topProducts = dashboard.getTopProducts();
+        if (topProductsLimit < topProducts.size()) {
+            return SellerDashboardDto.builder()
+                    .sellerId(dashboard.getSellerId())
+                    .salesSummary(dashboard.getSalesSummary())
+                    .orderStatusSummary(dashboard.getOrderStatusSummary())
+                    .topProducts(topProducts.subList(0, Math.max(topProductsLimit, 0)))
+                    .categoriesPerformance(dashboard.getCategoriesPerformance())
+                    .techniquesPerformance(dashboard.getTechniquesPerformance())
+                    .refreshedAt(dashboard.getRefreshedAt())
+                    .build();
+        }
+        return dashboard;
+    }
+
+    /**
+     * Recalcula solo los vendedores en memoria que tuvieron cambios desde la ultima pasada. La marca de
+     * agua retrocede un margen para no perder filas modificadas antes de que su transaccion confirmara.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${artemisia.seller-dashboard.refresh-ms:30000}")
+    public void refreshChangedSellers() {
+        if (snapshots.isEmpty()) {
+            watermark = new Date();
+            return;
+        }
+        Date startedAt = new Date();
+        Date since = new Date(watermark.getTime() - overlapMs);
+        List<Long> changed = orderDetailRepository.findSellerIdsChangedSince(since);
+
+        int refreshed = 0;
+        for (Long sellerId : changed) {
+            if (snapshots.containsKey(sellerId)) {
+                snapshots.put(sellerId, load(sellerId));
+                refreshed++;
+            }
+        }
+        watermark = startedAt;
+        if (refreshed > 0) {
+            log.debug("Refreshed {} seller dashboard snapshots", refreshed);
+        }
+    }
+
+    private Snapshot load(Long sellerId) {
+        Double totalRevenue = orderDetailRepository.sumTotalBySeller(sellerId);
+        Long totalSales = orderDetailRepository.countBySeller(sellerId);
+
+        Map<VentaEstado, Long> statusCounts = new EnumMap<>(VentaEstado.class);
+        for (Object[] row : notaVentaRepository.countOrdersBySellerAndStatus(sellerId)) {
+            statusCounts.put((VentaEstado) row[0], ((Number) row[1]).longValue());
+        }
+        long pendingShipments = statusCounts.getOrDefault(VentaEstado.PAYED, 0L);
+
+        SellerDashboardDto dashboard = SellerDashboardDto.builder()
+                .sellerId(sellerId)
+                .salesSummary(new SellerSalesSummaryDto(
+                        totalSales != null ? totalSales : 0L,
+                        totalRevenue != null ? totalRevenue : 0.0,
+                        pendingShipments))
+                .orderStatusSummary(Collections.unmodifiableMap(statusCounts))
+                .topProducts(List.copyOf(orderDetailRepository.findTopProductsBySeller(sellerId, topProductsSize)))
+                .categoriesPerformance(List.copyOf(orderDetailRepository.findSalesByCategoryForSeller(sellerId)))
+                .techniquesPerformance(List.copyOf(orderDetailRepository.findSalesByTechniqueForSeller(sellerId)))
+                .refreshedAt(LocalDateTime.now())
+                .build();
+        return new Snapshot(dashboard, System.currentTimeMillis());
+    }
+
+    private static final class Snapshot {
+        private final SellerDashboardDto dashboard;
+        private final long loadedAtMillis;
+
+        private Snapshot(SellerDashboardDto dashboard, long loadedAtMillis) {
+            this.dashboard = dashboard;
+            this.loadedAtMillis = loadedAtMillis;
+        }
+
+        private boolean isOlderThan(long maxAgeMs) {
+            return System.currentTimeMillis() - loadedAtMillis > maxAgeMs;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import com.artemisia_corp.artemisia.entity.dto.auction.AuctionEventDto;
+import com.artemisia_corp.artemisia.entity.enums.AuctionStatus;
+import com.artemisia_corp.artemisia.service.LogsService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cierre por lotes de subastas vencidas. En lugar de finalizar una a una (cargar producto, buscar
+ * la puja mas alta, crear nota de venta y detalle, ajustar stock y guardar), cada lote toma a los
+ * ganadores de las filas bloqueadas e inserta y actualiza con sentencias JDBC por lotes.
+ * <p>
+ * El ganador es el mismo que elige el camino individual: el lider que el motor de pujas dejo en
+ * highest_bidder_id (resuelto con las pujas automaticas) al precio actual. Solo las subastas sin
+ * lider registrado recurren a la puja visible mas alta. Las subastas que no encajan en el caso comun
+ * (sin stock para el ganador, extendidas por cierre suave o bloqueadas por otro cierre) se devuelven
+ * para el camino individual.
+ */
+@Slf4j
+@Component
+public class AuctionBatchCloser {
+    private static final String AUDITOR = "ADMIN";
+
+    private static final String CLAIM_SQL =
+            "SELECT a.id, a.product_id, a.seller_id, a.end_date, a.current_price, a.highest_bidder_id, " +
+            "p.name AS product_name, p.stock " +
+            "FROM auction a JOIN product p ON p.id = a.product_id " +
+            "WHERE a.id IN (:ids) AND a.status = 'ACTIVE' AND a.end_date <= :now " +
+            "ORDER BY a.id FOR UPDATE OF a SKIP LOCKED";
+
+    // Subastas anteriores a highest_bidder_id: misma alternativa que finishAuction
+    private static final String TOP_BIDS_SQL =
+            "SELECT auction_id, participant_id, bid_amount FROM (" +
+            "  SELECT ap.auction_id, ap.participant_id, ap.bid_amount, " +
+            "         ROW_NUMBER() OVER (PARTITION BY ap.auction_id ORDER BY ap.bid_amount DESC, ap.bid_date ASC) AS rn " +
+            "  FROM auction_participant ap WHERE ap.auction_id IN (:ids)" +
+            ") ranked WHERE rn = 1";
+
+    private static final String INSERT_NOTA_VENTA_SQL =
+            "INSERT INTO nota_venta (id, user_id, estado_venta, total_global, date, moneda_carrito, precios_convertidos, " +
+            "created_date, modified_date, created_by, modified_by, version) " +
+            "VALUES (:id, :buyerId, 'ON_CART', :total, :date, 'BOB', true, :now, :now, :auditor, :auditor, 0)";
+
+    private static final String INSERT_DETAIL_SQL =
+            "INSERT INTO detail (id, group_id, product_id, seller_id, product_name, quantity, total, " +
+            "created_date, modified_date, created_by, modified_by, version) " +
+            "VALUES (:id, :groupId, :productId, :sellerId, :productName, 1, :total, :now, :now, :auditor, :auditor, 0)";
+
+    private static final String FINISH_AUCTION_SQL =
+            "UPDATE auction SET status = 'FINISHED', winner_id = :winnerId, highest_bidder_id = :winnerId, " +
+            "current_price = :price, nota_venta_id = :notaVentaId, modified_date = :now, modified_by = :auditor, " +
+            "version = version + 1 WHERE id = :id";
+
+    private static final String CANCEL_AUCTIONS_SQL =
+            "UPDATE auction SET status = 'CANCELLED', modified_date = :now, modified_by = :auditor, version = version + 1 " +
+            "WHERE id IN (:ids)";
+
+    // Mismo resultado que manageStock (descuenta una unidad) seguido del cambio de estado de finishAuction
+    private static final String SELL_PRODUCTS_SQL =
+            "UPDATE product SET stock = stock - 1, " +
+            "status = CASE WHEN stock - 1 <= 0 THEN 'UNAVAILABLE' WHEN status = 'ON_AUCTION' THEN 'AVAILABLE' ELSE status END, " +
+            "modified_date = :now, modified_by = :auditor, version = version + 1 WHERE id IN (:ids)";
+
+    private static final String RELEASE_PRODUCTS_SQL =
+            "UPDATE product SET status = CASE WHEN stock > 0 THEN 'AVAILABLE' ELSE 'UNAVAILABLE' END, " +
+            "modified_date = :now, modified_by = :auditor, version = version + 1 " +
+            "WHERE id IN (:ids) AND status = 'ON_AUCTION'";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final AuctionBidEngine bidEngine;
+    private final AuctionEventBroadcaster eventBroadcaster;
+    private final LogsService logsService;
+
+    @Value("${artemisia.auction.batch-close.size:500}")
+    private int batchSize;
+
+    public AuctionBatchCloser(NamedParameterJdbcTemplate jdbc,
+                              TransactionTemplate transactionTemplate,
+                              AuctionBidEngine bidEngine,
+                              AuctionEventBroadcaster eventBroadcaster,
+                              LogsService logsService) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = transactionTemplate;
+        this.bidEngine = bidEngine;
+        this.eventBroadcaster = eventBroadcaster;
+        this.logsService = logsService;
+    }
+
+    /**
+     * Cierra las subastas vencidas de la lista, un lote por transaccion.
+     *
+     * @return los ids que se cerraron; el resto debe finalizarse por el camino individual
+     */
+    public List<Long> closeExpired(Collection<Long> auctionIds) {
+        List<Long> ids = new ArrayList<>(auctionIds);
+        List<Long> closed = new ArrayList<>(ids.size());
+        long start = System.nanoTime();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            try {
+                List<Long> chunkClosed = transactionTemplate.execute(status -> closeChunk(chunk, LocalDateTime.now()));
+                if (chunkClosed != null) closed.addAll(chunkClosed);
+            } catch (Exception e) {
+                log.error("Batch close of {} auctions failed, they fall back to one by one: {}", chunk.size(), e.getMessage(), e);
+            }
+        }
+        if (!closed.isEmpty()) {
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("Batch closed {} of {} expired auctions in {} ms", closed.size(), ids.size(), durationMs);
+            logsService.info("Batch closed " + closed.size() + " expired auctions in " + durationMs + " ms");
+        }
+        return closed;
+    }
+
+    private List<Long> closeChunk(List<Long> ids, LocalDateTime now) {
+        // Los libros se cierran antes de bloquear las filas: persistir sus pujas pendientes actualiza
+        // la subasta en otra transaccion
+        List<Long> candidates = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            boolean extended = bidEngine.findBook(id)
+                    .filter(AuctionBook::isOpen)
+                    .map(book -> book.getEndDate().isAfter(now))
+                    .orElse(false);
+            if (extended) continue;
+            bidEngine.close(id);
+            candidates.add(id);
+        }
+        if (candidates.isEmpty()) return List.of();
+
+        Timestamp nowTs = Timestamp.valueOf(now);
+        List<ExpiredAuction> claimed = jdbc.query(CLAIM_SQL,
+                new MapSqlParameterSource("ids", candidates).addValue("now", nowTs),
+                (rs, i) -> new ExpiredAuction(rs.getLong("id"), rs.getLong("product_id"), rs.getLong("seller_id"),
+                        rs.getTimestamp("end_date").toLocalDateTime(), rs.getDouble("current_price"),
+                        rs.getObject("highest_bidder_id", Long.class), rs.getString("product_name"), rs.getInt("stock")));
+        if (claimed.isEmpty()) return List.of();
+
+        Map<Long, Winner> winners = new HashMap<>();
+        List<Long> withoutLeader = new ArrayList<>();
+        for (ExpiredAuction auction : claimed) {
+            if (auction.getHighestBidderId() != null) {
+                winners.put(auction.getId(), new Winner(auction.getHighestBidderId(), auction.getCurrentPrice()));
+            } else {
+                withoutLeader.add(auction.getId());
+            }
+        }
+        if (!withoutLeader.isEmpty()) {
+            jdbc.query(TOP_BIDS_SQL, new MapSqlParameterSource("ids", withoutLeader),
+                    rs -> {
+                        winners.put(rs.getLong("auction_id"), new Winner(rs.getLong("participant_id"), rs.getDouble("bid_amount")));
+                    });
+        }
+
+        List<ExpiredAuction> sold = new ArrayList<>();
+        List<ExpiredAuction> cancelled = new ArrayList<>();
+        for (ExpiredAuction auction : claimed) {
+            if (!winners.containsKey(auction.getId())) {
+                cancelled.add(auction);
+            } else if (auction.getStock() >= 1) {
+                sold.add(auction);
+            }
+            // Ganador sin stock: queda para el camino individual, que reporta el error
+        }
+
+        List<AuctionEventDto> events = new ArrayList<>(sold.size() + cancelled.size());
+        if (!sold.isEmpty()) {
+            List<Long> notaIds = nextIds("seq_nota_venta_id", sold.size());
+            List<Long> detailIds = nextIds("seq_detail_id", sold.size());
+            SqlParameterSource[] notas = new SqlParameterSource[sold.size()];
+            SqlParameterSource[] details = new SqlParameterSource[sold.size()];
+            SqlParameterSource[] auctions = new SqlParameterSource[sold.size()];
+            for (int i = 0; i < sold.size(); i++) {
+                ExpiredAuction auction = sold.get(i);
+                Winner winner = winners.get(auction.getId());
+                Long winnerId = winner.getParticipantId();
+                double amount = winner.getAmount();
+                notas[i] = new MapSqlParameterSource()
+                        .addValue("id", notaIds.get(i))
+                        .addValue("buyerId", winnerId)
+                        .addValue("total", amount)
+                        .addValue("date", nowTs)
+                        .addValue("now", nowTs)
+                        .addValue("auditor", AUDITOR);
+                details[i] = new MapSqlParameterSource()
+                        .addValue("id", detailIds.get(i))
+                        .addValue("groupId", notaIds.get(i))
+                        .addValue("productId", auction.getProductId())
+                        .addValue("sellerId", auction.getSellerId())
+                        .addValue("productName", auction.getProductName())
+                        .addValue("total", amount)
+                        .addValue("now", nowTs)
+                        .addValue("auditor", AUDITOR);
+                auctions[i] = new MapSqlParameterSource()
+                        .addValue("id", auction.getId())
+                        .addValue("winnerId", winnerId)
+                        .addValue("price", amount)
+                        .addValue("notaVentaId", notaIds.get(i))
+                        .addValue("now", nowTs)
+                        .addValue("auditor", AUDITOR);
+                events.add(closedEvent(auction, AuctionStatus.FINISHED, amount, winnerId, now));
+            }
+            jdbc.batchUpdate(INSERT_NOTA_VENTA_SQL, notas);
+            jdbc.batchUpdate(INSERT_DETAIL_SQL, details);
+            jdbc.batchUpdate(FINISH_AUCTION_SQL, auctions);
+            jdbc.update(SELL_PRODUCTS_SQL, new MapSqlParameterSource("ids", sold.stream().map(ExpiredAuction::getProductId).toList())
+                    .addValue("now", nowTs).addValue("auditor", AUDITOR));
+        }
+
+        if (!cancelled.isEmpty()) {
+            jdbc.update(CANCEL_AUCTIONS_SQL, new MapSqlParameterSource("ids", cancelled.stream().map(ExpiredAuction::getId).toList())
+                    .addValue("now", nowTs).addValue("auditor", AUDITOR));
+            jdbc.update(RELEASE_PRODUCTS_SQL, new MapSqlParameterSource("ids", cancelled.stream().map(ExpiredAuction::getProductId).toList())
+                    .addValue("now", nowTs).addValue("auditor", AUDITOR));
+            for (ExpiredAuction auction : cancelled) {
+                events.add(closedEvent(auction, AuctionStatus.CANCELLED, auction.getCurrentPrice(), null, now));
+            }
+        }
+
+        publishAfterCommit(events);
+        List<Long> closed = new ArrayList<>(events.size());
+        sold.forEach(auction -> closed.add(auction.getId()));
+        cancelled.forEach(auction -> closed.add(auction.getId()));
+        return closed;
+    }
+
+    private List<Long> nextIds(String sequence, int count) {
+        return jdbc.queryForList("SELECT nextval('" + sequence + "') FROM generate_series(1, :count)",
+                new MapSqlParameterSource("count", count), Long.class);
+    }
+
+    private AuctionEventDto closedEvent(ExpiredAuction auction, AuctionStatus status, double price, Long winnerId,
+                                        LocalDateTime now) {
+        return AuctionEventDto.builder()
+                .type(AuctionEventDto.CLOSED)
+                .auctionId(auction.getId())
+                .status(status.name())
+                .currentPrice(price)
+                .winnerId(winnerId)
+                .endDate(auction.getEndDate())
+                .timestamp(now)
+                .build();
+    }
+
+    private void publishAfterCommit(List<AuctionEventDto> events) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                events.forEach(eventBroadcaster::publishClosed);
+            }
+        });
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class ExpiredAuction {
+        private final Long id;
+        private final Long productId;
+        private final Long sellerId;
+        private final LocalDateTime endDate;
+        private final double currentPrice;
+        private final Long highestBidderId;
+        private final String productName;
+        private final int stock;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Winner {
+        private final Long participantId;
+        private final double amount;
+    }
+}
@@ -0,0 +1,181 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import com.artemisia_corp.artemisia.entity.Auction;
+import com.artemisia_corp.artemisia.entity.AuctionParticipant;
+import com.artemisia_corp.artemisia.entity.enums.AuctionStatus;
+import com.artemisia_corp.artemisia.exception.NotDataFoundException;
+import com.artemisia_corp.artemisia.exception.OperationException;
+import com.artemisia_corp.artemisia.repository.AuctionParticipantRepository;
+import com.artemisia_corp.artemisia.repository.AuctionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Motor de pujas en memoria. Cada subasta activa con pujas tiene un {@link AuctionBook} que serializa
+ * sus pujas; el precio mas alto vive en memoria y las pujas aceptadas se escriben por lotes cada
+ * pocos milisegundos. Al finalizar una subasta se cierra su libro y se persiste lo pendiente antes
+ * de elegir al ganador.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuctionBidEngine {
+    private final AuctionRepository auctionRepository;
+    private final AuctionParticipantRepository auctionParticipantRepository;
+    private final AuctionBidWriter bidWriter;
+
+    @Value("${artemisia.auction.proxy-increment:1.0}")
+    private double proxyIncrement;
+
+    @Value("${artemisia.auction.soft-close.window-seconds:0}")
+    private long softCloseWindowSeconds;
+
+    @Value("${artemisia.auction.soft-close.extension-seconds:120}")
+    private long softCloseExtensionSeconds;
+
+    private final Map<Long, AuctionBook> books = new ConcurrentHashMap<>();
+    // Un solo lote en vuelo a la vez: evita que dos escrituras inserten el mismo participante
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Devuelve el libro de la subasta, cargandolo desde la base de datos la primera vez.
+     * Devuelve null si la subasta existe pero ya no esta activa.
+     * <p>
+     * La lectura puede ser anterior a un cierre que confirma y retira su libro antes de que este se
+     * publique. Por eso un libro recien cargado vuelve a leer el estado con su primera puja: si la
+     * subasta ya no esta activa el libro se cierra y se retira sin aceptar pujas.
+     */
+    public AuctionBook getBook(Long auctionId) {
+        AuctionBook book = books.get(auctionId);
+        if (book != null) return book;
+
+        AuctionBook loaded = loadBook(auctionId);
+        if (loaded == null) return null;
+        loaded.requireActiveCheck(() -> {
+            if (auctionRepository.findStatusById(auctionId) == AuctionStatus.ACTIVE) return true;
+            books.remove(auctionId, loaded);
+            return false;
+        });
+        AuctionBook existing = books.putIfAbsent(auctionId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    public Optional<AuctionBook> findBook(Long auctionId) {
+        return Optional.ofNullable(books.get(auctionId));
+    }
+
+    /**
+     * Cierra el libro de la subasta y persiste sus pujas pendientes. El libro cerrado sigue
+     * registrado hasta que termina la transaccion que finaliza la subasta, para que ninguna puja
+     * concurrente vuelva a cargarlo como activo.
+     *
+     * @return el libro cerrado, o null si la subasta no tenia estado en memoria
+     */
+    public AuctionBook close(Long auctionId) {
+        AuctionBook book = books.get(auctionId);
+        if (book == null) {
+            AuctionBook tombstone = AuctionBook.closed(auctionId);
+            book = books.putIfAbsent(auctionId, tombstone);
+            if (book == null) {
+                evictAfterCompletion(auctionId, tombstone);
+                return null;
+            }
+        }
+
+        List<PendingBid> remaining = book.close();
+        if (!remaining.isEmpty()) {
+            flushLock.lock();
+            try {
+                bidWriter.persist(remaining);
+            } catch (RuntimeException e) {
+                book.reopen(remaining);
+                log.error("Could not persist pending bids while closing auction {}: {}", auctionId, e.getMessage(), e);
+                throw new OperationException("No se pudieron guardar las pujas pendientes de la subasta");
+            } finally {
+                flushLock.unlock();
+            }
+        }
+        evictAfterCompletion(auctionId, book);
+        return book;
+    }
+
+    @Scheduled(fixedDelayString = "${artemisia.auction.bid-flush-interval-ms:200}")
+    public void flushPending() {
+        Map<AuctionBook, List<PendingBid>> drained = new IdentityHashMap<>();
+        List<PendingBid> batch = new ArrayList<>();
+        for (AuctionBook book : books.values()) {
+            List<PendingBid> bids = book.drainPending();
+            if (!bids.isEmpty()) {
+                drained.put(book, bids);
+                batch.addAll(bids);
+            }
+        }
+        if (batch.isEmpty()) return;
+
+        flushLock.lock();
+        try {
+            bidWriter.persist(batch);
+        } catch (RuntimeException e) {
+            log.error("Could not persist {} bids, they will be retried: {}", batch.size(), e.getMessage(), e);
+            drained.forEach(AuctionBook::requeue);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushPending();
+    }
+
+    private AuctionBook loadBook(Long auctionId) {
+        Auction auction = auctionRepository.findById(auctionId)
+                .orElseThrow(() -> new NotDataFoundException("Auction not found with ID: " + auctionId));
+        if (auction.getStatus() != AuctionStatus.ACTIVE) {
+            return null;
+        }
+
+        Long highestBidderId = auction.getHighestBidder() != null ? auction.getHighestBidder().getId()
+                : auctionParticipantRepository.findFirstByAuction_IdOrderByBidAmountDesc(auctionId)
+                .map(top -> top.getParticipant().getId())
+                .orElse(null);
+
+        AuctionBook book = new AuctionBook(auction.getId(), auction.getSeller().getId(), auction.getEndDate(),
+                auction.getCurrentPrice(), highestBidderId, proxyIncrement);
+        book.enableSoftClose(Duration.ofSeconds(softCloseWindowSeconds), Duration.ofSeconds(softCloseExtensionSeconds));
+        // Solo los maximos que superan el precio actual pueden seguir compitiendo
+        for (AuctionParticipant proxy : auctionParticipantRepository
+                .findByAuction_IdAndMaxBidGreaterThanOrderByBidDateAsc(auctionId, auction.getCurrentPrice())) {
+            book.restoreMax(proxy.getParticipant().getId(), proxy.getMaxBid());
+        }
+        return book;
+    }
+
+    private void evictAfterCompletion(Long auctionId, AuctionBook book) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    books.remove(auctionId, book);
+                }
+            });
+        } else {
+            books.remove(auctionId, book);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import com.artemisia_corp.artemisia.entity.Auction;
+import com.artemisia_corp.artemisia.entity.AuctionParticipant;
+import com.artemisia_corp.artemisia.repository.AuctionParticipantRepository;
+import com.artemisia_corp.artemisia.repository.AuctionRepository;
+import com.artemisia_corp.artemisia.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Escribe en base de datos los lotes de pujas aceptadas por {@link AuctionBidEngine}.
+ * Por cada subasta se conserva solo la puja mas alta (y el maximo automatico mas alto) de cada
+ * participante y el precio de la subasta nunca baja, de modo que reintentar un lote es seguro.
+ * El lider que se guarda es el del libro tras la ultima puja del lote, no el de mayor monto: con
+ * pujas automaticas el lider y quien lo iguala quedan con el mismo monto visible.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuctionBidWriter {
+    private final AuctionRepository auctionRepository;
+    private final AuctionParticipantRepository auctionParticipantRepository;
+    private final UserRepository userRepository;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void persist(List<PendingBid> bids) {
+        Map<Long, Map<Long, PendingBid>> byAuction = new LinkedHashMap<>();
+        Map<Long, PendingBid> lastByAuction = new LinkedHashMap<>();
+        for (PendingBid bid : bids) {
+            byAuction.computeIfAbsent(bid.getAuctionId(), id -> new LinkedHashMap<>())
+                    .merge(bid.getParticipantId(), bid, PendingBid::merge);
+            lastByAuction.put(bid.getAuctionId(), bid);
+        }
+
+        byAuction.forEach((auctionId, latestByParticipant) -> {
+            Map<Long, AuctionParticipant> existing = auctionParticipantRepository
+                    .findByAuction_IdAndParticipant_IdIn(auctionId, latestByParticipant.keySet())
+                    .stream()
+                    .collect(Collectors.toMap(ap -> ap.getParticipant().getId(), Function.identity()));
+            Auction auction = auctionRepository.getReferenceById(auctionId);
+
+            List<AuctionParticipant> changed = new ArrayList<>();
+            double price = 0;
+            LocalDateTime endDate = null;
+            for (PendingBid bid : latestByParticipant.values()) {
+                price = Math.max(price, bid.getBidAmount());
+                if (bid.getAuctionEndDate() != null && (endDate == null || bid.getAuctionEndDate().isAfter(endDate))) {
+                    endDate = bid.getAuctionEndDate();
+                }
+                AuctionParticipant participant = existing.get(bid.getParticipantId());
+                if (participant == null) {
+                    changed.add(AuctionParticipant.builder()
+                            .auction(auction)
+                            .participant(userRepository.getReferenceById(bid.getParticipantId()))
+                            .bidAmount(bid.getBidAmount())
+                            .maxBid(bid.getMaxAmount())
+                            .bidDate(bid.getBidDate())
+                            .build());
+                } else {
+                    boolean raised = false;
+                    if (bid.getBidAmount() > participant.getBidAmount()) {
+                        participant.setBidAmount(bid.getBidAmount());
+                        participant.setBidDate(bid.getBidDate());
+                        raised = true;
+                    }
+                    if (bid.getMaxAmount() != null
+                            && (participant.getMaxBid() == null || bid.getMaxAmount() > participant.getMaxBid())) {
+                        participant.setMaxBid(bid.getMaxAmount());
+                        raised = true;
+                    }
+                    if (raised) changed.add(participant);
+                }
+            }
+            auctionParticipantRepository.saveAll(changed);
+            auctionRepository.raiseCurrentPrice(auctionId, price,
+                    userRepository.getReferenceById(lastByAuction.get(auctionId).getLeaderId()), new Date());
+            if (endDate != null) {
+                auctionRepository.extendEndDate(auctionId, endDate, new Date());
+            }
+        });
+    }
+}
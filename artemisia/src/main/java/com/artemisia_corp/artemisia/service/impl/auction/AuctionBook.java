@@ -0,0 +1,374 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import com.artemisia_corp.artemisia.exception.OperationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Estado en memoria de una subasta activa. Todas las pujas de la subasta pasan por el mismo lock,
+ * por lo que la comparacion con el precio actual y la actualizacion son atomicas. Las pujas
+ * aceptadas quedan en una lista pendiente que el motor persiste por lotes.
+ * <p>
+ * Puja automatica: cada participante tiene un maximo (el monto de su puja si no indico otro).
+ * Los maximos se ordenan en un arbol, asi que resolver una puja nueva cuesta O(log n): lidera el
+ * maximo mas alto (el mas antiguo en caso de empate) y el precio visible es el segundo maximo mas
+ * el incremento, sin superar el maximo del lider. Solo se persisten los montos visibles.
+ * <p>
+ * Cierre suave: si esta activado, una puja que cambia el precio dentro de la ventana final extiende
+ * la fecha de fin hasta "ahora + extension". La fecha de fin en memoria es la que manda mientras el
+ * libro esta abierto; el motor la persiste con el siguiente lote.
+ */
+public class AuctionBook {
+    public static final double DEFAULT_INCREMENT = 1.0;
+
+    private final Long auctionId;
+    private final Long sellerId;
+    private final double increment;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<PendingBid> pending = new ArrayList<>();
+    private final TreeSet<ProxyMax> maxima = new TreeSet<>(
+            Comparator.comparingDouble(ProxyMax::amount).reversed().thenComparingLong(ProxyMax::order));
+    private final Map<Long, ProxyMax> maxByParticipant = new HashMap<>();
+    private long proxyOrder;
+    private Duration softCloseWindow = Duration.ZERO;
+    private Duration softCloseExtension = Duration.ZERO;
+
+    // Comprobacion pendiente de que la subasta sigue activa; se hace con la primera puja
+    private BooleanSupplier activeCheck;
+
+    private LocalDateTime endDate;
+    private double currentPrice;
+    private Long highestBidderId;
+    private boolean open = true;
+    private long sequence;
+
+    public AuctionBook(Long auctionId, Long sellerId, LocalDateTime endDate, double currentPrice, Long highestBidderId) {
+        this(auctionId, sellerId, endDate, currentPrice, highestBidderId, DEFAULT_INCREMENT);
+    }
+
+    public AuctionBook(Long auctionId, Long sellerId, LocalDateTime endDate, double currentPrice, Long highestBidderId,
+                       double increment) {
+        this.auctionId = auctionId;
+        this.sellerId = sellerId;
+        this.endDate = endDate;
+        this.currentPrice = currentPrice;
+        this.highestBidderId = highestBidderId;
+        this.increment = increment;
+        if (highestBidderId != null) {
+            putMax(highestBidderId, currentPrice);
+        }
+    }
+
+    /**
+     * Activa el cierre suave. Se configura antes de publicar el libro.
+     */
+    public void enableSoftClose(Duration window, Duration extension) {
+        lock.lock();
+        try {
+            this.softCloseWindow = window;
+            this.softCloseExtension = extension;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Restaura el maximo de un participante al cargar el libro desde la base de datos. Debe
+     * llamarse en orden de antiguedad, antes de publicar el libro.
+     */
+    public void restoreMax(Long participantId, double maxAmount) {
+        lock.lock();
+        try {
+            if (participantId.equals(highestBidderId)) {
+                // El lider gana los empates: conserva su antiguedad
+                ProxyMax current = maxByParticipant.get(participantId);
+                putMax(participantId, Math.max(maxAmount, currentPrice), current != null ? current.order() : proxyOrder++);
+            } else if (maxAmount > currentPrice) {
+                putMax(participantId, maxAmount);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hace que la primera puja vuelva a comprobar, bajo el lock del libro, que la subasta sigue activa.
+     * El libro se carga desde una lectura que puede ser anterior al cierre de la subasta.
+     */
+    public void requireActiveCheck(BooleanSupplier stillActive) {
+        lock.lock();
+        try {
+            this.activeCheck = stillActive;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Libro ya cerrado; se usa para bloquear pujas mientras se finaliza una subasta que no estaba en memoria.
+     */
+    public static AuctionBook closed(Long auctionId) {
+        AuctionBook book = new AuctionBook(auctionId, null, LocalDateTime.MIN, 0, null);
+        book.open = false;
+        return book;
+    }
+
+    public BidOutcome placeBid(Long participantId, double bidAmount, LocalDateTime now) {
+        return placeBid(participantId, bidAmount, null, now);
+    }
+
+    /**
+     * Registra una puja con un maximo opcional para la puja automatica. Si quien puja ya lidera,
+     * puede subir su maximo sin mover el precio visible.
+     */
+    public BidOutcome placeBid(Long participantId, double bidAmount, Double maxAmount, LocalDateTime now) {
+        lock.lock();
+        try {
+            if (activeCheck != null) {
+                BooleanSupplier check = activeCheck;
+                activeCheck = null;
+                if (!check.getAsBoolean()) {
+                    open = false;
+                }
+            }
+            if (!open || !now.isBefore(endDate)) {
+                throw new OperationException("La subasta no está activa");
+            }
+            if (sellerId.equals(participantId)) {
+                throw new OperationException("No puedes pujar en tu propia subasta");
+            }
+
+            boolean leaderRaisingMax = participantId.equals(highestBidderId) && maxAmount != null;
+            if (!leaderRaisingMax && bidAmount <= currentPrice) {
+                throw new OperationException("La puja debe ser mayor al monto actual: " + currentPrice);
+            }
+
+            double newMax = Math.max(bidAmount, maxAmount != null ? maxAmount : bidAmount);
+            ProxyMax previous = maxByParticipant.get(participantId);
+            if (leaderRaisingMax) {
+                if (previous != null && newMax <= previous.amount()) {
+                    throw new OperationException("El nuevo máximo debe ser mayor al actual: " + previous.amount());
+                }
+                putMax(participantId, newMax);
+                sequence++;
+                pending.add(new PendingBid(auctionId, participantId, currentPrice, newMax, null, now, highestBidderId));
+                return new BidOutcome(auctionId, participantId, currentPrice, now, currentPrice, highestBidderId,
+                        sequence, endDate, false);
+            }
+            if (previous == null || newMax > previous.amount()) {
+                putMax(participantId, newMax);
+            }
+
+            Iterator<ProxyMax> ranking = maxima.iterator();
+            ProxyMax leader = ranking.next();
+            double secondMax = ranking.hasNext() ? ranking.next().amount() : 0;
+            boolean bidderLeads = leader.participantId().equals(participantId);
+            // Con maximos empatados gana el mas antiguo y el precio queda en ese maximo
+            double price = Math.min(leader.amount(), Math.max(secondMax + increment, bidderLeads ? bidAmount : 0));
+
+            currentPrice = price;
+            highestBidderId = leader.participantId();
+            sequence++;
+            boolean extended = extendIfClosing(now);
+
+            double visibleBid = bidderLeads ? price : bidAmount;
+            LocalDateTime newEndDate = extended ? endDate : null;
+            pending.add(new PendingBid(auctionId, participantId, visibleBid, maxAmount != null ? newMax : null,
+                    newEndDate, now, highestBidderId));
+            if (!bidderLeads) {
+                // El maximo del lider respondio automaticamente: su puja visible sube al nuevo precio
+                pending.add(new PendingBid(auctionId, leader.participantId(), price, null, newEndDate, now, highestBidderId));
+            }
+
+            return new BidOutcome(auctionId, participantId, visibleBid, now, currentPrice, highestBidderId,
+                    sequence, endDate, extended);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Entrega las pujas pendientes de persistir y vacia la lista.
+     */
+    public List<PendingBid> drainPending() {
+        lock.lock();
+        try {
+            if (pending.isEmpty()) return List.of();
+            List<PendingBid> drained = new ArrayList<>(pending);
+            pending.clear();
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Devuelve al inicio de la lista un lote que no se pudo persistir.
+     */
+    public void requeue(List<PendingBid> bids) {
+        lock.lock();
+        try {
+            pending.addAll(0, bids);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cierra el libro para nuevas pujas y devuelve las pendientes.
+     */
+    public List<PendingBid> close() {
+        lock.lock();
+        try {
+            open = false;
+            List<PendingBid> drained = new ArrayList<>(pending);
+            pending.clear();
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Vuelve a abrir el libro cuando no se pudieron persistir las pujas pendientes al cerrarlo.
+     */
+    public void reopen(List<PendingBid> bids) {
+        lock.lock();
+        try {
+            open = true;
+            pending.addAll(0, bids);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        lock.lock();
+        try {
+            return !now.isBefore(endDate);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Long getAuctionId() {
+        return auctionId;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public boolean isOpen() {
+        lock.lock();
+        try {
+            return open;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getCurrentPrice() {
+        lock.lock();
+        try {
+            return currentPrice;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Long getHighestBidderId() {
+        lock.lock();
+        try {
+            return highestBidderId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public LocalDateTime getEndDate() {
+        lock.lock();
+        try {
+            return endDate;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Double getMaxOf(Long participantId) {
+        lock.lock();
+        try {
+            ProxyMax max = maxByParticipant.get(participantId);
+            return max != null ? max.amount() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getSequence() {
+        lock.lock();
+        try {
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean extendIfClosing(LocalDateTime now) {
+        if (softCloseWindow.isZero() || softCloseExtension.isZero()) return false;
+        if (now.plus(softCloseWindow).isBefore(endDate)) return false;
+        LocalDateTime extendedEnd = now.plus(softCloseExtension);
+        if (!extendedEnd.isAfter(endDate)) return false;
+        endDate = extendedEnd;
+        return true;
+    }
+
+    private void putMax(Long participantId, double amount) {
+        ProxyMax previous = maxByParticipant.get(participantId);
+        putMax(participantId, amount, previous != null && previous.amount() == amount ? previous.order() : proxyOrder++);
+    }
+
+    private void putMax(Long participantId, double amount, long order) {
+        ProxyMax previous = maxByParticipant.remove(participantId);
+        if (previous != null) {
+            maxima.remove(previous);
+        }
+        ProxyMax max = new ProxyMax(participantId, amount, order);
+        maxima.add(max);
+        maxByParticipant.put(participantId, max);
+    }
+
+    private static final class ProxyMax {
+        private final Long participantId;
+        private final double amount;
+        private final long order;
+
+        private ProxyMax(Long participantId, double amount, long order) {
+            this.participantId = participantId;
+            this.amount = amount;
+            this.order = order;
+        }
+
+        private Long participantId() {
+            return participantId;
+        }
+
+        private double amount() {
+            return amount;
+        }
+
+        private long order() {
+            return order;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import com.artemisia_corp.artemisia.entity.dto.auction.AuctionEventDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reparte los eventos de cada subasta (nuevas pujas altas y cierre) a sus suscriptores.
+ * Publicar solo deja el evento en el suscriptor; el envio ocurre en el ejecutor de eventos.
+ * Las pujas se condensan (solo se envia la mas alta pendiente) y el resto de eventos usa una
+ * cola acotada. Un suscriptor con la cola llena, con un envio bloqueado mas alla del umbral o
+ * con un envio fallido se desconecta, para que un cliente lento no retenga memoria ni hilos.
+ * <p>
+ * Cerrar el emisor toma el mismo monitor que un envio en curso, asi que nunca se cierra desde el
+ * hilo que publica: si hay un envio bloqueado lo cierra el mismo hilo de envio cuando termina, y
+ * el timeout de escritura del conector (server.tomcat.connection-timeout) acota esa espera.
+ */
+@Slf4j
+@Component
+public class AuctionEventBroadcaster {
+    private final Executor executor;
+    private final int queueCapacity;
+    private final long emitterTimeoutMs;
+    private final long slowSendThresholdNanos;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong droppedSubscribers = new AtomicLong();
+
+    @Autowired
+    public AuctionEventBroadcaster(@Qualifier("auctionEventExecutor") Executor executor,
+                                   @Value("${artemisia.auction.events.subscriber-queue-capacity:32}") int queueCapacity,
+                                   @Value("${artemisia.auction.events.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                                   @Value("${artemisia.auction.events.slow-send-threshold-ms:5000}") long slowSendThresholdMs) {
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.slowSendThresholdNanos = slowSendThresholdMs * 1_000_000;
+    }
+
+    /**
+     * Abre una conexion SSE para la subasta. El primer evento es el estado actual; si la subasta
+     * ya termino, la conexion se cierra despues de enviarlo.
+     */
+    public SseEmitter subscribe(Long auctionId, AuctionEventDto snapshot, boolean closeAfterSnapshot) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = register(auctionId, new SseEmitterSink(emitter));
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+
+        subscriber.offer(snapshot);
+        if (closeAfterSnapshot) {
+            unregister(subscriber);
+            subscriber.closeWhenDrained();
+        }
+        return emitter;
+    }
+
+    public Subscriber register(Long auctionId, AuctionEventSink sink) {
+        Subscriber subscriber = new Subscriber(auctionId, sink);
+        subscribers.computeIfAbsent(auctionId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        return subscriber;
+    }
+
+    public void publish(AuctionEventDto event) {
+        Set<Subscriber> auctionSubscribers = subscribers.get(event.getAuctionId());
+        if (auctionSubscribers == null) return;
+        for (Subscriber subscriber : auctionSubscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Envia el evento de cierre y termina todas las conexiones de la subasta una vez entregado.
+     */
+    public void publishClosed(AuctionEventDto event) {
+        Set<Subscriber> auctionSubscribers = subscribers.remove(event.getAuctionId());
+        if (auctionSubscribers == null) return;
+        for (Subscriber subscriber : auctionSubscribers) {
+            subscriber.offer(event);
+            subscriber.closeWhenDrained();
+        }
+    }
+
+    public int getSubscriberCount(Long auctionId) {
+        Set<Subscriber> auctionSubscribers = subscribers.get(auctionId);
+        return auctionSubscribers == null ? 0 : auctionSubscribers.size();
+    }
+
+    public long getDroppedSubscribers() {
+        return droppedSubscribers.get();
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.auctionId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    public final class Subscriber {
+        private final Long auctionId;
+        private final AuctionEventSink sink;
+        private final ArrayBlockingQueue<AuctionEventDto> queue = new ArrayBlockingQueue<>(queueCapacity);
+        // Solo interesa la puja mas alta: las pujas no se encolan, reemplazan a la anterior
+        private final AtomicReference<AuctionEventDto> latestBid = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong lastBidSequence = new AtomicLong(-1);
+        private volatile long sendingSince;
+        private volatile boolean closed;
+        private final AtomicBoolean sinkClosed = new AtomicBoolean();
+        private volatile boolean closeWhenDrained;
+
+        private Subscriber(Long auctionId, AuctionEventSink sink) {
+            this.auctionId = auctionId;
+            this.sink = sink;
+        }
+
+        void offer(AuctionEventDto event) {
+            if (closed) return;
+            long since = sendingSince;
+            if (since != 0 && System.nanoTime() - since > slowSendThresholdNanos) {
+                drop("send blocked");
+                return;
+            }
+
+            if (AuctionEventDto.BID.equals(event.getType()) && event.getSequence() != null) {
+                // Las pujas se publican fuera del lock de la subasta: se descarta una puja ya superada
+                long previous;
+                do {
+                    previous = lastBidSequence.get();
+                    if (event.getSequence() <= previous) return;
+                } while (!lastBidSequence.compareAndSet(previous, event.getSequence()));
+                latestBid.accumulateAndGet(event, (current, next) ->
+                        current == null || next.getSequence() > current.getSequence() ? next : current);
+            } else if (!queue.offer(event)) {
+                drop("queue full");
+                return;
+            }
+            schedule();
+        }
+
+        void closeWhenDrained() {
+            closeWhenDrained = true;
+            schedule();
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        private boolean hasPending() {
+            return !queue.isEmpty() || latestBid.get() != null;
+        }
+
+        private void schedule() {
+            if (closed || !scheduled.compareAndSet(false, true)) return;
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                drop("executor saturated");
+            }
+        }
+
+        private void drain() {
+            do {
+                AuctionEventDto event;
+                while (!closed && (event = queue.poll()) != null) {
+                    // El cierre siempre va despues de la ultima puja
+                    if (AuctionEventDto.CLOSED.equals(event.getType()) && !sendLatestBid()) return;
+                    if (!send(event)) return;
+                }
+                if (!sendLatestBid()) return;
+                scheduled.set(false);
+            } while (!closed && hasPending() && scheduled.compareAndSet(false, true));
+
+            if (closeWhenDrained && !hasPending() && !closed) {
+                closed = true;
+                closeSink();
+            }
+        }
+
+        private boolean sendLatestBid() {
+            AuctionEventDto bid = latestBid.getAndSet(null);
+            return bid == null || send(bid);
+        }
+
+        private boolean send(AuctionEventDto event) {
+            sendingSince = System.nanoTime();
+            try {
+                sink.send(event);
+                return true;
+            } catch (Exception e) {
+                drop("send failed");
+                return false;
+            } finally {
+                sendingSince = 0;
+                // Desconectado mientras enviaba: el cierre quedo para este hilo
+                if (closed) closeSink();
+            }
+        }
+
+        private void drop(String reason) {
+            if (closed) return;
+            closed = true;
+            queue.clear();
+            latestBid.set(null);
+            droppedSubscribers.incrementAndGet();
+            unregister(this);
+            log.debug("Dropping auction {} subscriber: {}", auctionId, reason);
+            if (sendingSince != 0) return;
+            try {
+                executor.execute(this::closeSink);
+            } catch (RejectedExecutionException e) {
+                // El emisor vence por su timeout
+                log.debug("Could not schedule close of auction {} subscriber", auctionId);
+            }
+        }
+
+        private void closeSink() {
+            if (sinkClosed.compareAndSet(false, true)) {
+                sink.close();
+            }
+        }
+    }
+
+    private static final class SseEmitterSink implements AuctionEventSink {
+        private final SseEmitter emitter;
+
+        private SseEmitterSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(AuctionEventDto event) throws IOException {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                    .name(event.getType())
+                    .data(event, MediaType.APPLICATION_JSON);
+            if (event.getSequence() != null) {
+                builder.id(String.valueOf(event.getSequence()));
+            }
+            emitter.send(builder);
+        }
+
+        @Override
+        public void close() {
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {
+                // La conexion ya estaba cerrada
+            }
+        }
+    }
+}
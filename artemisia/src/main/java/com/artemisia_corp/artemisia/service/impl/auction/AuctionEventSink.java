@@ -0,0 +1,13 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import com.artemisia_corp.artemisia.entity.dto.auction.AuctionEventDto;
+
+import java.io.IOException;
+
+/**
+ * Destino de los eventos de una subasta para un suscriptor (una conexion SSE en produccion).
+ */
+public interface AuctionEventSink {
+    void send(AuctionEventDto event) throws IOException;
+    void close();
+}
@@ -0,0 +1,158 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import com.artemisia_corp.artemisia.entity.dto.auction.AuctionDeadlineDto;
+import com.artemisia_corp.artemisia.repository.AuctionRepository;
+import com.artemisia_corp.artemisia.service.AuctionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finaliza cada subasta en el momento de su fecha de fin. Los vencimientos de las subastas activas
+ * viven en una {@link AuctionTimerWheel} que se carga al arrancar y se actualiza al crear, extender
+ * o cerrar subastas; cada tick entrega las vencidas al ejecutor de expiracion, donde cada una se
+ * finaliza en su propia transaccion. El sondeo periodico de la base de datos queda como respaldo.
+ */
+@Slf4j
+@Component
+public class AuctionExpiryScheduler {
+    private final AuctionRepository auctionRepository;
+    private final AuctionService auctionService;
+    private final TaskExecutor auctionExpiryExecutor;
+    private final AuctionBatchCloser batchCloser;
+    private final AuctionTimerWheel wheel;
+    private final long retryDelayMs;
+    private final int batchThreshold;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public AuctionExpiryScheduler(AuctionRepository auctionRepository,
+                                  @Lazy AuctionService auctionService,
+                                  @Qualifier("auctionExpiryExecutor") TaskExecutor auctionExpiryExecutor,
+                                  AuctionBatchCloser batchCloser,
+                                  @Value("${artemisia.auction.expiry.tick-ms:50}") long tickMs,
+                                  @Value("${artemisia.auction.expiry.wheel-slots:4096}") int wheelSlots,
+                                  @Value("${artemisia.auction.expiry.retry-delay-ms:1000}") long retryDelayMs,
+                                  @Value("${artemisia.auction.batch-close.threshold:20}") int batchThreshold) {
+        this.auctionRepository = auctionRepository;
+        this.auctionService = auctionService;
+        this.auctionExpiryExecutor = auctionExpiryExecutor;
+        this.batchCloser = batchCloser;
+        this.wheel = new AuctionTimerWheel(tickMs, wheelSlots, System.currentTimeMillis());
+        this.retryDelayMs = retryDelayMs;
+        this.batchThreshold = batchThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveAuctions() {
+        List<AuctionDeadlineDto> deadlines = auctionRepository.findActiveDeadlines();
+        for (AuctionDeadlineDto deadline : deadlines) {
+            wheel.schedule(deadline.getAuctionId(), toMillis(deadline.getEndDate()));
+        }
+        log.info("Scheduled expiry of {} active auctions", deadlines.size());
+    }
+
+    /**
+     * Programa el vencimiento una vez confirmada la transaccion actual, para que la subasta ya sea
+     * visible cuando se dispare.
+     */
+    public void scheduleAfterCommit(Long auctionId, LocalDateTime endDate) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wheel.schedule(auctionId, toMillis(endDate));
+                }
+            });
+        } else {
+            wheel.schedule(auctionId, toMillis(endDate));
+        }
+    }
+
+    /**
+     * Mueve el vencimiento de una subasta ya programada (cierre suave). Es O(1) y no consulta la base de datos.
+     */
+    public void reschedule(Long auctionId, LocalDateTime endDate) {
+        wheel.schedule(auctionId, toMillis(endDate));
+    }
+
+    public void cancel(Long auctionId) {
+        wheel.cancel(auctionId);
+    }
+
+    @Scheduled(fixedRateString = "${artemisia.auction.expiry.tick-ms:50}")
+    public void tick() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        if (due.size() >= batchThreshold) {
+            dispatchBatch(due);
+            return;
+        }
+        for (Long auctionId : due) {
+            dispatch(auctionId);
+        }
+    }
+
+    /**
+     * Una rafaga de vencimientos se cierra por lotes; lo que el lote no cierra sigue el camino individual.
+     */
+    private void dispatchBatch(List<Long> due) {
+        List<Long> batch = due.stream().filter(inFlight::add).toList();
+        try {
+            auctionExpiryExecutor.execute(() -> {
+                List<Long> closed;
+                try {
+                    closed = batchCloser.closeExpired(batch);
+                } finally {
+                    batch.forEach(inFlight::remove);
+                }
+                Set<Long> closedIds = Set.copyOf(closed);
+                batch.stream().filter(id -> !closedIds.contains(id)).forEach(this::dispatch);
+            });
+        } catch (TaskRejectedException e) {
+            batch.forEach(inFlight::remove);
+            log.warn("Auction expiry queue is full, {} auctions retried in {} ms", batch.size(), retryDelayMs);
+            long retryAt = System.currentTimeMillis() + retryDelayMs;
+            batch.forEach(id -> wheel.schedule(id, retryAt));
+        }
+    }
+
+    private void dispatch(Long auctionId) {
+        if (!inFlight.add(auctionId)) return;
+        try {
+            auctionExpiryExecutor.execute(() -> expire(auctionId));
+        } catch (TaskRejectedException e) {
+            inFlight.remove(auctionId);
+            log.warn("Auction expiry queue is full, auction {} retried in {} ms", auctionId, retryDelayMs);
+            wheel.schedule(auctionId, System.currentTimeMillis() + retryDelayMs);
+        }
+    }
+
+    private void expire(Long auctionId) {
+        try {
+            auctionService.expireAuction(auctionId);
+        } catch (Exception e) {
+            log.error("Could not finish expired auction {}, retrying in {} ms: {}", auctionId, retryDelayMs, e.getMessage(), e);
+            wheel.schedule(auctionId, System.currentTimeMillis() + retryDelayMs);
+        } finally {
+            inFlight.remove(auctionId);
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
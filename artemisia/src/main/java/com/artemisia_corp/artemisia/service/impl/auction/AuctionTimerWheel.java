@@ -0,0 +1,141 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rueda de temporizadores (hashed timing wheel) para los vencimientos de subastas.
+ * Cada subasta cae en la ranura de su tick de vencimiento; programar y cancelar son O(1) y cada
+ * avance solo recorre las ranuras de los ticks transcurridos. Los vencimientos mas lejanos que una
+ * vuelta completa comparten ranura y se descartan comparando su fecha al recorrerla.
+ * El tiempo se pasa siempre como parametro (milisegundos de epoch), lo que la hace determinista.
+ */
+public class AuctionTimerWheel {
+    private final long tickMs;
+    private final List<Set<Entry>> slots;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long lastTick;
+
+    public AuctionTimerWheel(long tickMs, int slotCount, long startMillis) {
+        if (tickMs <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("Tick and slot count must be greater than 0");
+        }
+        this.tickMs = tickMs;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new LinkedHashSet<>());
+        }
+        this.lastTick = startMillis / tickMs;
+    }
+
+    /**
+     * Programa (o reprograma) el vencimiento de una subasta.
+     */
+    public void schedule(Long auctionId, long deadlineMillis) {
+        lock.lock();
+        try {
+            remove(auctionId);
+            // Ranura del primer tick cuyo inicio es igual o posterior al vencimiento; si ya paso,
+            // el siguiente tick lo entrega
+            long tick = Math.max(ceilDiv(deadlineMillis, tickMs), lastTick + 1);
+            Entry entry = new Entry(auctionId, deadlineMillis, slotOf(tick));
+            slots.get(entry.slot).add(entry);
+            entries.put(auctionId, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void cancel(Long auctionId) {
+        lock.lock();
+        try {
+            remove(auctionId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Avanza la rueda hasta el instante dado y devuelve las subastas vencidas, que dejan de estar programadas,
+     * en orden de vencimiento. Un salto de mas de una vuelta recorre las ranuras fuera de ese orden.
+     */
+    public List<Long> advance(long nowMillis) {
+        lock.lock();
+        try {
+            long currentTick = nowMillis / tickMs;
+            if (currentTick <= lastTick) return List.of();
+
+            List<Entry> due = new ArrayList<>();
+            long ticks = Math.min(currentTick - lastTick, slots.size());
+            for (long tick = currentTick - ticks + 1; tick <= currentTick; tick++) {
+                Iterator<Entry> it = slots.get(slotOf(tick)).iterator();
+                while (it.hasNext()) {
+                    Entry entry = it.next();
+                    if (entry.deadlineMillis <= nowMillis) {
+                        it.remove();
+                        entries.remove(entry.auctionId);
+                        due.add(entry);
+                    }
+                }
+            }
+            lastTick = currentTick;
+            due.sort(Comparator.comparingLong(entry -> entry.deadlineMillis));
+            return due.stream().map(entry -> entry.auctionId).toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isScheduled(Long auctionId) {
+        lock.lock();
+        try {
+            return entries.containsKey(auctionId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(Long auctionId) {
+        Entry previous = entries.remove(auctionId);
+        if (previous != null) {
+            slots.get(previous.slot).remove(previous);
+        }
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private static final class Entry {
+        private final Long auctionId;
+        private final long deadlineMillis;
+        private final int slot;
+
+        private Entry(Long auctionId, long deadlineMillis, int slot) {
+            this.auctionId = auctionId;
+            this.deadlineMillis = deadlineMillis;
+            this.slot = slot;
+        }
+    }
+}
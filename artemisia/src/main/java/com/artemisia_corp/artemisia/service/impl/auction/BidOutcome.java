@@ -0,0 +1,24 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado de una puja aceptada por el libro de la subasta.
+ */
+@Getter
+@AllArgsConstructor
+public class BidOutcome {
+    private final Long auctionId;
+    private final Long participantId;
+    private final Double bidAmount;
+    private final LocalDateTime bidDate;
+    private final Double currentPrice;
+    private final Long highestBidderId;
+    private final long sequence;
+    private final LocalDateTime endDate;
+    // La puja cayo en la ventana de cierre suave y movio la fecha de fin
+    private final boolean extended;
+}
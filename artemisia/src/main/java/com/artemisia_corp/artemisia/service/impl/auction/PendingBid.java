@@ -0,0 +1,39 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Puja aceptada en memoria que todavia no fue escrita en auction_participant.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class PendingBid {
+    private final Long auctionId;
+    private final Long participantId;
+    private final Double bidAmount;
+    // Maximo de puja automatica registrado con esta puja; null si no cambio
+    private final Double maxAmount;
+    // Nueva fecha de fin de la subasta si esta puja la extendio; null si no
+    private final LocalDateTime auctionEndDate;
+    private final LocalDateTime bidDate;
+    // Lider del libro despues de esta puja; con montos empatados no se puede deducir de los montos
+    private final Long leaderId;
+
+    /**
+     * Combina dos pujas del mismo participante conservando el monto y el maximo mas altos.
+     */
+    public PendingBid merge(PendingBid other) {
+        PendingBid latest = other.bidAmount >= bidAmount ? other : this;
+        // Sin Math.max en el ternario: mezclar Double y double desempaqueta el null
+        Double max = maxAmount == null ? other.maxAmount
+                : other.maxAmount == null || maxAmount > other.maxAmount ? maxAmount : other.maxAmount;
+        LocalDateTime end = auctionEndDate == null ? other.auctionEndDate
+                : other.auctionEndDate == null || auctionEndDate.isAfter(other.auctionEndDate) ? auctionEndDate : other.auctionEndDate;
+        return new PendingBid(auctionId, participantId, latest.bidAmount, max, end, latest.bidDate, other.leaderId);
+    }
+}
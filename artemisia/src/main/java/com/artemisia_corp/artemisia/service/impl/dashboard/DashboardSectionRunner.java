@@ -0,0 +1,140 @@
+package com.artemisia_corp.artemisia.service.impl.dashboard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta en paralelo las secciones independientes de un panel. Cada seccion corre en el pool de
+ * consultas del panel dentro de su propia transaccion de solo lectura (y por tanto su propia conexion),
+ * y se mide por separado. Una seccion que falla o no termina a tiempo queda vacia y se informa,
+ * sin tumbar el resto del panel.
+ */
+@Slf4j
+@Component
+public class DashboardSectionRunner {
+    private final TaskExecutor dashboardQueryExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long timeoutMs;
+
+    public DashboardSectionRunner(@Qualifier("dashboardQueryExecutor") TaskExecutor dashboardQueryExecutor,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${artemisia.dashboard.query-timeout-ms:10000}") long timeoutMs) {
+        this.dashboardQueryExecutor = dashboardQueryExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.timeoutMs = timeoutMs;
+    }
+
+    public Sections open() {
+        return new Sections();
+    }
+
+    public final class Sections {
+        private final long startNanos = System.nanoTime();
+        private final Map<String, CompletableFuture<?>> futures = new LinkedHashMap<>();
+        private final Map<String, Long> timingsMs = Collections.synchronizedMap(new LinkedHashMap<>());
+        private final List<String> failed = Collections.synchronizedList(new ArrayList<>());
+        private long totalMs;
+
+        private Sections() {
+        }
+
+        public <T> Section<T> submit(String name, Supplier<T> query) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            Runnable task = () -> {
+                long start = System.nanoTime();
+                try {
+                    future.complete(readOnlyTransaction.execute(status -> query.get()));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    timingsMs.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+            };
+            try {
+                dashboardQueryExecutor.execute(task);
+            } catch (TaskRejectedException e) {
+                // Pool saturado: la seccion corre en el hilo de la peticion en lugar de fallar
+                task.run();
+            }
+            futures.put(name, future);
+            return new Section<>(future);
+        }
+
+        /**
+         * Espera a todas las secciones, como maximo el tiempo configurado desde la apertura.
+         */
+        public Sections await() {
+            long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            for (Map.Entry<String, CompletableFuture<?>> entry : futures.entrySet()) {
+                try {
+                    entry.getValue().get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    entry.getValue().cancel(false);
+                    markFailed(entry.getKey(), "timed out");
+                } catch (ExecutionException e) {
+                    markFailed(entry.getKey(), e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    markFailed(entry.getKey(), "interrupted");
+                }
+            }
+            totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            return this;
+        }
+
+        public Map<String, Long> getTimingsMs() {
+            synchronized (timingsMs) {
+                return new LinkedHashMap<>(timingsMs);
+            }
+        }
+
+        public List<String> getFailed() {
+            synchronized (failed) {
+                return new ArrayList<>(failed);
+            }
+        }
+
+        public long getTotalMs() {
+            return totalMs;
+        }
+
+        private void markFailed(String name, String reason) {
+            failed.add(name);
+            log.warn("Dashboard section {} failed: {}", name, reason);
+        }
+    }
+
+    public static final class Section<T> {
+        private final CompletableFuture<T> future;
+
+        private Section(CompletableFuture<T> future) {
+            this.future = future;
+        }
+
+        /**
+         * Resultado de la seccion, o {@code null} si fallo. Llamar despues de {@link Sections#await()}.
+         */
+        public T value() {
+            if (!future.isDone() || future.isCompletedExceptionally()) return null;
+            return future.join();
+        }
+    }
+}
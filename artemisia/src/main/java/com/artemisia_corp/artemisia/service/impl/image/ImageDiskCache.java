@@ -0,0 +1,183 @@
+package com.artemisia_corp.artemisia.service.impl.image;
+
+import com.artemisia_corp.artemisia.entity.dto.image.ImageFileDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Cache LRU en disco de los derivados de imagenes, acotada por bytes. El orden de uso vive en memoria y
+ * al arrancar se reconstruye con la fecha de modificacion de los archivos que ya estaban en el directorio.
+ * <p>
+ * El indice se protege con un ReentrantLock y los accesos a disco quedan fuera del lock: un hilo virtual
+ * que hace I/O dentro de un bloque synchronized fija su hilo portador.
+ */
+@Slf4j
+@Component
+public class ImageDiskCache {
+    private final Path dir;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(64, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long totalBytes;
+
+    public ImageDiskCache(@Value("${artemisia.images.cache.dir:${java.io.tmpdir}/artemisia-image-cache}") String dir,
+                          @Value("${artemisia.images.cache.max-bytes:536870912}") long maxBytes) {
+        this.dir = Paths.get(dir);
+        this.maxBytes = maxBytes;
+        load();
+    }
+
+    public Optional<ImageFileDto> get(String key) {
+        lock.lock();
+        try {
+            // Tambien actualiza el orden de uso
+            if (sizes.get(key) == null) {
+                return Optional.empty();
+            }
+        } finally {
+            lock.unlock();
+        }
+        Path path = dir.resolve(key);
+        if (!Files.exists(path)) {
+            forget(key);
+            return Optional.empty();
+        }
+        return Optional.of(describe(path, "image/jpeg"));
+    }
+
+    /**
+     * Copia el archivo a la cache (escritura atomica) y desaloja los menos usados si se supera el limite.
+     */
+    public ImageFileDto put(String key, Path source) {
+        Path target = dir.resolve(key);
+        try {
+            Files.createDirectories(dir);
+            Path partial = Files.createTempFile(dir, key, ".part");
+            Files.copy(source, partial, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long size = Files.size(target);
+            List<String> evicted;
+            lock.lock();
+            try {
+                Long previous = sizes.put(key, size);
+                totalBytes += size - (previous != null ? previous : 0L);
+                evicted = evictOverLimit(key);
+            } finally {
+                lock.unlock();
+            }
+            evicted.forEach(name -> deleteQuietly(dir.resolve(name)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not cache image " + key, e);
+        }
+        return describe(target, "image/jpeg");
+    }
+
+    public void evict(String key) {
+        forget(key);
+        deleteQuietly(dir.resolve(key));
+    }
+
+    private void forget(String key) {
+        lock.lock();
+        try {
+            Long size = sizes.remove(key);
+            if (size != null) {
+                totalBytes -= size;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Datos para servir un archivo; el ETag cambia cuando cambia el tamano o la fecha del archivo.
+     */
+    public static ImageFileDto describe(Path path, String contentType) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            return ImageFileDto.builder()
+                    .path(path)
+                    .contentType(contentType)
+                    .length(attributes.size())
+                    .lastModified(lastModified)
+                    .etag("\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified) + "\"")
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Saca del indice los menos usados hasta quedar bajo el limite; quien llama borra los archivos.
+     */
+    private List<String> evictOverLimit(String keep) {
+        List<String> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> eldest = sizes.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(keep)) continue;
+            totalBytes -= entry.getValue();
+            eldest.remove();
+            evicted.add(entry.getKey());
+        }
+        return evicted;
+    }
+
+    private void load() {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(Files::isRegularFile)
+                    .filter(path -> {
+                        // Restos de una escritura interrumpida
+                        if (path.getFileName().toString().endsWith(".part")) {
+                            deleteQuietly(path);
+                            return false;
+                        }
+                        return true;
+                    })
+                    .sorted(Comparator.comparingLong(ImageDiskCache::lastModified))
+                    .forEach(path -> {
+                        long size = path.toFile().length();
+                        sizes.put(path.getFileName().toString(), size);
+                        totalBytes += size;
+                    });
+        } catch (IOException e) {
+            log.warn("Could not read image cache directory {}: {}", dir, e.getMessage());
+        }
+        evictOverLimit(null).forEach(name -> deleteQuietly(dir.resolve(name)));
+        log.info("Image cache loaded {} files ({} bytes)", sizes.size(), totalBytes);
+    }
+
+    private static long lastModified(Path path) {
+        return path.toFile().lastModified();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete cached image {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.artemisia_corp.artemisia.service.impl.image;
+
+/**
+ * Derivados que se generan de cada imagen subida, del mas grande al mas chico. El lado mayor del
+ * derivado no supera {@code maxSize} pixeles; una imagen mas chica se conserva en su tamano.
+ */
+public enum ImageRendition {
+    MEDIUM("medium", 1024),
+    THUMBNAIL("thumbnail", 320);
+
+    private final String key;
+    private final int maxSize;
+
+    ImageRendition(String key, int maxSize) {
+        this.key = key;
+        this.maxSize = maxSize;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public String fileName(Long imageId) {
+        return imageId + "-" + key + ".jpg";
+    }
+
+    public static ImageRendition fromKey(String key) {
+        for (ImageRendition rendition : values()) {
+            if (rendition.key.equalsIgnoreCase(key)) {
+                return rendition;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,137 @@
+package com.artemisia_corp.artemisia.service.impl.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Genera los derivados JPEG de una imagen con javax.imageio en el pool de derivados. La imagen se lee
+ * una sola vez con submuestreo, de modo que una obra de muchos megapixeles no se decodifica entera en
+ * memoria, y cada derivado se escala a partir del anterior.
+ */
+@Slf4j
+@Component
+public class ImageRenditionGenerator {
+    private final TaskExecutor imageRenditionExecutor;
+    private final float jpegQuality;
+
+    public ImageRenditionGenerator(@Qualifier("imageRenditionExecutor") TaskExecutor imageRenditionExecutor,
+                                   @Value("${artemisia.images.renditions.jpeg-quality:0.82}") float jpegQuality) {
+        this.imageRenditionExecutor = imageRenditionExecutor;
+        this.jpegQuality = jpegQuality;
+    }
+
+    /**
+     * @return los derivados generados, o un mapa vacio si el formato no es legible por ImageIO o falla
+     */
+    public CompletableFuture<Map<ImageRendition, Path>> generateAsync(Long imageId, Path source, Path targetDir) {
+        return CompletableFuture.supplyAsync(() -> generate(imageId, source, targetDir), imageRenditionExecutor)
+                .exceptionally(e -> {
+                    log.warn("Could not generate renditions for image {}: {}", imageId, e.getMessage());
+                    return Collections.emptyMap();
+                });
+    }
+
+    public Map<ImageRendition, Path> generate(Long imageId, Path source, Path targetDir) {
+        try {
+            BufferedImage current = read(source, ImageRendition.values()[0].getMaxSize());
+            if (current == null) {
+                log.info("Image {} is not in a format ImageIO can read, no renditions generated", imageId);
+                return Collections.emptyMap();
+            }
+            Map<ImageRendition, Path> renditions = new EnumMap<>(ImageRendition.class);
+            for (ImageRendition rendition : ImageRendition.values()) {
+                current = scale(current, rendition.getMaxSize());
+                Path target = targetDir.resolve(rendition.fileName(imageId));
+                writeJpeg(current, target);
+                renditions.put(rendition, target);
+            }
+            return renditions;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BufferedImage read(Path source, int targetSize) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                // Submuestreo hasta quedar en al menos el doble del derivado mayor; el escalado final suaviza
+                int step = Math.max(1, longest / (targetSize * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxSize) {
+        int longest = Math.max(source.getWidth(), source.getHeight());
+        double ratio = longest > maxSize ? (double) maxSize / longest : 1.0;
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        if (ratio == 1.0 && source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+
+        // JPEG no admite transparencia: se compone sobre fondo blanco
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+        try (OutputStream file = Files.newOutputStream(target);
+             ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.artemisia_corp.artemisia.utils;
+
+import com.artemisia_corp.artemisia.entity.dto.cache.ResourceVersionDto;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+public class HttpCacheUtils {
+
+    /**
+     * GET condicional: si el cliente ya tiene la version responde 304 sin llamar a {@code body}, de modo
+     * que no se cargan entidades ni se arma el DTO. Sin version (null) responde siempre con el cuerpo.
+     */
+    public static <T> ResponseEntity<T> conditionalGet(WebRequest request, ResourceVersionDto version, Supplier<T> body) {
+        if (version == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        // Respuestas de usuarios autenticados: solo cache privada
+        CacheControl cacheControl = version.getMaxAgeSeconds() > 0
+                ? CacheControl.maxAge(Duration.ofSeconds(version.getMaxAgeSeconds())).cachePrivate()
+                : CacheControl.noCache().cachePrivate();
+        long lastModified = version.getLastModified() != null ? version.getLastModified().getTime() : -1L;
+        if (request.checkNotModified(version.getEtag(), lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(version.getEtag())
+                    .cacheControl(cacheControl)
+                    .varyBy("Authorization")
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(version.getEtag())
+                .cacheControl(cacheControl)
+                .varyBy("Authorization");
+        if (lastModified >= 0) {
+            response.lastModified(lastModified);
+        }
+        return response.body(body.get());
+    }
+}
@@ -0,0 +1,107 @@
+package com.artemisia_corp.artemisia.config;
+
+import com.artemisia_corp.artemisia.config.AsyncExecutorConfig.RejectionPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncExecutorConfigTest {
+    private final AsyncExecutorConfig config = new AsyncExecutorConfig();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private ExecutorRejectionMetrics rejectionMetrics;
+
+    @BeforeEach
+    void setUp() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", registry);
+        rejectionMetrics = new ExecutorRejectionMetrics(beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    void fullProductViewPoolDiscardsAndCountsRejectedTasks() throws Exception {
+        ThreadPoolTaskExecutor executor = start("productViewExecutor",
+                config.productViewExecutor(new ThreadPoolTaskExecutorBuilder(), 1, 1, RejectionPolicy.DISCARD, false));
+        // Lo mismo que enlaza Spring Boot para cada pool
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "productViewExecutor", Tags.empty()).bindTo(registry);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> await(release));
+            executor.execute(() -> { });
+            executor.execute(() -> fail("the pool is full, this task should be discarded"));
+
+            assertEquals(1.0, registry.get("executor.queued").tag("name", "productViewExecutor").gauge().value());
+            assertEquals(1.0, registry.get("executor.active").tag("name", "productViewExecutor").gauge().value());
+            assertEquals(1.0, registry.get("executor.rejected").tag("name", "productViewExecutor").counter().count());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void fullAuditLogPoolRunsTheTaskOnTheCallingThread() {
+        ThreadPoolTaskExecutor executor = start("auditLogExecutor",
+                config.auditLogExecutor(new ThreadPoolTaskExecutorBuilder(), 1, 1, RejectionPolicy.CALLER_RUNS, false));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        try {
+            executor.execute(() -> await(release));
+            executor.execute(() -> { });
+            executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+            assertSame(Thread.currentThread(), ranOn.get());
+            assertEquals(1.0, registry.get("executor.rejected").tag("name", "auditLogExecutor").counter().count());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void virtualModeKeepsThePoolBoundsOnVirtualThreads() throws Exception {
+        ThreadPoolTaskExecutor executor = start("recommendationExecutor",
+                config.recommendationExecutor(new ThreadPoolTaskExecutorBuilder(), 1, 10, RejectionPolicy.DISCARD_OLDEST, true));
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        try {
+            executor.submit(() -> ranOn.set(Thread.currentThread())).get(5, TimeUnit.SECONDS);
+
+            assertTrue(ranOn.get().isVirtual());
+            assertTrue(ranOn.get().getName().startsWith("recommendation-vt-"));
+            assertEquals(1, executor.getMaxPoolSize());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void executorNamesMatchSpringBootMetricTags() {
+        assertEquals("application", ExecutorRejectionMetrics.executorName("applicationTaskExecutor"));
+        assertEquals("auditLogExecutor", ExecutorRejectionMetrics.executorName("auditLogExecutor"));
+    }
+
+    private ThreadPoolTaskExecutor start(String beanName, ThreadPoolTaskExecutor executor) {
+        executor.initialize();
+        rejectionMetrics.postProcessAfterInitialization(executor, beanName);
+        return executor;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.artemisia_corp.artemisia.config;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadsTest {
+    private static final int CALLS = 64;
+    private static final int PLATFORM_POOL_SIZE = 8;
+
+    private HttpServer slowDownstream;
+    private ExecutorService stubExecutor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile CountDownLatch allInFlight;
+    private volatile long holdMs;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Stub local que responde como un Stereum o recomendador lento: retiene cada llamada hasta que las
+        // CALLS esten en curso a la vez o venza holdMs, y registra cuantas hubo en curso como maximo
+        slowDownstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), CALLS * 2);
+        stubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        slowDownstream.setExecutor(stubExecutor);
+        slowDownstream.createContext("/", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                allInFlight.countDown();
+                allInFlight.await(holdMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            byte[] body = "{}".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        slowDownstream.start();
+        allInFlight = new CountDownLatch(CALLS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowDownstream.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    void virtualThreadsKeepEverySlowDownstreamCallInFlight() {
+        AsyncExecutorConfig config = new AsyncExecutorConfig();
+        AsyncTaskExecutor virtual = config.virtualThreadTaskExecutor(new SimpleAsyncTaskExecutorBuilder().virtualThreads(true));
+        // Sin tope de hilos las CALLS llegan juntas y el stub las libera en cuanto estan todas
+        holdMs = 30_000;
+
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> callDownstream(virtual));
+
+        assertEquals(CALLS, maxInFlight.get());
+    }
+
+    @Test
+    void platformPoolQueuesSlowDownstreamCalls() {
+        AsyncExecutorConfig config = new AsyncExecutorConfig();
+        // Mismo pool que el applicationTaskExecutor por defecto (8 hilos de plataforma)
+        ThreadPoolTaskExecutor platform = config.applicationTaskExecutor(
+                new ThreadPoolTaskExecutorBuilder().corePoolSize(PLATFORM_POOL_SIZE));
+        platform.initialize();
+        holdMs = 50;
+        try {
+            callDownstream(platform);
+        } finally {
+            platform.shutdown();
+        }
+
+        assertTrue(maxInFlight.get() <= PLATFORM_POOL_SIZE, "in flight: " + maxInFlight.get());
+    }
+
+    @Test
+    void pinningMonitorFlagsBlockingInsideSynchronized() throws Exception {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(10);
+        monitor.start();
+        try {
+            Thread.ofVirtual().start(this::sleepWhileHoldingLock).join();
+            Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (monitor.getPinnedSites().isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(100);
+            }
+        } finally {
+            monitor.stop();
+        }
+
+        assertTrue(monitor.getPinnedSites().keySet().stream().anyMatch(site -> site.contains("sleepWhileHoldingMonitor")),
+                "pinned sites: " + monitor.getPinnedSites());
+        assertTrue(monitor.getPinnedSites().keySet().stream().noneMatch(site -> site.contains("sleepWhileHoldingLock")));
+    }
+
+    private void callDownstream(AsyncTaskExecutor executor) {
+        URI uri = URI.create("http://127.0.0.1:" + slowDownstream.getAddress().getPort() + "/");
+        List<CompletableFuture<Void>> calls = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            calls.add(CompletableFuture.runAsync(() -> get(uri), executor));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private static void get(URI uri) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+            try (InputStream in = connection.getInputStream()) {
+                in.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final Object monitorLock = new Object();
+    private final ReentrantLock reentrantLock = new ReentrantLock();
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (monitorLock) {
+            LockSupport.parkNanos(50_000_000L);
+        }
+    }
+
+    private void sleepWhileHoldingLock() {
+        reentrantLock.lock();
+        try {
+            LockSupport.parkNanos(50_000_000L);
+        } finally {
+            reentrantLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.artemisia_corp.artemisia.controller;
+
+import com.artemisia_corp.artemisia.config.JwtTokenProvider;
+import com.artemisia_corp.artemisia.entity.dto.cache.ResourceVersionDto;
+import com.artemisia_corp.artemisia.entity.dto.product.ProductResponseDto;
+import com.artemisia_corp.artemisia.service.ProductService;
+import com.artemisia_corp.artemisia.service.ProductViewService;
+import com.artemisia_corp.artemisia.service.RecommendationService;
+import com.artemisia_corp.artemisia.service.ResourceVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ProductControllerTest {
+    private ProductService productService;
+    private ResourceVersionService resourceVersionService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        resourceVersionService = mock(ResourceVersionService.class);
+        ProductController controller = new ProductController(productService, mock(ProductViewService.class),
+                mock(JwtTokenProvider.class), mock(RecommendationService.class), resourceVersionService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        when(productService.getProductById(7L)).thenReturn(ProductResponseDto.builder().productId(7L).name("Obra").build());
+    }
+
+    @Test
+    void repeatedReadWithMatchingETagIsAnsweredWithoutLoadingTheProduct() throws Exception {
+        when(resourceVersionService.getProductVersion(7L)).thenReturn(version("\"p-7-3-1a\"", 30));
+
+        MvcResult first = mockMvc.perform(get("/api/products/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Obra"))
+                .andExpect(header().string("Cache-Control", "max-age=30, private"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        assertEquals("\"p-7-3-1a\"", etag);
+        assertEquals(1, first.getResponse().getHeaders("ETag").size());
+
+        mockMvc.perform(get("/api/products/7").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // La segunda lectura solo consulto el sello de version
+        verify(productService, times(1)).getProductById(7L);
+        verify(resourceVersionService, times(2)).getProductVersion(7L);
+    }
+
+    @Test
+    void changedVersionReturnsTheNewBody() throws Exception {
+        when(resourceVersionService.getProductVersion(7L)).thenReturn(version("\"p-7-4-1b\"", 0));
+
+        mockMvc.perform(get("/api/products/7").header("If-None-Match", "\"p-7-3-1a\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"p-7-4-1b\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+
+        verify(productService).getProductById(7L);
+    }
+
+    @Test
+    void withoutVersionTheProductIsAlwaysRead() throws Exception {
+        mockMvc.perform(get("/api/products/7").header("If-None-Match", "\"p-7-3-1a\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+
+        verify(productService).getProductById(7L);
+    }
+
+    private static ResourceVersionDto version(String etag, long maxAge) {
+        return ResourceVersionDto.builder()
+                .count(1L)
+                .versionSum(3L)
+                .lastModified(new Date(1_700_000_000_000L))
+                .etag(etag)
+                .maxAgeSeconds(maxAge)
+                .build();
+    }
+}
@@ -0,0 +1,177 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.dto.auction.AuctionParticipantResponseDto;
+import com.artemisia_corp.artemisia.repository.*;
+import com.artemisia_corp.artemisia.service.LogsService;
+import com.artemisia_corp.artemisia.service.NotaVentaService;
+import com.artemisia_corp.artemisia.service.OrderDetailService;
+import com.artemisia_corp.artemisia.service.impl.auction.AuctionBatchCloser;
+import com.artemisia_corp.artemisia.service.impl.auction.AuctionBidEngine;
+import com.artemisia_corp.artemisia.service.impl.auction.AuctionEventBroadcaster;
+import com.artemisia_corp.artemisia.service.impl.auction.AuctionExpiryScheduler;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Subastas con 50k pujas contra un PostgreSQL embebido: el cierre y el listado de pujas no ordenan ni
+ * cuentan todas las pujas para encontrar al lider.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.artemisia_corp.artemisia.service.impl.AuctionServiceImplTest$CapturedSql")
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+class AuctionServiceImplTest {
+    private static final int BIDS = 50_000;
+    private static final long SELLER_ID = 100_000L;
+    private static final long AUCTION_ID = 1L;
+    private static final long PRODUCT_ID = 1L;
+    // Las pujas suben con el id del postor: la visible mas alta es la del ultimo
+    private static final long TOP_BIDDER_ID = BIDS;
+
+    @Autowired
+    private AuctionRepository auctionRepository;
+    @Autowired
+    private AuctionParticipantRepository auctionParticipantRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private NotaVentaRepository notaVentaRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private AuctionServiceImpl auctionService;
+
+    @BeforeEach
+    void setUp() {
+        AuctionBidEngine bidEngine = mock(AuctionBidEngine.class);
+        when(bidEngine.findBook(anyLong())).thenReturn(Optional.empty());
+        auctionService = new AuctionServiceImpl(auctionRepository, auctionParticipantRepository, productRepository,
+                userRepository, notaVentaRepository, addressRepository, mock(OrderDetailService.class),
+                mock(NotaVentaService.class), mock(LogsService.class), bidEngine, mock(AuctionEventBroadcaster.class),
+                mock(AuctionExpiryScheduler.class), mock(AuctionBatchCloser.class), mock(TransactionTemplate.class),
+                entityManager);
+    }
+
+    @Test
+    void closingTakesTheLeaderFromTheAuctionRowWithoutReadingBids() {
+        // El lider del motor (puja automatica) no es el dueno de la puja visible mas alta
+        seed(7L, 777.0);
+
+        auctionService.expireAuction(AUCTION_ID);
+        entityManager.flush();
+
+        assertEquals(7L, winnerId());
+        assertTrue(CapturedSql.matching("auction_participant").isEmpty(), CapturedSql.STATEMENTS.toString());
+        assertTrue(CapturedSql.matching("count(").isEmpty(), CapturedSql.STATEMENTS.toString());
+    }
+
+    @Test
+    void legacyAuctionWithoutLeaderFallsBackToTheBidIndex() {
+        seed(null, 100.0);
+
+        auctionService.expireAuction(AUCTION_ID);
+        entityManager.flush();
+
+        assertEquals(TOP_BIDDER_ID, winnerId());
+        List<String> bidQueries = CapturedSql.matching("from auction_participant");
+        assertEquals(1, bidQueries.size(), bidQueries.toString());
+        assertTrue(CapturedSql.matching("count(").isEmpty(), CapturedSql.STATEMENTS.toString());
+        assertUsesBidIndexWithoutSort(bidQueries.get(0));
+    }
+
+    @Test
+    void bidListingReadsTheLeaderFirstFromTheBidIndex() {
+        seed(TOP_BIDDER_ID, BIDS + 100.0);
+
+        Page<AuctionParticipantResponseDto> page = auctionService.getBidsByAuction(AUCTION_ID, PageRequest.of(0, 20));
+
+        assertEquals(BIDS, page.getTotalElements());
+        assertEquals(TOP_BIDDER_ID, page.getContent().get(0).getParticipantId());
+        List<String> pageQueries = CapturedSql.matching("order by");
+        assertEquals(1, pageQueries.size(), CapturedSql.STATEMENTS.toString());
+        assertUsesBidIndexWithoutSort(pageQueries.get(0));
+        // El unico conteo es el total de la pagina; no se consulta la existencia de la subasta
+        assertEquals(1, CapturedSql.matching("count(").size(), CapturedSql.STATEMENTS.toString());
+        assertTrue(CapturedSql.matching("from auction ").isEmpty(), CapturedSql.STATEMENTS.toString());
+    }
+
+    private Long winnerId() {
+        return jdbcTemplate.queryForObject("SELECT winner_id FROM auction WHERE id = ?", Long.class, AUCTION_ID);
+    }
+
+    // Explica la consulta capturada con el id de la subasta y 20 como tope de filas
+    private void assertUsesBidIndexWithoutSort(String sql) {
+        int parameters = sql.length() - sql.replace("?", "").length();
+        Object[] values = new Object[parameters];
+        values[0] = AUCTION_ID;
+        for (int i = 1; i < parameters; i++) {
+            values[i] = 20;
+        }
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, values));
+        assertTrue(plan.contains("idx_auction_participant_auction_bid"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    private void seed(Long highestBidderId, double currentPrice) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> bids = new ArrayList<>();
+        for (long id = 1; id <= BIDS; id++) {
+            users.add(new Object[]{id, "bidder" + id, "BUYER"});
+            bids.add(new Object[]{id, id, 100.0 + id, Timestamp.valueOf(now.minusSeconds(BIDS - id + 60))});
+        }
+        users.add(new Object[]{SELLER_ID, "seller", "SELLER"});
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, password, status, role, version) VALUES (?, ?, 'x', 'ACTIVE', ?, 0)", users);
+        jdbcTemplate.update("INSERT INTO product (id, seller, name, materials, price, stock, status, version) " +
+                "VALUES (?, ?, 'Obra', 'oleo', 100, 1, 'ON_AUCTION', 0)", PRODUCT_ID, SELLER_ID);
+        jdbcTemplate.update("INSERT INTO auction (id, product_id, seller_id, status, start_date, end_date, starting_price, " +
+                "current_price, highest_bidder_id, version) VALUES (?, ?, ?, 'ACTIVE', ?, ?, 100, ?, ?, 0)",
+                AUCTION_ID, PRODUCT_ID, SELLER_ID, Timestamp.valueOf(now.minusDays(1)), Timestamp.valueOf(now.minusSeconds(30)),
+                currentPrice, highestBidderId);
+        jdbcTemplate.batchUpdate("INSERT INTO auction_participant (id, auction_id, participant_id, bid_amount, bid_date, version) " +
+                "VALUES (?, " + AUCTION_ID + ", ?, ?, ?, 0)", bids);
+        jdbcTemplate.execute("ANALYZE auction_participant");
+        entityManager.clear();
+        CapturedSql.STATEMENTS.clear();
+    }
+
+    public static class CapturedSql implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        static List<String> matching(String fragment) {
+            return STATEMENTS.stream().filter(sql -> sql.toLowerCase().contains(fragment)).toList();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.config.AsyncExecutorConfig;
+import com.artemisia_corp.artemisia.entity.Image;
+import com.artemisia_corp.artemisia.entity.Product;
+import com.artemisia_corp.artemisia.entity.dto.image.ImageFileDto;
+import com.artemisia_corp.artemisia.entity.dto.image.ImageResponseDto;
+import com.artemisia_corp.artemisia.entity.enums.ImageStatus;
+import com.artemisia_corp.artemisia.repository.ImageRepository;
+import com.artemisia_corp.artemisia.repository.ProductRepository;
+import com.artemisia_corp.artemisia.service.LogsService;
+import com.artemisia_corp.artemisia.service.impl.image.ImageDiskCache;
+import com.artemisia_corp.artemisia.service.impl.image.ImageRendition;
+import com.artemisia_corp.artemisia.service.impl.image.ImageRenditionGenerator;
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.sun.net.httpserver.HttpServer;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ImageServiceImplTest {
+    private static final String STUB_URL = "https://res.cloudinary.test/artemisia/products/stub.png";
+
+    @TempDir
+    Path workDir;
+    private Path spoolDir;
+
+    private HttpServer cloudinaryStub;
+    private final List<String> uploadPaths = new CopyOnWriteArrayList<>();
+    private final List<byte[]> uploadBodies = new CopyOnWriteArrayList<>();
+    private volatile int stubStatus = 200;
+
+    private ImageRepository imageRepository;
+    private ProductRepository productRepository;
+    private Cloudinary cloudinary;
+    private ImageServiceImpl imageService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cloudinaryStub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        cloudinaryStub.createContext("/", exchange -> {
+            uploadPaths.add(exchange.getRequestURI().getPath());
+            uploadBodies.add(exchange.getRequestBody().readAllBytes());
+            byte[] response = (stubStatus == 200
+                    ? "{\"secure_url\":\"" + STUB_URL + "\",\"public_id\":\"artemisia/products/stub\"}"
+                    : "{\"error\":{\"message\":\"stub failure\"}}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(stubStatus, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        cloudinaryStub.start();
+
+        cloudinary = new Cloudinary(ObjectUtils.asMap(
+                "cloud_name", "stub",
+                "api_key", "key",
+                "api_secret", "secret",
+                "upload_prefix", "http://127.0.0.1:" + cloudinaryStub.getAddress().getPort()));
+
+        imageRepository = mock(ImageRepository.class);
+        productRepository = mock(ProductRepository.class);
+        Product product = new Product();
+        product.setId(7L);
+        when(productRepository.findById(7L)).thenReturn(Optional.of(product));
+        when(imageRepository.save(any(Image.class))).thenAnswer(invocation -> {
+            Image image = invocation.getArgument(0);
+            image.setId(42L);
+            return image;
+        });
+        when(imageRepository.updateUploadResult(anyLong(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        spoolDir = workDir.resolve("spool");
+        imageService = newService(true);
+    }
+
+    private ImageServiceImpl newService(boolean cloudinaryEnabled) {
+        return new ImageServiceImpl(imageRepository, productRepository, mock(LogsService.class), cloudinary,
+                mock(PlatformTransactionManager.class), new SyncTaskExecutor(), new ImageRenditionGenerator(new SyncTaskExecutor(), 0.8f),
+                new ImageDiskCache(workDir.resolve("cache").toString(), 10 * 1024 * 1024),
+                spoolDir.toString(), workDir.resolve("originals").toString(), cloudinaryEnabled);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cloudinaryStub.stop(0);
+    }
+
+    @Test
+    void multipartUploadIsSpooledSentToCloudinaryAndMarkedUploaded() throws IOException {
+        byte[] content = new byte[256 * 1024];
+        Arrays.fill(content, (byte) 7);
+        MockMultipartFile file = new MockMultipartFile("file", "obra.png", "image/png", content);
+
+        ImageResponseDto response = imageService.uploadImage(7L, file);
+
+        assertEquals(42L, response.getId());
+        assertEquals(ImageStatus.PENDING.name(), response.getStatus());
+        // No es una imagen legible: se sube solo el original, sin derivados
+        assertEquals(List.of("/v1_1/stub/auto/upload"), uploadPaths);
+        assertTrue(uploadBodies.get(0).length > content.length, "the whole file should reach the stub");
+        verify(imageRepository).updateUploadResult(42L, ImageStatus.UPLOADED, STUB_URL, "artemisia/products/stub", null, null, null);
+        assertSpoolEmpty();
+    }
+
+    @Test
+    void renditionsAreGeneratedUploadedAndCached() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "obra.png", "image/png", png(3000, 2000));
+
+        imageService.uploadImage(7L, file);
+
+        assertEquals(3, uploadPaths.size());
+        verify(imageRepository).updateUploadResult(42L, ImageStatus.UPLOADED, STUB_URL, "artemisia/products/stub",
+                STUB_URL, STUB_URL, null);
+        ImageFileDto thumbnail = imageService.getImageFile(42L, "thumbnail");
+        BufferedImage cached = ImageIO.read(thumbnail.getPath().toFile());
+        assertEquals(ImageRendition.THUMBNAIL.getMaxSize(), cached.getWidth());
+        assertNotNull(thumbnail.getEtag());
+        assertSpoolEmpty();
+    }
+
+    @Test
+    void withCloudinaryDisabledImagesAreServedFromLocalDisk() throws IOException {
+        imageService = newService(false);
+        MockMultipartFile file = new MockMultipartFile("file", "obra.png", "image/png", png(800, 600));
+
+        imageService.uploadImage(7L, file);
+
+        assertTrue(uploadPaths.isEmpty());
+        verify(imageRepository).updateUploadResult(42L, ImageStatus.UPLOADED, "/api/images/42/renditions/original", "",
+                "/api/images/42/renditions/thumbnail", "/api/images/42/renditions/medium", null);
+        ImageFileDto medium = imageService.getImageFile(42L, "medium");
+        assertEquals(800, ImageIO.read(medium.getPath().toFile()).getWidth(), "smaller images keep their size");
+        assertNull(medium.getRedirectUrl());
+        assertNotNull(imageService.getImageFile(42L, "original").getPath());
+        verify(imageRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void failedUploadMarksImageFailedAndRemovesSpoolFile() throws IOException {
+        stubStatus = 500;
+        MockMultipartFile file = new MockMultipartFile("file", "obra.png", "image/png", new byte[]{1, 2, 3});
+
+        imageService.uploadImage(7L, file);
+
+        verify(imageRepository).updateUploadResult(eq(42L), eq(ImageStatus.FAILED), eq(""), eq(""), isNull(), isNull(), anyString());
+        assertSpoolEmpty();
+    }
+
+    @Test
+    void deletedWhileUploadingRemovesTheCloudinaryAsset() throws IOException {
+        when(imageRepository.updateUploadResult(anyLong(), eq(ImageStatus.UPLOADED), any(), any(), any(), any(), any())).thenReturn(0);
+        MockMultipartFile file = new MockMultipartFile("file", "obra.png", "image/png", new byte[]{1, 2, 3});
+
+        imageService.uploadImage(7L, file);
+
+        assertEquals(List.of("/v1_1/stub/auto/upload", "/v1_1/stub/image/destroy"), uploadPaths);
+        assertSpoolEmpty();
+    }
+
+    @Test
+    void uploadedImageBecomesPrimaryWhenTheProductHasNone() throws IOException {
+        Image pending = Image.builder().id(41L).status(ImageStatus.PENDING).position(0).primaryImage(false).build();
+        Image uploaded = Image.builder().id(42L).status(ImageStatus.UPLOADED).cloudinaryUrl(STUB_URL)
+                .thumbnailUrl("thumb").mediumUrl("medium").position(1).primaryImage(false).build();
+        when(imageRepository.findByProductIdIn(List.of(7L))).thenReturn(List.of(pending, uploaded));
+
+        imageService.uploadImage(7L, new MockMultipartFile("file", "obra.png", "image/png", new byte[]{1, 2, 3}));
+
+        assertTrue(uploaded.getPrimaryImage());
+        assertFalse(pending.getPrimaryImage());
+        verify(productRepository).updatePrimaryImage(7L, STUB_URL, "thumb", "medium");
+    }
+
+    @Test
+    void deletedImageFilesAreRemovedOnlyAfterCommit() {
+        Product product = new Product();
+        product.setId(7L);
+        Image image = Image.builder().id(42L).publicId("artemisia/products/stub").cloudinaryUrl(STUB_URL)
+                .thumbnailUrl(STUB_URL).mediumUrl(STUB_URL).status(ImageStatus.UPLOADED).primaryImage(false)
+                .product(product).build();
+        when(imageRepository.findById(42L)).thenReturn(Optional.of(image));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            imageService.deleteImage(42L);
+
+            verify(imageRepository).deleteById(42L);
+            verify(productRepository).incrementVersion(7L);
+            assertTrue(uploadPaths.isEmpty(), "Cloudinary must not be called while the transaction is open");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Original, miniatura y mediano
+        assertEquals(List.of("/v1_1/stub/image/destroy", "/v1_1/stub/image/destroy", "/v1_1/stub/image/destroy"),
+                uploadPaths);
+    }
+
+    @Test
+    void reorderMustListEveryImageOfTheProduct() {
+        Image first = Image.builder().id(1L).status(ImageStatus.UPLOADED).position(0).primaryImage(true).build();
+        Image second = Image.builder().id(2L).status(ImageStatus.UPLOADED).position(1).primaryImage(false).build();
+        when(imageRepository.findByProductIdIn(List.of(7L))).thenReturn(List.of(first, second));
+        when(imageRepository.saveAll(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThrows(IllegalArgumentException.class, () -> imageService.reorderImages(7L, List.of(2L)));
+        assertThrows(IllegalArgumentException.class, () -> imageService.reorderImages(7L, List.of(2L, 2L)));
+
+        List<ImageResponseDto> gallery = imageService.reorderImages(7L, List.of(2L, 1L));
+
+        assertEquals(List.of(2L, 1L), gallery.stream().map(ImageResponseDto::getId).toList());
+        assertEquals(0, second.getPosition());
+        assertEquals(1, first.getPosition());
+        // Solo el reordenamiento valido invalida el ETag del producto
+        verify(productRepository, times(1)).incrementVersion(7L);
+    }
+
+    /**
+     * Con el pool de subidas lleno la subida corre en el hilo que la pide, dentro del callback de fin de
+     * la transaccion que registro la imagen. Contra un PostgreSQL embebido para que esa transaccion sea
+     * real.
+     */
+    @Nested
+    @DataJpaTest
+    @AutoConfigureEmbeddedDatabase(provider = ZONKY)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    class SaturatedUploadPool {
+        @Autowired
+        private ImageRepository realImageRepository;
+        @Autowired
+        private ProductRepository realProductRepository;
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @AfterEach
+        void cleanUp() {
+            jdbcTemplate.execute("TRUNCATE images, product, users CASCADE");
+        }
+
+        @Test
+        void uploadRunByTheCommittingThreadStillRecordsItsResult() throws Exception {
+            jdbcTemplate.update("INSERT INTO users (id, name, password, status, role, version) VALUES (1, 'seller', 'x', 'ACTIVE', 'SELLER', 0)");
+            jdbcTemplate.update("INSERT INTO product (id, seller, name, materials, price, stock, status, version) " +
+                    "VALUES (7, 1, 'Marea', 'oleo', 300, 1, 'AVAILABLE', 0)");
+            ThreadPoolTaskExecutor executor = new AsyncExecutorConfig()
+                    .imageUploadExecutor(new ThreadPoolTaskExecutorBuilder(), 1, 1);
+            executor.initialize();
+            CountDownLatch release = new CountDownLatch(1);
+            try {
+                // Un hilo ocupado y la cola llena
+                executor.execute(() -> awaitQuietly(release));
+                executor.execute(() -> awaitQuietly(release));
+                ImageServiceImpl service = new ImageServiceImpl(realImageRepository, realProductRepository,
+                        mock(LogsService.class), cloudinary, transactionManager, executor,
+                        new ImageRenditionGenerator(new SyncTaskExecutor(), 0.8f),
+                        new ImageDiskCache(workDir.resolve("cache").toString(), 10 * 1024 * 1024),
+                        spoolDir.toString(), workDir.resolve("originals").toString(), true);
+                ImageResponseDto registered = new TransactionTemplate(transactionManager).execute(status ->
+                        service.uploadImage(7L, new MockMultipartFile("file", "obra.png", "image/png", new byte[]{1, 2, 3})));
+
+                // El pool sigue bloqueado: la subida ya corrio en este hilo al confirmar
+                assertEquals(List.of("/v1_1/stub/auto/upload"), uploadPaths);
+                Image image = realImageRepository.findById(registered.getId()).orElseThrow();
+                assertEquals(ImageStatus.UPLOADED, image.getStatus());
+                assertEquals(STUB_URL, image.getCloudinaryUrl());
+                assertTrue(image.getPrimaryImage());
+                assertEquals(STUB_URL, jdbcTemplate.queryForObject("SELECT image_url FROM product WHERE id = 7", String.class));
+                assertSpoolEmpty();
+            } finally {
+                release.countDown();
+                executor.shutdown();
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private void assertSpoolEmpty() throws IOException {
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.dto.nota_venta.NotaVentaResponseDto;
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import com.artemisia_corp.artemisia.integracion.SterumPayService;
+import com.artemisia_corp.artemisia.repository.*;
+import com.artemisia_corp.artemisia.service.*;
+import com.artemisia_corp.artemisia.service.impl.clients.RecommenderPythonClient;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cuenta las sentencias que Hibernate prepara para una pagina de notas de venta contra un PostgreSQL
+ * embebido: el numero no puede depender del tamano de la pagina.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+class NotaVentaServiceImplStatementsTest {
+    private static final int NOTAS = 60;
+    private static final long SELLER_ID = 1L;
+
+    @Autowired
+    private NotaVentaRepository notaVentaRepository;
+    @Autowired
+    private OrderDetailRepository orderDetailRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private NotaVentaServiceImpl notaVentaService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        LogsService logsService = mock(LogsService.class);
+        ProductService productService = mock(ProductService.class);
+        OrderDetailServiceImpl orderDetailService = new OrderDetailServiceImpl(orderDetailRepository,
+                notaVentaRepository, productRepository, userRepository, logsService, productService,
+                mock(TransactionTemplate.class));
+        notaVentaService = new NotaVentaServiceImpl(notaVentaRepository, userRepository,
+                mock(AddressRepository.class), productRepository, orderDetailRepository, orderDetailService,
+                productService, logsService, mock(SterumPayService.class), mock(RecommendationService.class),
+                mock(RecommenderPythonClient.class), mock(SalesRollupService.class));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Cada nota de un comprador distinto, con dos lineas del mismo vendedor
+        jdbcTemplate.update("INSERT INTO users (id, name, password, status, role, version) VALUES (?, 'seller', 'x', 'ACTIVE', 'SELLER', 0)",
+                SELLER_ID);
+        jdbcTemplate.update("INSERT INTO users (id, name, password, status, role, version) " +
+                "SELECT 100 + g, 'buyer' || g, 'x', 'ACTIVE', 'BUYER', 0 FROM generate_series(1, ?) g", NOTAS);
+        jdbcTemplate.update("INSERT INTO product (id, seller, name, materials, price, stock, status, version) VALUES " +
+                "(1, 1, 'Marea', 'oleo', 300, 1, 'AVAILABLE', 0), (2, 1, 'Puerto', 'papel', 100, 5, 'AVAILABLE', 0)");
+        jdbcTemplate.update("INSERT INTO nota_venta (id, user_id, estado_venta, total_global, date, moneda_carrito, " +
+                "precios_convertidos, version) SELECT g, 100 + g, 'PAYED', 400, now(), 'BOB', true, 0 " +
+                "FROM generate_series(1, ?) g", NOTAS);
+        jdbcTemplate.update("INSERT INTO detail (id, group_id, product_id, seller_id, product_name, quantity, total, version) " +
+                "SELECT g * 2 + p, g, p, 1, 'Obra', 1, 200, 0 FROM generate_series(1, ?) g CROSS JOIN generate_series(1, 2) p",
+                NOTAS);
+    }
+
+    @Test
+    void allNotasListingPreparesTheSameStatementsForAnyPageSize() {
+        long single = preparedStatements(() -> notaVentaService.getAllNotasVenta(PageRequest.of(0, 1)), 1);
+        long full = preparedStatements(() -> notaVentaService.getAllNotasVenta(PageRequest.of(0, 50)), 50);
+
+        assertEquals(single, full);
+        // Pagina, total y detalles
+        assertEquals(3, full);
+    }
+
+    @Test
+    void sellerListingPreparesTheSameStatementsForAnyPageSize() {
+        long single = preparedStatements(() -> notaVentaService.getNotasVentaBySellerAndEstado(
+                SELLER_ID, VentaEstado.PAYED, PageRequest.of(0, 1)), 1);
+        long full = preparedStatements(() -> notaVentaService.getNotasVentaBySellerAndEstado(
+                SELLER_ID, VentaEstado.PAYED, PageRequest.of(0, 50)), 50);
+
+        assertEquals(single, full);
+        // Pagina, total y detalles
+        assertEquals(3, full);
+    }
+
+    private long preparedStatements(Supplier<Page<NotaVentaResponseDto>> listing, int pageSize) {
+        entityManager.clear();
+        statistics.clear();
+
+        Page<NotaVentaResponseDto> page = listing.get();
+
+        assertEquals(pageSize, page.getContent().size());
+        assertEquals(NOTAS, page.getTotalElements());
+        page.getContent().forEach(nota -> assertEquals(2, nota.getDetalles().size()));
+        return statistics.getPrepareStatementCount();
+    }
+}
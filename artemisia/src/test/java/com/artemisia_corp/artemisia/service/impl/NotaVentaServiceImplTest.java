@@ -0,0 +1,152 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.NotaVenta;
+import com.artemisia_corp.artemisia.entity.User;
+import com.artemisia_corp.artemisia.entity.dto.nota_venta.NotaVentaResponseDto;
+import com.artemisia_corp.artemisia.entity.dto.nota_venta.PendingTransactionDto;
+import com.artemisia_corp.artemisia.entity.dto.order_detail.OrderDetailResponseDto;
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import com.artemisia_corp.artemisia.integracion.SterumPayService;
+import com.artemisia_corp.artemisia.repository.*;
+import com.artemisia_corp.artemisia.service.*;
+import com.artemisia_corp.artemisia.service.impl.clients.RecommenderPythonClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotaVentaServiceImplTest {
+    private NotaVentaRepository notaVentaRepository;
+    private OrderDetailRepository orderDetailRepository;
+    private ProductService productService;
+    private SalesRollupService salesRollupService;
+    private NotaVentaServiceImpl notaVentaService;
+
+    @BeforeEach
+    void setUp() {
+        notaVentaRepository = mock(NotaVentaRepository.class);
+        orderDetailRepository = mock(OrderDetailRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        ProductRepository productRepository = mock(ProductRepository.class);
+        LogsService logsService = mock(LogsService.class);
+        productService = mock(ProductService.class);
+        salesRollupService = mock(SalesRollupService.class);
+
+        OrderDetailServiceImpl orderDetailService = new OrderDetailServiceImpl(orderDetailRepository,
+                notaVentaRepository, productRepository, userRepository, logsService, productService,
+                mock(TransactionTemplate.class));
+        notaVentaService = new NotaVentaServiceImpl(notaVentaRepository, userRepository,
+                mock(AddressRepository.class), productRepository, orderDetailRepository, orderDetailService,
+                productService, logsService, mock(SterumPayService.class), mock(RecommendationService.class),
+                mock(RecommenderPythonClient.class), salesRollupService);
+    }
+
+    @Test
+    void pagedListingLoadsDetailsWithOneQueryWhateverThePageSize() {
+        for (int size : new int[]{1, 50}) {
+            reset(notaVentaRepository, orderDetailRepository);
+            Pageable pageable = PageRequest.of(0, size);
+            List<NotaVentaResponseDto> notas = LongStream.rangeClosed(1, size)
+                    .mapToObj(id -> NotaVentaResponseDto.builder().id(id).estadoVenta("PAYED").build())
+                    .toList();
+            when(notaVentaRepository.findAllNotaVentas(pageable)).thenReturn(new PageImpl<>(notas, pageable, size));
+            when(orderDetailRepository.findDtoByGroupIdIn(anyCollection())).thenReturn(detailsFor(size));
+
+            Page<NotaVentaResponseDto> page = notaVentaService.getAllNotasVenta(pageable);
+
+            verify(notaVentaRepository).findAllNotaVentas(pageable);
+            verify(orderDetailRepository, times(1)).findDtoByGroupIdIn(anyCollection());
+            verifyNoMoreInteractions(notaVentaRepository, orderDetailRepository);
+            page.getContent().forEach(nota -> assertEquals(2, nota.getDetalles().size()));
+        }
+    }
+
+    @Test
+    void sellerListingSkipsPerNoteLookups() {
+        Pageable pageable = PageRequest.of(0, 20);
+        List<NotaVenta> notas = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            User buyer = new User();
+            buyer.setId(100 + id);
+            NotaVenta nota = new NotaVenta();
+            nota.setId(id);
+            nota.setBuyer(buyer);
+            nota.setEstadoVenta(VentaEstado.PAYED);
+            notas.add(nota);
+        }
+        when(notaVentaRepository.findBySellerAndEstadoVenta(eq(7L), eq(VentaEstado.PAYED), eq(pageable)))
+                .thenReturn(new PageImpl<>(notas, pageable, notas.size()));
+        when(orderDetailRepository.findDtoByGroupIdIn(anyCollection())).thenReturn(detailsFor(20));
+
+        Page<NotaVentaResponseDto> page = notaVentaService.getNotasVentaBySellerAndEstado(7L, VentaEstado.PAYED, pageable);
+
+        verify(orderDetailRepository, times(1)).findDtoByGroupIdIn(anyCollection());
+        verify(notaVentaRepository, never()).findById(anyLong());
+        verifyNoMoreInteractions(orderDetailRepository);
+        assertEquals(20, page.getContent().size());
+        assertEquals(101L, page.getContent().get(0).getUserId());
+        assertEquals(2, page.getContent().get(19).getDetalles().size());
+    }
+
+    @Test
+    void reconciledPaymentsOnlyTransitionCartsThatStillHoldTheTransaction() {
+        NotaVenta paid = cart(1L, "tx-1");
+        NotaVenta cancelled = cart(2L, "tx-2");
+        // El comprador genero un cobro nuevo sobre el mismo carrito
+        NotaVenta recharged = cart(3L, "tx-3b");
+        when(notaVentaRepository.lockCartsByIdIn(anyCollection())).thenReturn(List.of(paid, cancelled, recharged));
+        when(orderDetailRepository.findDtoByGroupIdIn(List.of(2L)))
+                .thenReturn(List.of(new OrderDetailResponseDto(20L, 2L, 5L, 7L, "Obra", 2, 100.0)));
+
+        Map<Long, VentaEstado> applied = notaVentaService.applyReconciledPayments(
+                List.of(pending(1L, "tx-1"), pending(3L, "tx-3")), List.of(pending(2L, "tx-2"), pending(4L, "tx-4")));
+
+        assertEquals(Map.of(1L, VentaEstado.PAYED, 2L, VentaEstado.DELETED), applied);
+        assertEquals(VentaEstado.ON_CART, recharged.getEstadoVenta());
+        verify(notaVentaRepository, times(1)).lockCartsByIdIn(Set.of(1L, 2L, 3L, 4L));
+        verify(productService).manageStock(argThat(m -> m.getProductId() == 5L && m.getQuantity() == 2 && !m.isReduceStock()));
+        verify(salesRollupService).recordTransition(1L, VentaEstado.ON_CART, VentaEstado.PAYED);
+        verify(salesRollupService).recordTransition(2L, VentaEstado.ON_CART, VentaEstado.DELETED);
+        verifyNoMoreInteractions(salesRollupService);
+        verify(notaVentaRepository, never()).findByBuyer_IdAndEstadoVenta(anyLong());
+    }
+
+    private static NotaVenta cart(Long id, String idTransaccion) {
+        User buyer = new User();
+        buyer.setId(100 + id);
+        NotaVenta nota = new NotaVenta();
+        nota.setId(id);
+        nota.setBuyer(buyer);
+        nota.setEstadoVenta(VentaEstado.ON_CART);
+        nota.setIdTransaccion(idTransaccion);
+        nota.setTotalGlobal(100.0);
+        return nota;
+    }
+
+    private static PendingTransactionDto pending(Long notaVentaId, String idTransaccion) {
+        return new PendingTransactionDto(notaVentaId, 100 + notaVentaId, idTransaccion, null);
+    }
+
+    private static List<OrderDetailResponseDto> detailsFor(int notas) {
+        List<OrderDetailResponseDto> details = new ArrayList<>();
+        for (long group = 1; group <= notas; group++) {
+            for (long line = 0; line < 2; line++) {
+                details.add(new OrderDetailResponseDto(group * 10 + line, group, line + 1, 7L, "Obra", 1, 50.0));
+            }
+        }
+        return details;
+    }
+}
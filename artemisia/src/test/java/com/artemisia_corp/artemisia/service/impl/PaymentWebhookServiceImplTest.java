@@ -0,0 +1,110 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.PaymentWebhookInbox;
+import com.artemisia_corp.artemisia.entity.dto.nota_venta.RespuestaVerificacionNotaVentaDto;
+import com.artemisia_corp.artemisia.entity.dto.nota_venta.TransaccionDto;
+import com.artemisia_corp.artemisia.entity.enums.WebhookInboxStatus;
+import com.artemisia_corp.artemisia.repository.PaymentWebhookInboxRepository;
+import com.artemisia_corp.artemisia.service.LogsService;
+import com.artemisia_corp.artemisia.service.NotaVentaService;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * La bandeja se prueba contra un PostgreSQL embebido: la deduplicacion depende del indice unico y el
+ * reclamo de la actualizacion condicional. Sin transaccion de prueba, como en el webhook real.
+ */
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentWebhookServiceImplTest {
+    private static final String TRANSACTION_ID = "tx-1";
+
+    @Autowired
+    private PaymentWebhookInboxRepository inboxRepository;
+
+    private final NotaVentaService notaVentaService = mock(NotaVentaService.class);
+
+    @AfterEach
+    void cleanUp() {
+        inboxRepository.deleteAll();
+    }
+
+    @Test
+    void duplicateDeliveryOfAProcessedTransactionIsNotReprocessed() {
+        when(notaVentaService.obtenerRespuestaTransaccion(any())).thenReturn(true);
+        PaymentWebhookServiceImpl service = service(inboxRepository);
+
+        service.receive(notification("n-1"), "{\"id\":\"n-1\",\"transaction\":{\"id\":\"tx-1\"}}");
+        service.receive(notification("n-2"), "{\"id\":\"n-2\",\"transaction\":{\"id\":\"tx-1\"}}");
+
+        verify(notaVentaService, times(1)).obtenerRespuestaTransaccion(any());
+        List<PaymentWebhookInbox> rows = inboxRepository.findAll();
+        assertEquals(1, rows.size());
+        assertEquals(WebhookInboxStatus.PROCESSED, rows.get(0).getStatus());
+        assertEquals(1, rows.get(0).getAttempts());
+        assertEquals("n-1", rows.get(0).getNotificationId());
+    }
+
+    @Test
+    void deliveryRacingARetryClaimDoesNotResetTheRowToPending() {
+        PaymentWebhookInbox failed = inboxRepository.save(PaymentWebhookInbox.builder()
+                .transactionId(TRANSACTION_ID)
+                .notificationId("n-1")
+                .payload("{}")
+                .status(WebhookInboxStatus.FAILED)
+                .attempts(1)
+                .receivedAt(LocalDateTime.now().minusMinutes(5))
+                .lastAttemptAt(LocalDateTime.now().minusMinutes(5))
+                .build());
+        // El reintento de otra instancia reclama la fila justo despues de que la entrega la leyo
+        PaymentWebhookInboxRepository racing = mock(PaymentWebhookInboxRepository.class, delegatesTo(inboxRepository));
+        doAnswer(invocation -> {
+            PaymentWebhookInbox read = inboxRepository.findByTransactionId(TRANSACTION_ID).orElseThrow();
+            LocalDateTime now = LocalDateTime.now();
+            assertEquals(1, inboxRepository.claim(failed.getId(), WebhookInboxStatus.PROCESSING,
+                    List.of(WebhookInboxStatus.PENDING, WebhookInboxStatus.FAILED), now, now.minusMinutes(10)));
+            return Optional.of(read);
+        }).when(racing).findByTransactionId(TRANSACTION_ID);
+
+        service(racing).receive(notification("n-2"), "{\"id\":\"n-2\",\"transaction\":{\"id\":\"tx-1\"}}");
+
+        PaymentWebhookInbox row = inboxRepository.findById(failed.getId()).orElseThrow();
+        assertEquals(WebhookInboxStatus.PROCESSING, row.getStatus());
+        assertEquals(2, row.getAttempts());
+        assertEquals("n-1", row.getNotificationId());
+        verifyNoInteractions(notaVentaService);
+    }
+
+    private PaymentWebhookServiceImpl service(PaymentWebhookInboxRepository repository) {
+        PaymentWebhookServiceImpl service = new PaymentWebhookServiceImpl(repository, notaVentaService,
+                mock(LogsService.class), new SyncTaskExecutor());
+        ReflectionTestUtils.setField(service, "maxAttempts", 5);
+        ReflectionTestUtils.setField(service, "staleProcessingMinutes", 10L);
+        return service;
+    }
+
+    private static RespuestaVerificacionNotaVentaDto notification(String id) {
+        return RespuestaVerificacionNotaVentaDto.builder()
+                .id(id)
+                .transaction(TransaccionDto.builder().id(TRANSACTION_ID).status("PAID").build())
+                .build();
+    }
+}
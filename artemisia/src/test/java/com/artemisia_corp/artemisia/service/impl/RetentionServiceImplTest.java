@@ -0,0 +1,132 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.Logs;
+import com.artemisia_corp.artemisia.repository.LogerRespository;
+import com.artemisia_corp.artemisia.service.LogsService;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Conversion de {@code log} a particiones mensuales y su rotacion contra un PostgreSQL embebido. Las
+ * transacciones son reales: la conversion y la rotacion toman su propio candado.
+ */
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RetentionServiceImplTest {
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private LogerRespository logRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void restorePlainLogTable() {
+        jdbcTemplate.execute("DROP TABLE log CASCADE");
+        jdbcTemplate.execute("CREATE TABLE log (id bigint NOT NULL PRIMARY KEY, date timestamp(6) NOT NULL, " +
+                "level varchar(30) NOT NULL, message varchar(2000) NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX idx_log_date_level ON log (date, level, id)");
+        jdbcTemplate.execute("CREATE INDEX idx_log_level_date ON log (level, date, id)");
+    }
+
+    @Test
+    void migratesThenRotatesMonthlyPartitions() {
+        RetentionServiceImpl retentionService = new RetentionServiceImpl(jdbcTemplate, transactionManager,
+                mock(LogsService.class), true, 6, 3, 5000);
+        YearMonth now = YearMonth.now();
+        insertLog("expired", now.minusMonths(12));
+        insertLog("two months ago", now.minusMonths(2));
+        insertLog("this month", now);
+        assertEquals("r", logTableKind());
+
+        retentionService.migrateLogTable();
+
+        // Seis meses retenidos (el actual incluido) y tres por delante
+        assertEquals("p", logTableKind());
+        assertEquals(partitions(now.minusMonths(5), now.plusMonths(3)), retentionService.getLogPartitions());
+        assertEquals(List.of("two months ago", "this month"),
+                jdbcTemplate.queryForList("SELECT message FROM log ORDER BY date", String.class));
+        assertEquals(partition(now.minusMonths(2)), partitionOf("two months ago"));
+        assertEquals(partition(now), partitionOf("this month"));
+
+        // Hibernate reconoce la tabla particionada: ddl-auto=update no intenta recrearla al reiniciar
+        entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().validateMappedObjects();
+        // Las inserciones de la aplicacion siguen funcionando y caen en el mes que les toca
+        logRepository.save(Logs.builder().level("INFO").message("after migration").date(new Date()).build());
+        assertEquals(partition(now), partitionOf("after migration"));
+
+        // Un mes ya vencido y un mes futuro que falta: la rotacion borra uno y crea el otro
+        YearMonth expired = now.minusMonths(8);
+        jdbcTemplate.execute("CREATE TABLE " + partition(expired) + " PARTITION OF log FOR VALUES FROM ('" +
+                expired.atDay(1) + "') TO ('" + expired.plusMonths(1).atDay(1) + "')");
+        insertLog("old partition", expired);
+        assertEquals(partition(expired), partitionOf("old partition"));
+        jdbcTemplate.execute("DROP TABLE " + partition(now.plusMonths(3)));
+
+        retentionService.applyRetention();
+
+        assertEquals(partitions(now.minusMonths(5), now.plusMonths(3)), retentionService.getLogPartitions());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM log WHERE message = 'old partition'", Integer.class));
+        insertLog("premade month", now.plusMonths(3));
+        assertEquals(partition(now.plusMonths(3)), partitionOf("premade month"));
+
+        // Una segunda conversion no hace nada
+        retentionService.migrateLogTable();
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM log", Integer.class));
+    }
+
+    private void insertLog(String message, YearMonth month) {
+        LocalDateTime date = month.atDay(10).atTime(12, 0);
+        jdbcTemplate.update("INSERT INTO log (id, level, message, date) VALUES (nextval('seq_log_id'), 'INFO', ?, ?)",
+                message, Timestamp.valueOf(date));
+    }
+
+    private String partitionOf(String message) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM log WHERE message = ?", String.class, message);
+    }
+
+    private String logTableKind() {
+        return jdbcTemplate.queryForObject("SELECT relkind::text FROM pg_class WHERE relname = 'log'", String.class);
+    }
+
+    private static List<String> partitions(YearMonth from, YearMonth to) {
+        List<String> names = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            names.add(partition(month));
+        }
+        return names;
+    }
+
+    private static String partition(YearMonth month) {
+        return "log_p" + month.format(SUFFIX);
+    }
+}
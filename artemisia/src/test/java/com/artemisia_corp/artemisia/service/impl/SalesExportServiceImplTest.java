@@ -0,0 +1,210 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import com.artemisia_corp.artemisia.service.LogsService;
+import com.artemisia_corp.artemisia.service.SalesExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * La exportacion se prueba contra un PostgreSQL embebido: solo ahi el fetch size abre un cursor de
+ * servidor, y solo si la conexion no esta en autocommit.
+ */
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SalesExportServiceImplTest {
+    private static final int LARGE_EXPORT = 20_000;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Estado de la conexion en cada consulta ejecutada por la exportacion
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+
+    private SalesExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        DataSource recording = recording(dataSource);
+        exportService = new SalesExportServiceImpl(recording, new DataSourceTransactionManager(recording),
+                mock(LogsService.class), 1000, 1000);
+        jdbcTemplate.update("INSERT INTO users (id, name, password, status, role, version) VALUES " +
+                "(1, 'seller', 'x', 'ACTIVE', 'SELLER', 0), (2, 'buyer', 'x', 'ACTIVE', 'BUYER', 0)");
+        jdbcTemplate.update("INSERT INTO product (id, seller, name, materials, price, stock, status, version) VALUES " +
+                "(1, 1, 'Marea, azul', 'oleo', 300, 1, 'AVAILABLE', 0), (2, 1, 'Puerto', 'papel', 100, 5, 'AVAILABLE', 0)");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE detail, nota_venta, product, users CASCADE");
+    }
+
+    @Test
+    void csvRepeatsTheSaleOnEveryDetailLine() throws IOException {
+        seedSmall();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long sales = exportService.export(SalesExportService.CSV, VentaEstado.PAYED, null, null, out);
+
+        assertEquals(2, sales);
+        assertEquals("""
+                nota_venta_id,date,estado_venta,user_id,total_global,id_transaccion,detail_id,product_id,product_name,seller_id,quantity,total
+                10,2026-03-14 15:30:00.0,PAYED,2,500.0,tx-10,100,1,"Marea, azul",1,1,300.0
+                10,2026-03-14 15:30:00.0,PAYED,2,500.0,tx-10,101,2,Puerto,1,2,200.0
+                12,2026-03-15 09:00:00.0,PAYED,2,0.0,,,,,,,
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void ndjsonNestsTheDetailsOfEachSale() throws IOException {
+        seedSmall();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long sales = exportService.export(SalesExportService.NDJSON, null, LocalDate.of(2026, 3, 14),
+                LocalDate.of(2026, 3, 14), out);
+
+        assertEquals(2, sales);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode paid = mapper.readTree(lines[0]);
+        assertEquals(10, paid.get("id").asLong());
+        assertEquals("2026-03-14T15:30", paid.get("date").asText());
+        assertEquals("tx-10", paid.get("idTransaccion").asText());
+        assertEquals(2, paid.get("detalles").size());
+        assertEquals("Marea, azul", paid.get("detalles").get(0).get("productName").asText());
+        assertEquals(2, paid.get("detalles").get(1).get("quantity").asInt());
+        JsonNode cart = mapper.readTree(lines[1]);
+        assertEquals(11, cart.get("id").asLong());
+        assertEquals("ON_CART", cart.get("estadoVenta").asText());
+        assertEquals(1, cart.get("detalles").size());
+    }
+
+    @Test
+    void largeExportStreamsFromAServerCursor() throws IOException {
+        // Dos detalles por venta
+        jdbcTemplate.update("INSERT INTO nota_venta (id, user_id, estado_venta, total_global, date, moneda_carrito, " +
+                "precios_convertidos, version) SELECT g, 2, 'PAYED', 400, TIMESTAMP '2026-03-14 12:00' + g * INTERVAL '1 second', " +
+                "'BOB', true, 0 FROM generate_series(1, ?) g", LARGE_EXPORT);
+        jdbcTemplate.update("INSERT INTO detail (id, group_id, product_id, seller_id, product_name, quantity, total, version) " +
+                "SELECT g * 2 + p, g, p, 1, 'Obra', 1, 200, 0 FROM generate_series(1, ?) g CROSS JOIN generate_series(1, 2) p",
+                LARGE_EXPORT);
+        CountingOutputStream out = new CountingOutputStream();
+
+        long sales = exportService.export(SalesExportService.CSV, null, null, null, out);
+
+        assertEquals(LARGE_EXPORT, sales);
+        assertEquals(1 + LARGE_EXPORT * 2L, out.lines);
+        assertTrue(out.bytes > 1_000_000, "bytes " + out.bytes);
+        // Se vacia cada 1000 ventas en lugar de acumular la respuesta entera
+        assertTrue(out.flushes >= LARGE_EXPORT / 1000, "flushes " + out.flushes);
+        assertEquals(List.of("autoCommit=false readOnly=true fetchSize=1000"), queries);
+    }
+
+    private void seedSmall() {
+        jdbcTemplate.update("INSERT INTO nota_venta (id, user_id, estado_venta, total_global, date, moneda_carrito, " +
+                "precios_convertidos, id_transaccion, version) VALUES " +
+                "(10, 2, 'PAYED', 500, TIMESTAMP '2026-03-14 15:30', 'BOB', true, 'tx-10', 0), " +
+                "(11, 2, 'ON_CART', 300, TIMESTAMP '2026-03-14 18:00', 'BOB', true, null, 0), " +
+                "(12, 2, 'PAYED', 0, TIMESTAMP '2026-03-15 09:00', 'BOB', true, null, 0)");
+        jdbcTemplate.update("INSERT INTO detail (id, group_id, product_id, seller_id, product_name, quantity, total, version) VALUES " +
+                "(100, 10, 1, 1, 'Marea, azul', 1, 300, 0), (101, 10, 2, 1, 'Puerto', 2, 200, 0), (102, 11, 1, 1, 'Marea, azul', 1, 300, 0)");
+    }
+
+    private DataSource recording(DataSource target) {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    return result instanceof Connection connection ? recording(connection) : result;
+                });
+    }
+
+    private Connection recording(Connection target) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    return result instanceof PreparedStatement statement ? recording(target, statement) : result;
+                });
+    }
+
+    private PreparedStatement recording(Connection connection, PreparedStatement target) {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("executeQuery")) {
+                        queries.add("autoCommit=" + connection.getAutoCommit() + " readOnly=" + connection.isReadOnly() +
+                                " fetchSize=" + target.getFetchSize());
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long bytes;
+        private long lines;
+        private int flushes;
+
+        private CountingOutputStream() {
+            super(OutputStream.nullOutputStream());
+        }
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') lines++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') lines++;
+            }
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.artemisia_corp.artemisia.service.impl;
+
+import com.artemisia_corp.artemisia.entity.enums.VentaEstado;
+import com.artemisia_corp.artemisia.service.LogsService;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Los upserts de los agregados son SQL nativo de PostgreSQL (ON CONFLICT, nextval): se prueban contra
+ * un PostgreSQL embebido.
+ */
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Import(SalesRollupServiceImpl.class)
+class SalesRollupServiceImplTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 14);
+    private static final long SELLER_ID = 1L;
+    private static final long ORDER_ID = 10L;
+    private static final long CART_ID = 11L;
+
+    @Autowired
+    private SalesRollupServiceImpl salesRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private LogsService logsService;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (id, name, password, status, role, version) VALUES " +
+                "(1, 'seller', 'x', 'ACTIVE', 'SELLER', 0), (2, 'buyer', 'x', 'ACTIVE', 'BUYER', 0)");
+        jdbcTemplate.update("INSERT INTO product (id, seller, name, materials, price, stock, status, version) VALUES " +
+                "(1, 1, 'Marea', 'oleo', 300, 1, 'AVAILABLE', 0), (2, 1, 'Puerto', 'papel', 100, 5, 'AVAILABLE', 0)");
+        jdbcTemplate.update("INSERT INTO product_categories (product_id, category) VALUES (1, 'Abstracta'), (2, 'Realista')");
+        jdbcTemplate.update("INSERT INTO product_techniques (product_id, technique) VALUES (1, 'Óleo'), (2, 'Acuarela')");
+        // Nota de 500 con dos lineas (300 + 2 x 100) y un carrito de 300 con una linea
+        insertNotaVenta(ORDER_ID, 500.0);
+        insertNotaVenta(CART_ID, 300.0);
+        jdbcTemplate.update("INSERT INTO detail (id, group_id, product_id, seller_id, product_name, quantity, total, version) VALUES " +
+                "(100, 10, 1, 1, 'Marea', 1, 300, 0), (101, 10, 2, 1, 'Puerto', 2, 200, 0), (102, 11, 1, 1, 'Marea', 1, 300, 0)");
+    }
+
+    @Test
+    void paidThenShippedMovesTheOrderBetweenStatusBuckets() {
+        salesRollupService.recordTransition(ORDER_ID, VentaEstado.ON_CART, VentaEstado.PAYED);
+
+        assertStatus(VentaEstado.PAYED, 1, 500.0);
+        assertLines("sales_daily_by_category", "category", "Abstracta", VentaEstado.PAYED, 1, 300.0);
+        assertLines("sales_daily_by_category", "category", "Realista", VentaEstado.PAYED, 1, 200.0);
+        assertLines("sales_daily_by_technique", "technique", "Óleo", VentaEstado.PAYED, 1, 300.0);
+        assertLines("sales_daily_by_technique", "technique", "Acuarela", VentaEstado.PAYED, 1, 200.0);
+        assertLines("sales_daily_by_seller", "seller_id", SELLER_ID, VentaEstado.PAYED, 2, 500.0);
+
+        salesRollupService.recordTransition(ORDER_ID, VentaEstado.PAYED, VentaEstado.SHIPPED);
+
+        assertStatus(VentaEstado.PAYED, 0, 0.0);
+        assertStatus(VentaEstado.SHIPPED, 1, 500.0);
+        assertLines("sales_daily_by_category", "category", "Abstracta", VentaEstado.PAYED, 0, 0.0);
+        assertLines("sales_daily_by_category", "category", "Abstracta", VentaEstado.SHIPPED, 1, 300.0);
+        assertLines("sales_daily_by_technique", "technique", "Acuarela", VentaEstado.SHIPPED, 1, 200.0);
+        assertLines("sales_daily_by_seller", "seller_id", SELLER_ID, VentaEstado.PAYED, 0, 0.0);
+        assertLines("sales_daily_by_seller", "seller_id", SELLER_ID, VentaEstado.SHIPPED, 2, 500.0);
+    }
+
+    @Test
+    void deletingAPaidOrderMovesItToDeleted() {
+        salesRollupService.recordTransition(ORDER_ID, VentaEstado.ON_CART, VentaEstado.PAYED);
+        salesRollupService.recordTransition(ORDER_ID, VentaEstado.PAYED, VentaEstado.DELETED);
+
+        assertStatus(VentaEstado.PAYED, 0, 0.0);
+        assertStatus(VentaEstado.DELETED, 1, 500.0);
+        assertLines("sales_daily_by_seller", "seller_id", SELLER_ID, VentaEstado.PAYED, 0, 0.0);
+        assertLines("sales_daily_by_seller", "seller_id", SELLER_ID, VentaEstado.DELETED, 2, 500.0);
+        assertEquals(0L, salesRollupService.getSalesSummary().getTotalSales());
+    }
+
+    @Test
+    void cancellingACartOnlyAddsToDeleted() {
+        salesRollupService.recordTransition(ORDER_ID, VentaEstado.ON_CART, VentaEstado.PAYED);
+        salesRollupService.recordTransition(CART_ID, VentaEstado.ON_CART, VentaEstado.DELETED);
+
+        // Los carritos no se agregan: cancelar uno no resta nada de otro estado
+        assertStatus(VentaEstado.PAYED, 1, 500.0);
+        assertStatus(VentaEstado.DELETED, 1, 300.0);
+        assertLines("sales_daily_by_category", "category", "Abstracta", VentaEstado.PAYED, 1, 300.0);
+        assertLines("sales_daily_by_category", "category", "Abstracta", VentaEstado.DELETED, 1, 300.0);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM sales_daily_by_status WHERE estado_venta = 'ON_CART'", Integer.class));
+    }
+
+    @Test
+    void sameStateTransitionIsIgnored() {
+        salesRollupService.recordTransition(ORDER_ID, VentaEstado.PAYED, VentaEstado.PAYED);
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sales_daily_by_status", Integer.class));
+    }
+
+    private void insertNotaVenta(long id, double total) {
+        jdbcTemplate.update("INSERT INTO nota_venta (id, user_id, estado_venta, total_global, date, moneda_carrito, " +
+                "precios_convertidos, version) VALUES (?, 2, 'ON_CART', ?, ?, 'BOB', true, 0)",
+                id, total, Timestamp.valueOf(DAY.atTime(15, 30)));
+    }
+
+    private void assertStatus(VentaEstado estado, long orders, double revenue) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT * FROM sales_daily_by_status WHERE day = ? AND estado_venta = ?", Date.valueOf(DAY), estado.name());
+        assertEquals(1, rows.size(), "rows for " + estado);
+        Map<String, Object> row = rows.get(0);
+        assertEquals(orders, ((Number) row.get("order_count")).longValue());
+        assertEquals(revenue, ((Number) row.get("revenue")).doubleValue(), 0.001);
+    }
+
+    private void assertLines(String table, String keyColumn, Object key, VentaEstado estado, long lines, double revenue) {
+        Map<String, Object> row = row(table, keyColumn, key, estado);
+        assertNotNull(row, "no row in " + table + " for " + key + " " + estado);
+        assertEquals(lines, ((Number) row.get("sales_count")).longValue());
+        assertEquals(revenue, ((Number) row.get("revenue")).doubleValue(), 0.001);
+    }
+
+    private Map<String, Object> row(String table, String keyColumn, Object key, VentaEstado estado) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT * FROM " + table + " WHERE day = ? AND " + keyColumn + " = ? AND estado_venta = ?",
+                Date.valueOf(DAY), key, estado.name());
+        assertTrue(rows.size() <= 1);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+}
@@ -0,0 +1,159 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import com.artemisia_corp.artemisia.entity.dto.auction.AuctionEventDto;
+import com.artemisia_corp.artemisia.service.LogsService;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cierra una rafaga de subastas vencidas contra un PostgreSQL embebido (el cierre usa SQL propio de
+ * PostgreSQL: FOR UPDATE SKIP LOCKED, nextval, generate_series).
+ */
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuctionBatchCloserTest {
+    private static final int AUCTIONS = 5000;
+    private static final long SELLER_ID = 1L;
+    // Primer postor de cada subasta: puja manual igual al maximo del lider
+    private static final long CHALLENGER_ID = 2L;
+    private static final long LEADER_ID = 3L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE auction_participant, auction, detail, nota_venta, product, users CASCADE");
+    }
+
+    @Test
+    void closesABurstWithTheBookLeaderAsWinner() {
+        LocalDateTime now = LocalDateTime.now();
+        seed(now);
+        AuctionBidEngine bidEngine = mock(AuctionBidEngine.class);
+        when(bidEngine.findBook(anyLong())).thenReturn(Optional.empty());
+        AuctionEventBroadcaster broadcaster = mock(AuctionEventBroadcaster.class);
+        AuctionBatchCloser closer = new AuctionBatchCloser(namedJdbc, new TransactionTemplate(transactionManager),
+                bidEngine, broadcaster, mock(LogsService.class));
+        ReflectionTestUtils.setField(closer, "batchSize", 500);
+
+        List<Long> ids = LongStream.rangeClosed(1, AUCTIONS).boxed().toList();
+        List<Long> closed = closer.closeExpired(ids);
+
+        // La subasta 7 gano alguien sin stock disponible: queda para el camino individual
+        assertEquals(AUCTIONS - 1, closed.size());
+        assertFalse(closed.contains(7L));
+        verify(bidEngine, times(AUCTIONS)).close(anyLong());
+        verify(broadcaster, times(AUCTIONS - 1)).publishClosed(any(AuctionEventDto.class));
+
+        List<Map<String, Object>> auctions = jdbcTemplate.queryForList(
+                "SELECT a.id, a.status, a.winner_id, a.current_price, a.nota_venta_id, p.stock, p.status AS product_status " +
+                "FROM auction a JOIN product p ON p.id = a.product_id ORDER BY a.id");
+        int sold = 0;
+        for (Map<String, Object> row : auctions) {
+            long id = ((Number) row.get("id")).longValue();
+            if (id == 7) {
+                assertEquals("ACTIVE", row.get("status"));
+            } else if (id % 10 == 0) {
+                assertEquals("CANCELLED", row.get("status"));
+                assertNull(row.get("winner_id"));
+                assertEquals(1, ((Number) row.get("stock")).intValue());
+                assertEquals("AVAILABLE", row.get("product_status"));
+            } else {
+                sold++;
+                assertEquals("FINISHED", row.get("status"), "auction " + id);
+                assertEquals(LEADER_ID, ((Number) row.get("winner_id")).longValue(), "auction " + id);
+                assertEquals(price(id), ((Number) row.get("current_price")).doubleValue());
+                assertNotNull(row.get("nota_venta_id"));
+                assertEquals(0, ((Number) row.get("stock")).intValue());
+                assertEquals("UNAVAILABLE", row.get("product_status"));
+            }
+        }
+
+        // Un carrito por subasta vendida, del lider y por el precio de cierre
+        List<Map<String, Object>> carts = jdbcTemplate.queryForList(
+                "SELECT nv.user_id, nv.estado_venta, nv.total_global, d.product_id, d.quantity, d.total, a.id AS auction_id " +
+                "FROM auction a JOIN nota_venta nv ON nv.id = a.nota_venta_id JOIN detail d ON d.group_id = nv.id");
+        assertEquals(sold, carts.size());
+        assertEquals(sold, new HashSet<>(carts.stream().map(c -> c.get("auction_id")).toList()).size());
+        for (Map<String, Object> cart : carts) {
+            long auctionId = ((Number) cart.get("auction_id")).longValue();
+            assertEquals(LEADER_ID, ((Number) cart.get("user_id")).longValue());
+            assertEquals("ON_CART", cart.get("estado_venta"));
+            assertEquals(price(auctionId), ((Number) cart.get("total_global")).doubleValue());
+            assertEquals(price(auctionId), ((Number) cart.get("total")).doubleValue());
+            assertEquals(auctionId, ((Number) cart.get("product_id")).longValue());
+            assertEquals(1, ((Number) cart.get("quantity")).intValue());
+        }
+        assertEquals(sold, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM nota_venta", Integer.class));
+    }
+
+    private static double price(long auctionId) {
+        return 100.0 + auctionId;
+    }
+
+    /**
+     * Cada subasta i vende el producto i. Las multiplos de 10 no tienen pujas; en el resto el retador
+     * pujo primero el mismo monto visible que el lider alcanzo con su maximo automatico, de modo que
+     * ordenar por monto y fecha elegiria al retador.
+     */
+    private void seed(LocalDateTime now) {
+        Timestamp end = Timestamp.valueOf(now.minusMinutes(1));
+        Timestamp start = Timestamp.valueOf(now.minusDays(1));
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, password, status, role, version) VALUES (?, ?, 'x', 'ACTIVE', ?, 0)",
+                List.of(new Object[]{SELLER_ID, "seller", "SELLER"},
+                        new Object[]{CHALLENGER_ID, "challenger", "BUYER"},
+                        new Object[]{LEADER_ID, "leader", "BUYER"}));
+
+        List<Object[]> products = new ArrayList<>();
+        List<Object[]> auctions = new ArrayList<>();
+        List<Object[]> bids = new ArrayList<>();
+        for (long id = 1; id <= AUCTIONS; id++) {
+            products.add(new Object[]{id, SELLER_ID, "Obra " + id, id == 7 ? 0 : 1});
+            boolean withBids = id % 10 != 0;
+            auctions.add(new Object[]{id, id, SELLER_ID, start, end, withBids ? price(id) : 100.0, withBids ? LEADER_ID : null});
+            if (withBids) {
+                bids.add(new Object[]{id * 2, id, CHALLENGER_ID, price(id), null, Timestamp.valueOf(now.minusMinutes(10))});
+                bids.add(new Object[]{id * 2 + 1, id, LEADER_ID, price(id), price(id) + 50, Timestamp.valueOf(now.minusMinutes(5))});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO product (id, seller, name, materials, price, stock, status, version) " +
+                "VALUES (?, ?, ?, 'oleo', 100, ?, 'ON_AUCTION', 0)", products);
+        jdbcTemplate.batchUpdate("INSERT INTO auction (id, product_id, seller_id, status, start_date, end_date, starting_price, " +
+                "current_price, highest_bidder_id, version) VALUES (?, ?, ?, 'ACTIVE', ?, ?, 100, ?, ?, 0)", auctions);
+        jdbcTemplate.batchUpdate("INSERT INTO auction_participant (id, auction_id, participant_id, bid_amount, max_bid, bid_date, version) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 0)", bids);
+    }
+}
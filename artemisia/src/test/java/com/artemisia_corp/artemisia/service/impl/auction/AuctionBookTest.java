@@ -0,0 +1,176 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import com.artemisia_corp.artemisia.exception.OperationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionBookTest {
+    private static final Long AUCTION_ID = 1L;
+    private static final Long SELLER_ID = 99_999L;
+
+    @Test
+    void concurrentBiddersNeverLoseTheHighestBid() throws Exception {
+        int bidders = 1000;
+        LocalDateTime now = LocalDateTime.now();
+        AuctionBook book = new AuctionBook(AUCTION_ID, SELLER_ID, now.plusHours(1), 100.0, null);
+
+        List<Integer> amounts = new ArrayList<>();
+        for (int i = 1; i <= bidders; i++) amounts.add(100 + i);
+        Collections.shuffle(amounts);
+
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < bidders; i++) {
+            long participantId = i + 1;
+            double amount = amounts.get(i);
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    book.placeBid(participantId, amount, now);
+                    accepted.incrementAndGet();
+                } catch (OperationException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertEquals(bidders, accepted.get() + rejected.get());
+        assertEquals(100.0 + bidders, book.getCurrentPrice());
+        long winner = amounts.indexOf(100 + bidders) + 1;
+        assertEquals(winner, book.getHighestBidderId());
+
+        List<PendingBid> pending = book.drainPending();
+        assertEquals(accepted.get(), pending.size());
+        assertEquals(accepted.get(), book.getSequence());
+        for (int i = 1; i < pending.size(); i++) {
+            assertTrue(pending.get(i).getBidAmount() > pending.get(i - 1).getBidAmount(),
+                    "accepted bids must be strictly increasing");
+        }
+        assertEquals(100.0 + bidders, pending.get(pending.size() - 1).getBidAmount());
+    }
+
+    @Test
+    void rejectsSellerLowBidsAndClosedBook() {
+        LocalDateTime now = LocalDateTime.now();
+        AuctionBook book = new AuctionBook(AUCTION_ID, SELLER_ID, now.plusMinutes(5), 50.0, null);
+
+        assertThrows(OperationException.class, () -> book.placeBid(SELLER_ID, 60.0, now));
+        assertThrows(OperationException.class, () -> book.placeBid(1L, 50.0, now));
+        assertThrows(OperationException.class, () -> book.placeBid(1L, 60.0, now.plusMinutes(5)));
+
+        book.placeBid(1L, 60.0, now);
+        List<PendingBid> remaining = book.close();
+        assertEquals(1, remaining.size());
+        assertThrows(OperationException.class, () -> book.placeBid(2L, 70.0, now));
+        assertEquals(1L, book.getHighestBidderId());
+    }
+
+    @Test
+    void aBidEqualToTheLeadersMaximumKeepsTheLeaderInThePendingBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        AuctionBook book = new AuctionBook(AUCTION_ID, SELLER_ID, now.plusHours(1), 100.0, null, 1.0);
+        book.placeBid(1L, 150.0, 200.0, now);
+        book.drainPending();
+
+        // Puja manual igual al maximo del lider: el mas antiguo conserva el liderazgo con el mismo monto
+        BidOutcome outcome = book.placeBid(2L, 200.0, now);
+        assertEquals(1L, outcome.getHighestBidderId());
+        assertEquals(200.0, outcome.getCurrentPrice());
+
+        List<PendingBid> batch = book.drainPending();
+        assertEquals(2, batch.size());
+        assertEquals(batch.get(0).getBidAmount(), batch.get(1).getBidAmount());
+        for (PendingBid bid : batch) {
+            assertEquals(1L, bid.getLeaderId(), "the book's leader travels with every pending bid");
+        }
+
+        // Dos pujas manuales del mismo participante en un lote se combinan sin maximo
+        book.placeBid(2L, 201.0, now);
+        book.placeBid(2L, 205.0, now);
+        List<PendingBid> raised = book.drainPending();
+        PendingBid merged = raised.get(0).merge(raised.get(raised.size() - 1));
+        assertEquals(205.0, merged.getBidAmount());
+        assertNull(merged.getMaxAmount());
+        assertEquals(2L, merged.getLeaderId());
+    }
+
+    @Test
+    void freshlyLoadedBookRechecksTheAuctionWithItsFirstBid() {
+        LocalDateTime now = LocalDateTime.now();
+        AtomicInteger checks = new AtomicInteger();
+        AuctionBook finished = new AuctionBook(AUCTION_ID, SELLER_ID, now.plusMinutes(5), 50.0, null);
+        // La subasta se finalizo despues de la lectura que cargo el libro
+        finished.requireActiveCheck(() -> {
+            checks.incrementAndGet();
+            return false;
+        });
+
+        assertThrows(OperationException.class, () -> finished.placeBid(1L, 60.0, now));
+        assertThrows(OperationException.class, () -> finished.placeBid(2L, 70.0, now));
+        assertFalse(finished.isOpen());
+        assertTrue(finished.drainPending().isEmpty());
+        assertEquals(1, checks.get());
+
+        AuctionBook active = new AuctionBook(AUCTION_ID, SELLER_ID, now.plusMinutes(5), 50.0, null);
+        active.requireActiveCheck(() -> checks.incrementAndGet() > 0);
+        active.placeBid(1L, 60.0, now);
+        active.placeBid(2L, 70.0, now);
+        assertEquals(2, checks.get());
+        assertEquals(70.0, active.getCurrentPrice());
+    }
+
+    @Test
+    void proxyMaximaResolveToSecondHighestPlusIncrement() {
+        LocalDateTime now = LocalDateTime.now();
+        AuctionBook book = new AuctionBook(AUCTION_ID, SELLER_ID, now.plusHours(1), 100.0, null, 1.0);
+
+        book.placeBid(1L, 110.0, 200.0, now);
+        assertEquals(110.0, book.getCurrentPrice());
+        assertEquals(1L, book.getHighestBidderId());
+
+        // Una puja manual por debajo del maximo del lider es respondida automaticamente
+        BidOutcome outbid = book.placeBid(2L, 150.0, now);
+        assertEquals(151.0, outbid.getCurrentPrice());
+        assertEquals(1L, outbid.getHighestBidderId());
+        assertEquals(150.0, outbid.getBidAmount());
+
+        book.placeBid(3L, 160.0, 250.0, now);
+        assertEquals(201.0, book.getCurrentPrice());
+        assertEquals(3L, book.getHighestBidderId());
+
+        // Maximos empatados: gana el mas antiguo y el precio llega al maximo
+        book.placeBid(1L, 202.0, 250.0, now);
+        assertEquals(250.0, book.getCurrentPrice());
+        assertEquals(3L, book.getHighestBidderId());
+
+        // El lider sube su maximo sin mover el precio visible
+        book.placeBid(3L, 1.0, 300.0, now);
+        assertEquals(250.0, book.getCurrentPrice());
+        assertEquals(300.0, book.getMaxOf(3L));
+        assertThrows(OperationException.class, () -> book.placeBid(3L, 1.0, 280.0, now));
+
+        // Solo se persisten montos visibles: nunca el maximo como puja
+        for (PendingBid bid : book.drainPending()) {
+            assertTrue(bid.getBidAmount() <= 250.0);
+        }
+    }
+}
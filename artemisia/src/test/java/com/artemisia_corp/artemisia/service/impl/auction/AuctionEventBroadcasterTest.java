@@ -0,0 +1,170 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import com.artemisia_corp.artemisia.entity.dto.auction.AuctionEventDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionEventBroadcasterTest {
+    private static final Long AUCTION_ID = 7L;
+
+    private ExecutorService executor;
+    private AuctionEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+        broadcaster = new AuctionEventBroadcaster(executor, 8, 60_000, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fansOutBidsAndCloseToTenThousandSubscribers() throws Exception {
+        int subscribers = 10_000;
+        int bids = 5;
+        CountDownLatch closed = new CountDownLatch(subscribers);
+        AtomicInteger sawFinalBidBeforeClose = new AtomicInteger();
+        for (int i = 0; i < subscribers; i++) {
+            broadcaster.register(AUCTION_ID, new AuctionEventSink() {
+                private long lastSequence = -1;
+
+                @Override
+                public void send(AuctionEventDto event) {
+                    if (AuctionEventDto.BID.equals(event.getType())) {
+                        assertTrue(event.getSequence() > lastSequence, "bids must arrive in order");
+                        lastSequence = event.getSequence();
+                    } else if (AuctionEventDto.CLOSED.equals(event.getType()) && lastSequence == bids) {
+                        sawFinalBidBeforeClose.incrementAndGet();
+                    }
+                }
+
+                @Override
+                public void close() {
+                    closed.countDown();
+                }
+            });
+        }
+
+        for (long seq = 1; seq <= bids; seq++) {
+            broadcaster.publish(bid(seq, 100.0 + seq));
+        }
+        broadcaster.publishClosed(AuctionEventDto.builder().type(AuctionEventDto.CLOSED).auctionId(AUCTION_ID).build());
+
+        assertTrue(closed.await(30, TimeUnit.SECONDS), "every subscriber must receive the close event");
+        assertEquals(subscribers, sawFinalBidBeforeClose.get());
+        assertEquals(0, broadcaster.getSubscriberCount(AUCTION_ID));
+        assertEquals(0, broadcaster.getDroppedSubscribers());
+    }
+
+    @Test
+    void dropsSlowSubscriberWithoutBlockingOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch slowSending = new CountDownLatch(1);
+        CountDownLatch slowClosed = new CountDownLatch(1);
+        // Como SseEmitter: send y complete comparten el mismo monitor
+        Object emitterMonitor = new Object();
+        AuctionEventBroadcaster.Subscriber slow = broadcaster.register(AUCTION_ID, new AuctionEventSink() {
+            @Override
+            public void send(AuctionEventDto event) {
+                synchronized (emitterMonitor) {
+                    slowSending.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+
+            @Override
+            public void close() {
+                synchronized (emitterMonitor) {
+                    slowClosed.countDown();
+                }
+            }
+        });
+        AtomicLong fastLastSequence = new AtomicLong();
+        broadcaster.register(AUCTION_ID, new AuctionEventSink() {
+            @Override
+            public void send(AuctionEventDto event) {
+                fastLastSequence.set(event.getSequence());
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        broadcaster.publish(bid(1, 101.0));
+        assertTrue(slowSending.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        // El hilo que publica no puede quedar esperando el monitor del emisor bloqueado
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            for (long seq = 2; seq <= 50; seq++) {
+                broadcaster.publish(bid(seq, 100.0 + seq));
+            }
+        });
+
+        assertTrue(slow.isClosed(), "slow subscriber must be dropped");
+        assertEquals(1, broadcaster.getDroppedSubscribers());
+        assertEquals(1, broadcaster.getSubscriberCount(AUCTION_ID));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (fastLastSequence.get() != 50 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(50, fastLastSequence.get());
+
+        // Cuando el envio bloqueado termina (o vence el timeout de escritura) el hilo de envio cierra la conexion
+        assertEquals(1, slowClosed.getCount());
+        release.countDown();
+        assertTrue(slowClosed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void neverDeliversABidOlderThanOneAlreadyPublished() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        AtomicLong lastSequence = new AtomicLong();
+        broadcaster.register(AUCTION_ID, new AuctionEventSink() {
+            @Override
+            public void send(AuctionEventDto event) {
+                assertTrue(event.getSequence() > lastSequence.get());
+                lastSequence.set(event.getSequence());
+                if (event.getSequence() == 3) received.countDown();
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        broadcaster.publish(bid(2, 120.0));
+        broadcaster.publish(bid(1, 110.0));
+        broadcaster.publish(bid(3, 130.0));
+
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertEquals(3, lastSequence.get());
+    }
+
+    private AuctionEventDto bid(long sequence, double price) {
+        return AuctionEventDto.builder()
+                .type(AuctionEventDto.BID)
+                .auctionId(AUCTION_ID)
+                .currentPrice(price)
+                .sequence(sequence)
+                .build();
+    }
+}
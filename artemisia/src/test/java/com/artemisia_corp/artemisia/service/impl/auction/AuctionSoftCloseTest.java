@@ -0,0 +1,85 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import com.artemisia_corp.artemisia.exception.OperationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionSoftCloseTest {
+    private static final Long AUCTION_ID = 7L;
+    private static final Long SELLER_ID = 99_999L;
+    private static final Instant START = Instant.parse("2026-01-01T12:00:00Z");
+
+    private Clock clock = Clock.fixed(START, ZoneOffset.UTC);
+
+    @Test
+    void lateBidExtendsEndDateAndMovesTheTimer() {
+        LocalDateTime end = now().plusMinutes(10);
+        AuctionBook book = new AuctionBook(AUCTION_ID, SELLER_ID, end, 100.0, null);
+        book.enableSoftClose(Duration.ofSeconds(60), Duration.ofSeconds(120));
+        AuctionTimerWheel wheel = new AuctionTimerWheel(50, 512, millis());
+        wheel.schedule(AUCTION_ID, toMillis(end));
+
+        // Fuera de la ventana final: la fecha no cambia
+        advance(Duration.ofMinutes(5));
+        BidOutcome early = book.placeBid(1L, 110.0, now());
+        assertFalse(early.isExtended());
+        assertEquals(end, book.getEndDate());
+
+        // A 30 s del final: la fecha pasa a ahora + 2 min y el temporizador se reprograma
+        advance(Duration.ofSeconds(270));
+        BidOutcome late = book.placeBid(2L, 120.0, now());
+        assertTrue(late.isExtended());
+        LocalDateTime extendedEnd = now().plusSeconds(120);
+        assertEquals(extendedEnd, late.getEndDate());
+        wheel.schedule(AUCTION_ID, toMillis(late.getEndDate()));
+
+        List<PendingBid> pending = book.drainPending();
+        assertEquals(extendedEnd, pending.get(pending.size() - 1).getAuctionEndDate());
+
+        // La fecha original ya no cierra la subasta
+        advance(Duration.ofSeconds(30));
+        assertEquals(List.of(), wheel.advance(millis()));
+        assertFalse(book.isExpired(now()));
+        book.placeBid(1L, 130.0, now());
+
+        // Sin mas pujas tardias, vence a la nueva hora
+        advance(Duration.ofSeconds(120));
+        assertEquals(List.of(AUCTION_ID), wheel.advance(millis()));
+        assertTrue(book.isExpired(now()));
+        assertThrows(OperationException.class, () -> book.placeBid(2L, 140.0, now()));
+    }
+
+    @Test
+    void disabledSoftCloseKeepsTheOriginalEnd() {
+        LocalDateTime end = now().plusMinutes(1);
+        AuctionBook book = new AuctionBook(AUCTION_ID, SELLER_ID, end, 100.0, null);
+
+        advance(Duration.ofSeconds(59));
+        assertFalse(book.placeBid(1L, 110.0, now()).isExtended());
+        assertEquals(end, book.getEndDate());
+    }
+
+    private void advance(Duration duration) {
+        clock = Clock.offset(clock, duration);
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private long millis() {
+        return clock.millis();
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,85 @@
+package com.artemisia_corp.artemisia.service.impl.auction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionTimerWheelTest {
+    private static final long TICK_MS = 10;
+    private static final int SLOTS = 8;
+    private static final long START = 1_000_000;
+
+    @Test
+    void firesEachAuctionOnceInDeadlineOrder() {
+        AuctionTimerWheel wheel = new AuctionTimerWheel(TICK_MS, SLOTS, START);
+        wheel.schedule(3L, START + 35);
+        wheel.schedule(2L, START + 18);
+        wheel.schedule(1L, START + 12);
+
+        // Se entrega en el primer tick que empieza en o despues del vencimiento, nunca antes
+        assertEquals(List.of(), wheel.advance(START + 11));
+        assertEquals(List.of(), wheel.advance(START + 19));
+        assertEquals(List.of(1L, 2L), wheel.advance(START + 20));
+        assertEquals(List.of(3L), wheel.advance(START + 40));
+        assertEquals(List.of(), wheel.advance(START + 100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlinesBeyondOneRevolutionWaitForTheirTurn() {
+        AuctionTimerWheel wheel = new AuctionTimerWheel(TICK_MS, SLOTS, START);
+        long revolution = TICK_MS * SLOTS;
+        // Misma ranura, dos y tres vueltas por delante
+        wheel.schedule(1L, START + 2 * revolution + 20);
+        wheel.schedule(2L, START + 3 * revolution + 20);
+
+        for (long now = START; now < START + 2 * revolution + 20; now += TICK_MS) {
+            assertEquals(List.of(), wheel.advance(now), "nothing is due at " + (now - START));
+        }
+        assertEquals(List.of(1L), wheel.advance(START + 2 * revolution + 20));
+        assertTrue(wheel.isScheduled(2L));
+        assertEquals(List.of(2L), wheel.advance(START + 3 * revolution + 20));
+    }
+
+    @Test
+    void aJumpOfSeveralRevolutionsStillFiresInDeadlineOrder() {
+        AuctionTimerWheel wheel = new AuctionTimerWheel(TICK_MS, SLOTS, START);
+        long revolution = TICK_MS * SLOTS;
+        wheel.schedule(1L, START + 30);
+        wheel.schedule(2L, START + revolution + 10);
+        wheel.schedule(3L, START + 5 * revolution);
+
+        assertEquals(List.of(1L, 2L), wheel.advance(START + 3 * revolution));
+        assertEquals(List.of(3L), wheel.advance(START + 5 * revolution));
+    }
+
+    @Test
+    void rescheduleMovesTheDeadlineAndCancelRemovesIt() {
+        AuctionTimerWheel wheel = new AuctionTimerWheel(TICK_MS, SLOTS, START);
+        wheel.schedule(1L, START + 20);
+        wheel.schedule(2L, START + 20);
+
+        // Cierre suave: la fecha se extiende mas de una vuelta
+        wheel.schedule(1L, START + 20 + TICK_MS * SLOTS * 2);
+        wheel.cancel(2L);
+        wheel.cancel(99L);
+
+        assertEquals(List.of(), wheel.advance(START + 30));
+        assertFalse(wheel.isScheduled(2L));
+        assertTrue(wheel.isScheduled(1L));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(1L), wheel.advance(START + 20 + TICK_MS * SLOTS * 2));
+
+        // Reprogramar a una fecha ya pasada la entrega en el siguiente tick
+        wheel.schedule(3L, START);
+        assertEquals(List.of(3L), wheel.advance(START + 20 + TICK_MS * SLOTS * 2 + TICK_MS));
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new AuctionTimerWheel(0, SLOTS, START));
+        assertThrows(IllegalArgumentException.class, () -> new AuctionTimerWheel(TICK_MS, 0, START));
+    }
+}